@@ -0,0 +1,189 @@
+package org.opentmf.v4.tmf622.util;
+
+import org.opentmf.v4.common.model.Characteristic;
+import org.opentmf.v4.product.model.ProductRefOrValue;
+import org.opentmf.v4.tmf622.model.OrderItemRelationship;
+import org.opentmf.v4.tmf622.model.ProductOrderCreate;
+import org.opentmf.v4.tmf622.model.ProductOrderItem;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index over the items of a Product Order, which answers the lookups of {@link
+ * ProductOrderUtil} with hash lookups instead of scanning the item list on each call. The index is
+ * built once in a single pass over the items, and it can be shared between threads.
+ *
+ * <p>The index is a snapshot of the order at the time it is built; it does not reflect later
+ * changes to the order. An item id resolves to the first item with that id, as in {@link
+ * ProductOrderUtil#findProductOrderItemById(ProductOrderCreate, String)}. A bundle is an item with
+ * "bundles" relationships, which refer to the items it bundles.
+ */
+public final class ProductOrderIndex {
+
+  private static final String BUNDLES = "bundles";
+
+  private final List<ProductOrderItem> items;
+  private final Map<String, ProductOrderItem> itemsById;
+  private final Map<String, List<ProductOrderItem>> itemsBySpecificationId;
+  private final Map<String, List<ProductOrderItem>> bundledItems;
+  private final Map<String, List<ProductOrderItem>> bundles;
+
+  private ProductOrderIndex(List<ProductOrderItem> items) {
+    this.items = Collections.unmodifiableList(new ArrayList<>(items));
+    itemsById = new HashMap<>(capacity(items.size()));
+    itemsBySpecificationId = new HashMap<>();
+    for (var item : items) {
+      itemsById.putIfAbsent(item.getId(), item);
+      var specificationId = specificationId(item.getProduct());
+      if (specificationId != null) {
+        itemsBySpecificationId.computeIfAbsent(specificationId, k -> new ArrayList<>()).add(item);
+      }
+    }
+    bundledItems = new HashMap<>();
+    bundles = new HashMap<>();
+    for (var item : items) {
+      if (item.getProductOrderItemRelationships() != null && itemsById.get(item.getId()) == item) {
+        indexBundle(item);
+      }
+    }
+    freeze(itemsBySpecificationId);
+    freeze(bundledItems);
+    freeze(bundles);
+  }
+
+  /**
+   * Builds the index of the items of the given Product Order.
+   *
+   * @param order The productOrderCreate payload, whose item list may be null.
+   * @return the index of the order items.
+   */
+  public static ProductOrderIndex of(ProductOrderCreate order) {
+    var items = order.getProductOrderItems();
+    return new ProductOrderIndex(items == null ? Collections.emptyList() : items);
+  }
+
+  /**
+   * @return the unmodifiable list of the order items, in their order in the order.
+   */
+  public List<ProductOrderItem> items() {
+    return items;
+  }
+
+  /**
+   * @param id The ID of the Product Order item.
+   * @return true if an item exists with the given id.
+   */
+  public boolean containsItem(String id) {
+    return itemsById.containsKey(id);
+  }
+
+  /**
+   * Finds a Product Order item by its ID.
+   *
+   * @param id The ID of the Product Order item to find.
+   * @return The found Product Order item.
+   * @throws IllegalArgumentException If the Product Order item with the given ID is not found in
+   *     the list.
+   */
+  public ProductOrderItem findProductOrderItemById(String id) {
+    var item = itemsById.get(id);
+    if (item == null) {
+      throw new IllegalArgumentException(
+          "ProductOrderItem with id = " + id + " not found in the list");
+    }
+    return item;
+  }
+
+  /**
+   * Finds all the items whose product has the requested product specification id.
+   *
+   * @param productSpecificationId the product specification id to match.
+   * @return the unmodifiable list of the matching items, in their order in the order.
+   */
+  public List<ProductOrderItem> findProductOrderItemsBySpecificationId(
+      String productSpecificationId) {
+    return itemsBySpecificationId.getOrDefault(productSpecificationId, Collections.emptyList());
+  }
+
+  /**
+   * Returns the characteristics of the first product with the requested product specification id.
+   *
+   * @param productSpecificationId the product specification id to match.
+   * @return the characteristics of the first matching product, or an empty list.
+   */
+  public List<Characteristic> findProductCharacteristicsBySpecificationId(
+      String productSpecificationId) {
+    var matches = findProductOrderItemsBySpecificationId(productSpecificationId);
+    if (matches.isEmpty() || matches.get(0).getProduct().getProductCharacteristics() == null) {
+      return Collections.emptyList();
+    }
+    return matches.get(0).getProduct().getProductCharacteristics();
+  }
+
+  /**
+   * @param id The ID of the Product Order item.
+   * @return true if the item with the given id is a bundle.
+   */
+  public boolean isBundle(String id) {
+    return bundledItems.containsKey(id);
+  }
+
+  /**
+   * Finds the items bundled by the item with the given id. Relationships that refer to items not
+   * in the order are skipped.
+   *
+   * @param bundleId The ID of the bundle item.
+   * @return the unmodifiable list of the bundled items, or an empty list if the item is not a
+   *     bundle.
+   */
+  public List<ProductOrderItem> findBundledItems(String bundleId) {
+    return bundledItems.getOrDefault(bundleId, Collections.emptyList());
+  }
+
+  /**
+   * Finds the bundles that contain the item with the given id.
+   *
+   * @param id The ID of the Product Order item.
+   * @return the unmodifiable list of the bundle items, or an empty list if no bundle contains the
+   *     item.
+   */
+  public List<ProductOrderItem> findBundlesOf(String id) {
+    return bundles.getOrDefault(id, Collections.emptyList());
+  }
+
+  private void indexBundle(ProductOrderItem item) {
+    List<ProductOrderItem> members = null;
+    for (OrderItemRelationship relationship : item.getProductOrderItemRelationships()) {
+      if (!BUNDLES.equals(relationship.getRelationshipType())) {
+        continue;
+      }
+      if (members == null) {
+        members = new ArrayList<>();
+        bundledItems.put(item.getId(), members);
+      }
+      var member = itemsById.get(relationship.getId());
+      if (member != null) {
+        members.add(member);
+        bundles.computeIfAbsent(member.getId(), k -> new ArrayList<>()).add(item);
+      }
+    }
+  }
+
+  private static String specificationId(ProductRefOrValue product) {
+    if (product == null || product.getProductSpecification() == null) {
+      return null;
+    }
+    return product.getProductSpecification().getId();
+  }
+
+  private static int capacity(int size) {
+    return (int) Math.min(Integer.MAX_VALUE, size * 4L / 3 + 1);
+  }
+
+  private static void freeze(Map<String, List<ProductOrderItem>> map) {
+    map.replaceAll((k, list) -> Collections.unmodifiableList(list));
+  }
+}
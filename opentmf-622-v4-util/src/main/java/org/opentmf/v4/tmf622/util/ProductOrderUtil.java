@@ -1,17 +1,26 @@
 package org.opentmf.v4.tmf622.util;
 
 import org.opentmf.v4.common.model.Characteristic;
+import org.opentmf.v4.common.util.CharacteristicUtil;
+import org.opentmf.v4.common.util.OrderCriticalPath;
+import org.opentmf.v4.common.util.OrderFingerprint;
+import org.opentmf.v4.common.util.OrderGraph;
+import org.opentmf.v4.common.util.OrderReachabilityIndex;
+import org.opentmf.v4.common.util.OrderScheduler;
+import org.opentmf.v4.common.util.OrderValidationCache;
+import org.opentmf.v4.common.util.RelatedPartyUtil;
+import org.opentmf.v4.common.util.StringPool;
 import org.opentmf.v4.product.model.ProductRefOrValue;
 import org.opentmf.v4.tmf622.model.OrderItemRelationship;
 import org.opentmf.v4.tmf622.model.ProductOrderCreate;
 import org.opentmf.v4.tmf622.model.ProductOrderItem;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.function.ToLongFunction;
 import lombok.Generated;
 
 /**
@@ -34,6 +43,9 @@ public final class ProductOrderUtil {
   /**
    * Finds a Product Order item within the given Product Order by its ID.
    *
+   * <p>This method scans the items on each call. For repeated lookups on the same order, build a
+   * {@link ProductOrderIndex} once and query it.
+   *
    * @param productOrder The Product Order containing the items to search within.
    * @param id The ID of the Product Order item to find.
    * @return The found Product Order item.
@@ -55,6 +67,9 @@ public final class ProductOrderUtil {
    * Traverses the productOrderItems and returns the characteristics of the first matching product
    * with the requested product specification id.
    *
+   * <p>This method scans the items on each call. For repeated lookups on the same order, build a
+   * {@link ProductOrderIndex} once and query it.
+   *
    * @param productOrder the product order.
    * @param productSpecificationId the product specification id to match.
    * @return the characteristics of the first matching product.
@@ -94,140 +109,411 @@ public final class ProductOrderUtil {
    *       being referenced by other product items
    *   <li>Validates all order items exist that are pointed by the orderItemRelationship.
    *   <li>Validates that order items does not have circular dependencies.
+   *   <li>Validates that no two order items have the same id, before the other checks.
    * </ul>
    *
+   * <p>The dependency graph of the order items is built once, and all the checks run on it in
+   * linear time with respect to the number of items and relationships.
+   *
    * @param order The productOrderCreate payload.
    */
   public static void validateOrder(ProductOrderCreate order) {
-    validateFlowCanStart(order);
-    validateFlowCanEnd(order);
-    validateAllDependentNodesExist(order);
-    validateCircularDependencies(order);
-  }
-
-  private static final int MAX_ITERATION = 100000;
-
-  private static void addDeepDependencies(
-      ProductOrderCreate order,
-      ProductOrderItem item,
-      Set<String> deepDependencySet,
-      Set<String> alreadyTraversed,
-      int iterationCount) {
-    if (!alreadyTraversed.contains(item.getId())) {
-      alreadyTraversed.add(item.getId());
-      if (iterationCount > MAX_ITERATION) {
-        throw new IllegalArgumentException("Very complex product tree not supported.");
-      }
-      var relList = item.getProductOrderItemRelationships();
-      if (relList != null) {
-        for (OrderItemRelationship rel : relList) {
-          deepDependencySet.add(rel.getId());
-          addDeepDependencies(
-              order,
-              orderItemMap(order).get(rel.getId()),
-              deepDependencySet,
-              alreadyTraversed,
-              ++iterationCount);
-        }
-      }
+    validateOrder(order, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Validates a ProductOrder as {@link #validateOrder(ProductOrderCreate)} does, additionally
+   * rejecting orders that hold more order item relationships than the given budget.
+   *
+   * <p>The dependency graph is traversed with an explicit stack, so the depth of the order item
+   * tree is bounded by the heap only, not by the thread stack.
+   *
+   * @param order The productOrderCreate payload.
+   * @param maxRelationships The maximum number of order item relationships to traverse.
+   * @throws IllegalArgumentException If the order is invalid, or it holds more relationships than
+   *     the budget.
+   */
+  public static void validateOrder(ProductOrderCreate order, int maxRelationships) {
+    validateOrderGraph(orderGraph(order), maxRelationships);
+  }
+
+  /**
+   * Validates a ProductOrder as {@link #validateOrder(ProductOrderCreate)} does, and groups
+   * its items into fulfillment waves. The first wave holds the items without dependencies, and
+   * each following wave holds the items whose dependencies are all in the previous waves, so the
+   * items of a wave can be fulfilled concurrently. The waves are computed in the same pass that
+   * checks the order for circular dependencies.
+   *
+   * @param order The productOrderCreate payload.
+   * @return the unmodifiable list of the fulfillment waves.
+   * @throws IllegalArgumentException If the order is invalid.
+   */
+  public static List<List<ProductOrderItem>> planFulfillmentWaves(ProductOrderCreate order) {
+    var graph = orderGraph(order);
+    validateOrderGraph(graph, Integer.MAX_VALUE);
+    return graph.waves();
+  }
+
+  /**
+   * Validates a ProductOrder as {@link #validateOrder(ProductOrderCreate)} does, and creates a
+   * scheduler that releases its items as their dependencies complete. The scheduler can be shared
+   * by concurrent completion callbacks.
+   *
+   * @param order The productOrderCreate payload.
+   * @return the scheduler of the order items, where no item is completed yet.
+   * @throws IllegalArgumentException If the order is invalid.
+   */
+  public static OrderScheduler<ProductOrderItem> createScheduler(ProductOrderCreate order) {
+    var graph = orderGraph(order);
+    validateOrderGraph(graph, Integer.MAX_VALUE);
+    return new OrderScheduler<>(graph);
+  }
+
+  /**
+   * Validates a ProductOrder as {@link #validateOrder(ProductOrderCreate)} does, and builds its
+   * reachability index, which answers whether an item depends on another one in constant time.
+   * The index takes n * n / 8 bytes for an order with n items.
+   *
+   * @param order The productOrderCreate payload.
+   * @return the reachability index of the order items.
+   * @throws IllegalArgumentException If the order is invalid.
+   */
+  public static OrderReachabilityIndex<ProductOrderItem> createReachabilityIndex(
+      ProductOrderCreate order) {
+    var graph = orderGraph(order);
+    validateOrderGraph(graph, Integer.MAX_VALUE);
+    return OrderReachabilityIndex.of(graph);
+  }
+
+  /**
+   * Validates a ProductOrder as {@link #validateOrder(ProductOrderCreate)} does, and computes its
+   * critical path: the earliest and latest start and finish times of each item, their slack, and
+   * the total duration of the order. The analysis runs on the same dependency graph as the
+   * validation, in linear time.
+   *
+   * @param order The productOrderCreate payload.
+   * @param duration Returns the expected duration of an order item, which must not be negative.
+   * @return the critical path analysis of the order.
+   * @throws IllegalArgumentException If the order is invalid, or a duration is negative.
+   */
+  public static OrderCriticalPath<ProductOrderItem> computeCriticalPath(
+      ProductOrderCreate order, ToLongFunction<ProductOrderItem> duration) {
+    var graph = orderGraph(order);
+    validateOrderGraph(graph, Integer.MAX_VALUE);
+    return OrderCriticalPath.of(graph, duration);
+  }
+
+  private static void validateOrderGraph(
+      OrderGraph<ProductOrderItem> graph, int maxRelationships) {
+    validateItemIdsAreUnique(graph);
+    validateFlowCanStart(graph);
+    validateFlowCanEnd(graph);
+    validateAllDependentNodesExist(graph);
+    validateCircularDependencies(graph, maxRelationships);
+  }
+
+  /**
+   * Ensures that no two order items have the same id, so that each relationship refers to one
+   * item.
+   *
+   * @param graph Dependency graph of the product order to validate.
+   */
+  private static void validateItemIdsAreUnique(OrderGraph<ProductOrderItem> graph) {
+    int duplicate = graph.duplicateItem();
+    if (duplicate >= 0) {
+      throw new IllegalArgumentException("Duplicate order item id " + graph.id(duplicate));
+    }
+  }
+
+  /**
+   * Ensures there is at least one independent order item for the flow to be runnable.
+   *
+   * @param graph Dependency graph of the product order to validate.
+   */
+  private static void validateFlowCanStart(OrderGraph<ProductOrderItem> graph) {
+    if (!graph.hasIndependentItem()) {
+      throw new IllegalArgumentException("No independent start node exists.");
     }
   }
 
-  private static Set<String> deepDependencies(ProductOrderCreate order, ProductOrderItem item) {
-    var deepDependencySet = new HashSet<String>();
-    var alreadyTraversedIds = new HashSet<String>();
-    addDeepDependencies(order, item, deepDependencySet, alreadyTraversedIds, 0);
-    return deepDependencySet;
+  /**
+   * Ensures that there is at least one product item without being referenced by other product items
+   * so that order flow can end.
+   *
+   * @param graph Dependency graph of the product order to validate.
+   */
+  private static void validateFlowCanEnd(OrderGraph<ProductOrderItem> graph) {
+    if (!graph.hasUnreferencedItem()) {
+      throw new IllegalArgumentException("No end node exists for the Product Order Flow.");
+    }
   }
 
-  private static void validateCircularDependency(ProductOrderCreate order, ProductOrderItem item) {
-    var deepDependencySet = deepDependencies(order, item);
-    if (deepDependencySet.contains(item.getId())) {
+  private static void validateAllDependentNodesExist(OrderGraph<ProductOrderItem> graph) {
+    int dangling = graph.danglingItem();
+    if (dangling >= 0) {
       throw new IllegalArgumentException(
-          "There is a cyclic dependency on order Item " + item.getId());
+          "Item " + graph.id(dangling) + " refers to non-existent item " + graph.danglingId());
     }
   }
 
-  private static void validateCircularDependencies(ProductOrderCreate order) {
-    order.getProductOrderItems().forEach(item -> validateCircularDependency(order, item));
+  private static void validateCircularDependencies(
+      OrderGraph<ProductOrderItem> graph, int maxRelationships) {
+    if (graph.relationshipCount() > maxRelationships) {
+      throw new IllegalArgumentException("Very complex product tree not supported.");
+    }
+    if (!graph.isAcyclic()) {
+      throw new IllegalArgumentException(
+          "There is a cyclic dependency on order Item " + graph.id(graph.firstCyclicItem()));
+    }
   }
 
   /**
-   * Ensures there is at least one independent order item for the flow to be runnable.
+   * Finds all the items that depend on the item with the given id, directly or transitively. These
+   * are the items to cancel or hold when the given item fails.
    *
-   * @param order Product order to validate.
+   * <p>This method builds the dependency graph of the order on each call. For repeated queries on
+   * the same order, build the graph once with {@link #orderGraph(ProductOrderCreate)} and query it.
+   *
+   * @param order The productOrderCreate payload.
+   * @param itemId The id of the product order item.
+   * @return the transitive dependents of the item, nearest first.
+   * @throws IllegalArgumentException If no item exists with the given id.
    */
-  private static void validateFlowCanStart(ProductOrderCreate order) {
-    for (var item : order.getProductOrderItems()) {
-      if (referenceCount(item) == 0) {
-        return;
-      }
-    }
-    throw new IllegalArgumentException("No independent start node exists.");
+  public static List<ProductOrderItem> findAllDependents(ProductOrderCreate order, String itemId) {
+    return orderGraph(order).dependentsOf(itemId);
   }
 
-  private static int referenceCount(ProductOrderItem me) {
-    var relList = me.getProductOrderItemRelationships();
-    return relList == null ? 0 : relList.size();
+  /**
+   * Finds all the items that the item with the given id depends on, directly or transitively.
+   *
+   * <p>This method builds the dependency graph of the order on each call. For repeated queries on
+   * the same order, build the graph once with {@link #orderGraph(ProductOrderCreate)} and query it.
+   *
+   * @param order The productOrderCreate payload.
+   * @param itemId The id of the product order item.
+   * @return the transitive dependencies of the item, nearest first.
+   * @throws IllegalArgumentException If no item exists with the given id.
+   */
+  public static List<ProductOrderItem> findAllDependencies(
+      ProductOrderCreate order, String itemId) {
+    return orderGraph(order).dependenciesOf(itemId);
   }
 
-  private static int referencesMeCount(ProductOrderCreate order, ProductOrderItem me) {
-    var count = 0;
-    for (var orderItem : order.getProductOrderItems()) {
-      if (orderItem != me) {
-        var relList = orderItem.getProductOrderItemRelationships();
-        if (relList != null) {
-          for (var rel : relList) {
-            if (rel.getId().equals(me.getId())) {
-              count++;
-            }
-          }
+  /**
+   * Partitions the items of a ProductOrder into independent groups, where no order item
+   * relationship connects the items of different groups. Each group holds its items in their order
+   * in the order, together with all the relationships between them, so the groups can be validated
+   * and fulfilled in parallel, for example on different workers.
+   *
+   * @param order The productOrderCreate payload.
+   * @return the unmodifiable list of the independent item groups.
+   */
+  public static List<List<ProductOrderItem>> partitionOrder(ProductOrderCreate order) {
+    return orderGraph(order).components();
+  }
+
+  /**
+   * Builds the dependency graph of the order items, where each order item relationship is an edge
+   * from the item to the item it refers to. The graph is immutable and reusable, so it can serve
+   * repeated queries on the same order without rebuilding anything.
+   *
+   * @param order The productOrderCreate payload.
+   * @return the dependency graph of the order items.
+   */
+  public static OrderGraph<ProductOrderItem> orderGraph(ProductOrderCreate order) {
+    return OrderGraph.of(
+        order.getProductOrderItems(),
+        ProductOrderItem::getId,
+        ProductOrderItem::getProductOrderItemRelationships,
+        OrderItemRelationship::getId);
+  }
+
+  /**
+   * Computes the fingerprint of the content of a Product Order, which is equal for the retried or
+   * duplicated payloads of the same order. The fingerprint covers:
+   *
+   * <ul>
+   *   <li>the external id, category, description, billing account and related parties of the
+   *       order,
+   *   <li>the id, action, quantity, billing account and product offering of its items, including
+   *       the items nested in other items, which follow their parent,
+   *   <li>the ids and types of their relationships,
+   *   <li>the id, href, name, product specification id and version, characteristics and related
+   *       parties of their products.
+   * </ul>
+   *
+   * <p>A billing account or a product offering is written with its id, href and name. Only these
+   * fields are covered: orders that differ only in other fields, such as their notes, have the
+   * same fingerprint. The nested items are covered although {@link
+   * #validateOrder(ProductOrderCreate)} validates only the top-level items, so the fingerprint
+   * covers more items than the validation reads, see {@link #graphFingerprint(ProductOrderCreate)}
+   * for the latter. The order of the characteristics and of the related parties does not change
+   * the fingerprint, while the order of the items and of their relationships does. The order is
+   * read in a single pass, without recursion and without building strings.
+   *
+   * @param order The productOrderCreate payload.
+   * @return the fingerprint of the order.
+   */
+  public static OrderFingerprint fingerprint(ProductOrderCreate order) {
+    var billingAccount = order.getBillingAccount();
+    var hasher = OrderFingerprint.hasher()
+        .putString(order.getExternalId())
+        .putString(order.getCategory())
+        .putString(order.getDescription())
+        .putBoolean(billingAccount != null);
+    if (billingAccount != null) {
+      hasher
+          .putString(billingAccount.getId())
+          .putString(billingAccount.getHref())
+          .putString(billingAccount.getName());
+    }
+    hasher.putRelatedParties(order.getRelatedParties()).putSize(order.getProductOrderItems());
+    Deque<ProductOrderItem> items = new ArrayDeque<>();
+    addAllReversed(items, order.getProductOrderItems());
+    while (!items.isEmpty()) {
+      var item = items.pop();
+      hasher.putString(item.getId()).putString(item.getAction()).putValue(item.getQuantity());
+      var itemBillingAccount = item.getBillingAccount();
+      hasher.putBoolean(itemBillingAccount != null);
+      if (itemBillingAccount != null) {
+        hasher
+            .putString(itemBillingAccount.getId())
+            .putString(itemBillingAccount.getHref())
+            .putString(itemBillingAccount.getName());
+      }
+      var offering = item.getProductOffering();
+      hasher.putBoolean(offering != null);
+      if (offering != null) {
+        hasher
+            .putString(offering.getId())
+            .putString(offering.getHref())
+            .putString(offering.getName());
+      }
+      var relationships = item.getProductOrderItemRelationships();
+      hasher.putSize(relationships);
+      if (relationships != null) {
+        for (var relationship : relationships) {
+          hasher.putString(relationship.getId()).putString(relationship.getRelationshipType());
         }
       }
+      var product = item.getProduct();
+      hasher.putBoolean(product != null);
+      if (product != null) {
+        var specification = product.getProductSpecification();
+        hasher
+            .putString(product.getId())
+            .putString(product.getHref())
+            .putString(product.getName())
+            .putString(specification == null ? null : specification.getId())
+            .putString(specification == null ? null : specification.getVersion())
+            .putCharacteristics(product.getProductCharacteristics())
+            .putRelatedParties(product.getRelatedParties());
+      }
+      // the nested items follow their parent, after their count
+      hasher.putSize(item.getProductOrderItems());
+      addAllReversed(items, item.getProductOrderItems());
     }
-    return count;
+    return hasher.fingerprint();
   }
 
   /**
-   * Ensures that there is at least one product item without being referenced by other product items
-   * so that order flow can end.
+   * Computes the fingerprint of the dependency graph of a Product Order: the ids of its top-level
+   * items and the ids that their relationships refer to, in their order. This is the part of the
+   * order that {@link #validateOrder(ProductOrderCreate)} reads, which does not include the nested
+   * items, so orders with the same graph fingerprint have the same validation result.
    *
-   * @param order The product order to validate.
+   * @param order The productOrderCreate payload.
+   * @return the fingerprint of the order item graph.
    */
-  private static void validateFlowCanEnd(ProductOrderCreate order) {
-    for (var item : order.getProductOrderItems()) {
-      var referencesMeCount = referencesMeCount(order, item);
-      if (referencesMeCount == 0) {
-        return;
+  public static OrderFingerprint graphFingerprint(ProductOrderCreate order) {
+    var hasher = OrderFingerprint.hasher().putSize(order.getProductOrderItems());
+    if (order.getProductOrderItems() != null) {
+      for (var item : order.getProductOrderItems()) {
+        hasher.putString(item.getId()).putSize(item.getProductOrderItemRelationships());
+        if (item.getProductOrderItemRelationships() != null) {
+          for (var relationship : item.getProductOrderItemRelationships()) {
+            hasher.putString(relationship.getId());
+          }
+        }
       }
     }
-    throw new IllegalArgumentException("No end node exists for the Product Order Flow.");
-  }
-
-  private static void validateDependentNodesExist(
-      ProductOrderItem item, Map<String, ProductOrderItem> orderItemMap) {
-    var relList = item.getProductOrderItemRelationships();
-    if (relList != null) {
-      for (var rel : relList) {
-        var otherItem = orderItemMap.get(rel.getId());
-        if (otherItem == null) {
-          throw new IllegalArgumentException(
-              "Item " + item.getId() + " refers to non-existent item " + rel.getId());
-        }
+    return hasher.fingerprint();
+  }
+
+  /**
+   * Creates a cache of the results of {@link #validateOrder(ProductOrderCreate)}, keyed by the
+   * {@link #graphFingerprint(ProductOrderCreate)} of the orders, so an order whose graph has
+   * already been validated is not validated again. A cached failure is thrown with the same
+   * message as the validation.
+   *
+   * @param maximumSize The maximum number of results in the cache.
+   * @param timeToLive The time a result stays in the cache after the validation.
+   * @return a new validation cache.
+   * @throws IllegalArgumentException If the maximum size or the time to live is not positive.
+   */
+  public static OrderValidationCache<ProductOrderCreate> createValidationCache(
+      int maximumSize, Duration timeToLive) {
+    return OrderValidationCache.of(
+        ProductOrderUtil::graphFingerprint,
+        ProductOrderUtil::validateOrder,
+        maximumSize,
+        timeToLive);
+  }
+
+  private static void addAllReversed(Deque<ProductOrderItem> items, List<ProductOrderItem> list) {
+    if (list != null) {
+      for (int i = list.size() - 1; i >= 0; i--) {
+        items.push(list.get(i));
       }
     }
   }
 
-  private static Map<String, ProductOrderItem> orderItemMap(ProductOrderCreate order) {
-    var map = new HashMap<String, ProductOrderItem>();
-    for (var item : order.getProductOrderItems()) {
-      map.put(item.getId(), item);
+  /**
+   * Replaces the repeating strings of a Product Order with their canonical instances in the pool,
+   * so the orders kept in a cache share them instead of holding their own copies. The following
+   * fields are canonicalized in place, in the order and in all of its items, including the nested
+   * ones:
+   *
+   * <ul>
+   *   <li>the action of the items, and the relationship type of their relationships,
+   *   <li>the names and value types of the product characteristics,
+   *   <li>the roles, referred types and types of the related parties of the order and products,
+   *   <li>the referred type of the product specifications.
+   * </ul>
+   *
+   * @param order The productOrderCreate payload.
+   * @param pool The pool of canonical strings.
+   */
+  public static void canonicalize(ProductOrderCreate order, StringPool pool) {
+    RelatedPartyUtil.canonicalize(order.getRelatedParties(), pool);
+    Deque<ProductOrderItem> items = new ArrayDeque<>();
+    addAll(items, order.getProductOrderItems());
+    while (!items.isEmpty()) {
+      var item = items.pop();
+      item.setAction(pool.canonicalize(item.getAction()));
+      if (item.getProductOrderItemRelationships() != null) {
+        for (var relationship : item.getProductOrderItemRelationships()) {
+          relationship.setRelationshipType(pool.canonicalize(relationship.getRelationshipType()));
+        }
+      }
+      var product = item.getProduct();
+      if (product != null) {
+        CharacteristicUtil.canonicalize(product.getProductCharacteristics(), pool);
+        RelatedPartyUtil.canonicalize(product.getRelatedParties(), pool);
+        var specification = product.getProductSpecification();
+        if (specification != null) {
+          specification.setAtReferredType(pool.canonicalize(specification.getAtReferredType()));
+        }
+      }
+      addAll(items, item.getProductOrderItems());
     }
-    return map;
   }
 
-  private static void validateAllDependentNodesExist(ProductOrderCreate order) {
-    var map = orderItemMap(order);
-    order.getProductOrderItems().forEach(item -> validateDependentNodesExist(item, map));
+  private static void addAll(Deque<ProductOrderItem> items, List<ProductOrderItem> list) {
+    if (list != null) {
+      for (var item : list) {
+        items.push(item);
+      }
+    }
   }
 }
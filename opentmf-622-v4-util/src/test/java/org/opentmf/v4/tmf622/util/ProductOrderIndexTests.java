@@ -0,0 +1,168 @@
+package org.opentmf.v4.tmf622.util;
+
+import static org.opentmf.commons.util.JacksonUtil.fileToObject;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.opentmf.v4.product.model.ProductRefOrValue;
+import org.opentmf.v4.product.model.ProductSpecificationRef;
+import org.opentmf.v4.tmf622.model.OrderItemRelationship;
+import org.opentmf.v4.tmf622.model.ProductOrder;
+import org.opentmf.v4.tmf622.model.ProductOrderItem;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProductOrderIndexTests {
+
+  private static final ProductOrder PRODUCT_ORDER =
+      fileToObject("tmf622/util/product_order.json", ProductOrder.class);
+
+  private static final ProductOrderIndex INDEX = ProductOrderIndex.of(PRODUCT_ORDER);
+
+  @Test
+  void testFindProductOrderItemById_withExistingId_returnsItem() {
+    assertSame(
+        ProductOrderUtil.findProductOrderItemById(PRODUCT_ORDER, "200"),
+        INDEX.findProductOrderItemById("200"));
+    assertTrue(INDEX.containsItem("200"));
+    assertEquals(PRODUCT_ORDER.getProductOrderItems(), INDEX.items());
+  }
+
+  @Test
+  void testFindProductOrderItemById_withNonexistentId_throwsException() {
+    var e = assertThrows(
+        IllegalArgumentException.class, () -> INDEX.findProductOrderItemById("nonExistentItem"));
+    assertEquals(
+        "ProductOrderItem with id = nonExistentItem not found in the list", e.getMessage());
+    assertFalse(INDEX.containsItem("nonExistentItem"));
+  }
+
+  @Test
+  void testFindProductOrderItemById_withDuplicateIds_returnsFirstItem() {
+    var first = item("1");
+    var index = ProductOrderIndex.of(order(first, item("1")));
+
+    assertSame(first, index.findProductOrderItemById("1"));
+  }
+
+  @Test
+  void testFindProductCharacteristicsBySpecificationId_withValidInput_returnsValidResult() {
+    var list =
+        INDEX.findProductCharacteristicsBySpecificationId("UCDigitalLineLicenseSpecification");
+
+    assertEquals(15, list.size());
+    assertSame(
+        ProductOrderUtil.findProductCharacteristicsBySpecificationId(
+            PRODUCT_ORDER, "UCDigitalLineLicenseSpecification"),
+        list);
+  }
+
+  @Test
+  void testFindProductCharacteristicsBySpecificationId_withNonexistentId_returnsEmptyList() {
+    var list = INDEX.findProductCharacteristicsBySpecificationId("NonExistentId");
+
+    assertSame(Collections.emptyList(), list);
+  }
+
+  @Test
+  void testFindProductCharacteristicsBySpecificationId_withoutCharacteristics_returnsEmptyList() {
+    var index = ProductOrderIndex.of(order(item("1", "spec")));
+
+    assertSame(Collections.emptyList(), index.findProductCharacteristicsBySpecificationId("spec"));
+  }
+
+  @Test
+  void testFindProductOrderItemsBySpecificationId_withSharedSpecification_returnsAllMatches() {
+    var first = item("1", "spec");
+    var second = item("2", "spec");
+    var index = ProductOrderIndex.of(order(first, item("3"), item("4", "other"), second));
+
+    assertEquals(List.of(first, second), index.findProductOrderItemsBySpecificationId("spec"));
+    assertEquals(List.of(), index.findProductOrderItemsBySpecificationId("none"));
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> index.findProductOrderItemsBySpecificationId("spec").clear());
+  }
+
+  @Test
+  void testIsBundle_withFixtureItems_matchesProductOrderUtil() {
+    for (var item : PRODUCT_ORDER.getProductOrderItems()) {
+      assertEquals(ProductOrderUtil.isBundle(item), INDEX.isBundle(item.getId()));
+    }
+    assertFalse(INDEX.isBundle("nonExistentItem"));
+  }
+
+  @Test
+  void testFindBundledItems_withBundle_returnsMembers() {
+    assertEquals(List.of("100-1", "100-2"), ids(INDEX.findBundledItems("100")));
+    assertEquals(List.of(), INDEX.findBundledItems("200"));
+    assertEquals(List.of("100"), ids(INDEX.findBundlesOf("100-2")));
+    assertEquals(List.of(), INDEX.findBundlesOf("100"));
+  }
+
+  @Test
+  void testFindBundledItems_withNestedAndDanglingRelationships_skipsMissingItems() {
+    var outer = bundle("outer", "inner", "missing");
+    var inner = bundle("inner", "leaf");
+    var leaf = item("leaf");
+    var index = ProductOrderIndex.of(order(outer, inner, leaf));
+
+    assertTrue(index.isBundle("outer"));
+    assertEquals(List.of(inner), index.findBundledItems("outer"));
+    assertEquals(List.of(leaf), index.findBundledItems("inner"));
+    assertEquals(List.of(inner), index.findBundlesOf("leaf"));
+    assertEquals(List.of(outer), index.findBundlesOf("inner"));
+  }
+
+  @Test
+  void testOf_withoutItems_returnsEmptyIndex() {
+    var index = ProductOrderIndex.of(new ProductOrder());
+
+    assertEquals(List.of(), index.items());
+    assertFalse(index.isBundle("1"));
+    assertEquals(List.of(), index.findBundlesOf("1"));
+  }
+
+  private List<String> ids(List<ProductOrderItem> items) {
+    return items.stream().map(ProductOrderItem::getId).toList();
+  }
+
+  private ProductOrder order(ProductOrderItem... items) {
+    var order = new ProductOrder();
+    order.setProductOrderItems(Arrays.stream(items).toList());
+    return order;
+  }
+
+  private ProductOrderItem item(String id) {
+    var item = new ProductOrderItem();
+    item.setId(id);
+    return item;
+  }
+
+  private ProductOrderItem item(String id, String productSpecificationId) {
+    var specification = new ProductSpecificationRef();
+    specification.setId(productSpecificationId);
+    var product = new ProductRefOrValue();
+    product.setProductSpecification(specification);
+    var item = item(id);
+    item.setProduct(product);
+    return item;
+  }
+
+  private ProductOrderItem bundle(String id, String... memberIds) {
+    var item = item(id);
+    item.setProductOrderItemRelationships(
+        Arrays.stream(memberIds).map(memberId -> {
+          var rel = new OrderItemRelationship();
+          rel.setId(memberId);
+          rel.setRelationshipType("bundles");
+          return rel;
+        }).toList());
+    return item;
+  }
+}
@@ -2,22 +2,37 @@ package org.opentmf.v4.tmf622.util;
 
 import static org.opentmf.commons.util.JacksonUtil.fileToObject;
 import static org.opentmf.commons.util.ListUtil.safeMutable;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.canonicalize;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.computeCriticalPath;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.createReachabilityIndex;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.createScheduler;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.createValidationCache;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.findAllDependencies;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.findAllDependents;
 import static org.opentmf.v4.tmf622.util.ProductOrderUtil.findProductCharacteristicsBySpecificationId;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.fingerprint;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.graphFingerprint;
 import static org.opentmf.v4.tmf622.util.ProductOrderUtil.findProductOrderItemById;
 import static org.opentmf.v4.tmf622.util.ProductOrderUtil.isBundle;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.orderGraph;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.partitionOrder;
+import static org.opentmf.v4.tmf622.util.ProductOrderUtil.planFulfillmentWaves;
 import static org.opentmf.v4.tmf622.util.ProductOrderUtil.validateOrder;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.opentmf.v4.common.util.StringPool;
 import org.opentmf.v4.tmf622.model.OrderItemRelationship;
 import org.opentmf.v4.tmf622.model.ProductOrder;
 import org.opentmf.v4.tmf622.model.ProductOrderCreate;
 import org.opentmf.v4.tmf622.model.ProductOrderItem;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -62,6 +77,97 @@ class ProductOrderUtilTests {
     assertDoesNotThrow(() -> ProductOrderUtil.validateOrder(PRODUCT_ORDER_CREATE));
   }
 
+  @Test
+  void testPlanFulfillmentWaves_withValidData_returnsWaves() {
+    var waves = planFulfillmentWaves(PRODUCT_ORDER_CREATE);
+
+    assertEquals(3, waves.size());
+    assertEquals(List.of("100-2"), ids(waves.get(0)));
+    assertEquals(List.of("100-1", "200"), ids(waves.get(1)));
+    assertEquals(List.of("100", "300"), ids(waves.get(2)));
+  }
+
+  @Test
+  void testPlanFulfillmentWaves_withCircularDependencies_throwsException() {
+    var order = order("1",
+        item("100"),
+        item("200", "300"),
+        item("300", "200")
+    );
+    var e = assertThrows(IllegalArgumentException.class, () -> planFulfillmentWaves(order));
+    assertEquals("There is a cyclic dependency on order Item 200", e.getMessage());
+  }
+
+  @Test
+  void testCreateScheduler_withValidData_releasesItemsAsDependenciesComplete() {
+    var scheduler = createScheduler(PRODUCT_ORDER_CREATE);
+
+    assertEquals(List.of("100-2"), ids(scheduler.readyItems()));
+    assertEquals(List.of("100-1", "200"), ids(scheduler.markCompleted("100-2")));
+    assertEquals(List.of("100"), ids(scheduler.markCompleted("100-1")));
+    assertEquals(List.of("300"), ids(scheduler.markCompleted("200")));
+  }
+
+  @Test
+  void testFindAllDependents_withValidData_returnsTransitiveDependents() {
+    assertEquals(List.of("100", "100-1", "200", "300"),
+        ids(findAllDependents(PRODUCT_ORDER_CREATE, "100-2")));
+    assertEquals(List.of(), ids(findAllDependents(PRODUCT_ORDER_CREATE, "300")));
+  }
+
+  @Test
+  void testFindAllDependencies_withValidData_returnsTransitiveDependencies() {
+    assertEquals(List.of("100-1", "100-2", "200"),
+        ids(findAllDependencies(PRODUCT_ORDER_CREATE, "300")));
+  }
+
+  @Test
+  void testOrderGraph_withValidData_answersRepeatedQueries() {
+    var graph = orderGraph(PRODUCT_ORDER_CREATE);
+
+    assertEquals(List.of("100", "300"), ids(graph.dependentsOf("100-1")));
+    assertEquals(List.of("100-2"), ids(graph.dependenciesOf("200")));
+  }
+
+  @Test
+  void testCreateReachabilityIndex_withValidData_answersDependencyQueries() {
+    var index = createReachabilityIndex(PRODUCT_ORDER_CREATE);
+
+    assertTrue(index.dependsOn("300", "100-2"));
+    assertTrue(index.dependsOn("100", "100-2"));
+    assertFalse(index.dependsOn("100-2", "300"));
+    assertFalse(index.dependsOn("200", "100-1"));
+  }
+
+  @Test
+  void testPartitionOrder_withIndependentItems_returnsGroups() {
+    var order = order("1",
+        item("100"),
+        item("200"),
+        item("300", "100"),
+        item("400", "200"),
+        item("500")
+    );
+    var partitions = partitionOrder(order);
+
+    assertEquals(3, partitions.size());
+    assertEquals(List.of("100", "300"), ids(partitions.get(0)));
+    assertEquals(List.of("200", "400"), ids(partitions.get(1)));
+    assertEquals(List.of("500"), ids(partitions.get(2)));
+    assertEquals(1, partitionOrder(PRODUCT_ORDER_CREATE).size());
+  }
+
+  @Test
+  void testComputeCriticalPath_withValidData_returnsLongestPath() {
+    var cp = computeCriticalPath(PRODUCT_ORDER_CREATE, item -> "200".equals(item.getId()) ? 5 : 1);
+
+    assertEquals(7, cp.totalDuration());
+    assertEquals(List.of("100-2", "200", "300"), ids(cp.criticalPath()));
+    assertEquals(1, cp.earliestStart("100-1"));
+    assertEquals(4, cp.slack("100-1"));
+    assertEquals(0, cp.slack("200"));
+  }
+
   @Test
   void testFindProductCharacteristicsBySpecificationId_withValidInput_returnsValidResult() {
     var list =
@@ -108,10 +214,65 @@ class ProductOrderUtilTests {
   @Test
   void testValidate_withComplexProductTree_throwsException() {
     var order = getComplexOrder();
-    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order));
+    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order, 100000));
     assertEquals("Very complex product tree not supported.", e.getMessage());
   }
 
+  @Test
+  void testValidate_withComplexCyclicProductTreeAndNoBudget_throwsCyclicDependencyException() {
+    var order = getComplexOrder();
+    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order));
+    assertEquals("There is a cyclic dependency on order Item 0", e.getMessage());
+  }
+
+  @Test
+  void testValidate_withVeryLongDependencyChain_validatesSuccessfully() {
+    var items = new ProductOrderItem[200000];
+    items[0] = item("0");
+    for (int i = 1; i < items.length; i++) {
+      items[i] = item("" + i, "" + (i - 1));
+    }
+    var order = order("1", items);
+    assertDoesNotThrow(() -> validateOrder(order));
+  }
+
+  @Test
+  void testValidate_withVeryLongCyclicDependencyChain_throwsException() {
+    var items = new ProductOrderItem[200001];
+    items[0] = item("start");
+    items[1] = item("0", "" + (items.length - 2));
+    for (int i = 2; i < items.length; i++) {
+      items[i] = item("" + (i - 1), "" + (i - 2));
+    }
+    var order = order("1", items);
+    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order));
+    assertEquals("There is a cyclic dependency on order Item 0", e.getMessage());
+  }
+
+  @Test
+  void testValidate_withSelfReferencingItem_throwsException() {
+    var order = order("1",
+        item("100"),
+        item("200", "100", "200")
+    );
+    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order));
+    assertEquals("There is a cyclic dependency on order Item 200", e.getMessage());
+  }
+
+  @Test
+  void testValidate_withLargeLayeredOrder_validatesSuccessfully() {
+    var items = new ArrayList<ProductOrderItem>();
+    for (int i = 0; i < 5000; i++) {
+      var dependentIds = new ArrayList<String>();
+      for (int j = i - i % 100 - 100; j >= 0 && j < i - i % 100; j += 10) {
+        dependentIds.add("" + j);
+      }
+      items.add(item("" + i, dependentIds.toArray(String[]::new)));
+    }
+    var order = order("1", items.toArray(ProductOrderItem[]::new));
+    assertDoesNotThrow(() -> validateOrder(order));
+  }
+
   @Test
   void testValidate_withoutIndependentOrderItem_throwsException() {
     var order = order("1");
@@ -155,6 +316,122 @@ class ProductOrderUtilTests {
     assertEquals("Item 200 refers to non-existent item 400", e.getMessage());
   }
 
+  @Test
+  void testValidate_withDuplicateItemIds_throwsException() {
+    // the second A would break the cycle if the relationships resolved to it
+    var order = order("1",
+        item("A", "B"),
+        item("B", "A"),
+        item("A"),
+        item("C")
+    );
+    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order));
+    assertEquals("Duplicate order item id A", e.getMessage());
+  }
+
+  @Test
+  void testCanonicalize_withRepeatingStrings_sharesInstances() {
+    var first = fileToObject(
+        "tmf622/util/product_order_create_valid.json", ProductOrderCreate.class);
+    var second = fileToObject(
+        "tmf622/util/product_order_create_valid.json", ProductOrderCreate.class);
+    var pool = new StringPool(100);
+
+    canonicalize(first, pool);
+    canonicalize(second, pool);
+
+    var firstItem = first.getProductOrderItems().get(0);
+    var secondItem = second.getProductOrderItems().get(0);
+    assertEquals("add", secondItem.getAction());
+    assertSame(firstItem.getAction(), secondItem.getAction());
+    assertSame(
+        firstItem.getProductOrderItemRelationships().get(0).getRelationshipType(),
+        secondItem.getProductOrderItemRelationships().get(1).getRelationshipType());
+    assertSame(
+        first.getRelatedParties().get(0).getRole(),
+        second.getRelatedParties().get(0).getRole());
+    assertTrue(pool.size() > 0);
+  }
+
+  @Test
+  void testFingerprint_withDuplicatePayloads_returnsEqualFingerprints() {
+    var first = fileToObject(
+        "tmf622/util/product_order_create_valid.json", ProductOrderCreate.class);
+    var second = fileToObject(
+        "tmf622/util/product_order_create_valid.json", ProductOrderCreate.class);
+    Collections.reverse(second.getRelatedParties());
+
+    assertEquals(fingerprint(first), fingerprint(second));
+
+    second.getProductOrderItems().get(0).setAction("modify");
+    assertNotEquals(fingerprint(first), fingerprint(second));
+  }
+
+  @Test
+  void testFingerprint_withChangedBillingAccountOrOffering_returnsDifferentFingerprints() {
+    var first = fileToObject(
+        "tmf622/util/product_order_create_valid.json", ProductOrderCreate.class);
+    var second = fileToObject(
+        "tmf622/util/product_order_create_valid.json", ProductOrderCreate.class);
+
+    second.getBillingAccount().setId("other");
+    assertNotEquals(fingerprint(first), fingerprint(second));
+    second.getBillingAccount().setId(first.getBillingAccount().getId());
+    assertEquals(fingerprint(first), fingerprint(second));
+
+    second.getProductOrderItems().get(0).getProductOffering().setHref("/other");
+    assertNotEquals(fingerprint(first), fingerprint(second));
+    second.getProductOrderItems().get(0).setProductOffering(null);
+    assertNotEquals(fingerprint(first), fingerprint(second));
+
+    var third = fileToObject(
+        "tmf622/util/product_order_create_valid.json", ProductOrderCreate.class);
+    third.setExternalId("other");
+    assertNotEquals(fingerprint(first), fingerprint(third));
+  }
+
+  @Test
+  void testFingerprint_withNestedItems_returnsDifferentFingerprints() {
+    var parent = item("1");
+    var child = item("2");
+    parent.setProductOrderItems(new ArrayList<>(List.of(child)));
+    var first = order("1", parent);
+    var second = order("2", item("1"), item("2"));
+
+    assertNotEquals(fingerprint(first), fingerprint(second));
+    var before = fingerprint(first);
+    child.setQuantity(2);
+    assertNotEquals(before, fingerprint(first));
+  }
+
+  @Test
+  void testGraphFingerprint_withChangesOutOfTheGraph_returnsEqualFingerprints() {
+    var first = order("1", item("1"), item("2", "1"));
+    var second = order("2", item("1"), item("2", "1"));
+    second.getProductOrderItems().get(0).setAction("delete");
+
+    assertEquals(graphFingerprint(first), graphFingerprint(second));
+    assertNotEquals(graphFingerprint(first), graphFingerprint(order("3", item("1"), item("2"))));
+  }
+
+  @Test
+  void testCreateValidationCache_withValidAndInvalidOrders_cachesBothResults() {
+    var cache = createValidationCache(10, Duration.ofMinutes(1));
+    var valid = order("1", item("1"), item("2", "1"));
+    var circular = order("2", item("1", "2"), item("2", "1"));
+
+    assertDoesNotThrow(() -> cache.validate(valid));
+    assertDoesNotThrow(() -> cache.validate(order("3", item("1"), item("2", "1"))));
+    var expected = assertThrows(IllegalArgumentException.class, () -> validateOrder(circular));
+    var first = assertThrows(IllegalArgumentException.class, () -> cache.validate(circular));
+    var second = assertThrows(IllegalArgumentException.class, () -> cache.validate(circular));
+
+    assertEquals(expected.getMessage(), first.getMessage());
+    assertEquals(expected.getMessage(), second.getMessage());
+    assertEquals(2, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
   private ProductOrder getComplexOrder() {
     var order = order("1");
     order.setProductOrderItems(safeMutable(List.of(item("IndependentStartItem"))));
@@ -172,6 +449,10 @@ class ProductOrderUtilTests {
     return order;
   }
 
+  private List<String> ids(List<ProductOrderItem> items) {
+    return items.stream().map(ProductOrderItem::getId).toList();
+  }
+
   private ProductOrder order(String id, ProductOrderItem... items) {
     var order = new ProductOrder();
     order.setId(id);
@@ -0,0 +1,197 @@
+package org.opentmf.v4.tmf641.util;
+
+import org.opentmf.v4.tmf641.model.ServiceOrder;
+import org.opentmf.v4.tmf641.model.ServiceOrderErrorMessage;
+import org.opentmf.v4.tmf641.model.ServiceOrderItem;
+import org.opentmf.v4.tmf641.model.ServiceOrderItemRef;
+import org.opentmf.v4.tmf641.model.ServiceOrderItemRelationship;
+import org.opentmf.v4.tmf641.model.ServiceOrderJeopardyAlert;
+import org.opentmf.v4.tmf641.model.ServiceOrderMilestone;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An immutable index over a Service Order, which gives constant time access to its items, the
+ * relationships between them, and the jeopardy alerts, milestones and error messages that refer to
+ * them through their "serviceOrderItem" references. The index is built once in a single pass over
+ * each list of the order, and it can be shared between threads.
+ *
+ * <p>The index is a snapshot of the order at the time it is built; it does not reflect later
+ * changes to the order. An item id resolves to the first item with that id, as in {@link
+ * ServiceOrderUtil#findServiceOrderItemById(ServiceOrder, String)}. Alerts, milestones and error
+ * messages are indexed by the item ids they refer to, whether an item exists with that id or not.
+ */
+public final class ServiceOrderIndex {
+
+  private final List<ServiceOrderItem> items;
+  private final Map<String, ServiceOrderItem> itemsById;
+  private final Map<String, List<ServiceOrderItem>> relatedItems;
+  private final Map<String, List<ServiceOrderItem>> referringItems;
+  private final Map<String, List<ServiceOrderJeopardyAlert>> jeopardyAlerts;
+  private final Map<String, List<ServiceOrderMilestone>> milestones;
+  private final Map<String, List<ServiceOrderErrorMessage>> errorMessages;
+
+  private ServiceOrderIndex(ServiceOrder order) {
+    var orderItems = nonNull(order.getServiceOrderItems());
+    items = Collections.unmodifiableList(new ArrayList<>(orderItems));
+    itemsById = new HashMap<>(capacity(orderItems.size()));
+    for (var item : orderItems) {
+      itemsById.putIfAbsent(item.getId(), item);
+    }
+    relatedItems = new HashMap<>();
+    referringItems = new HashMap<>();
+    for (var item : orderItems) {
+      if (item.getServiceOrderItemRelationships() != null && itemsById.get(item.getId()) == item) {
+        indexRelationships(item);
+      }
+    }
+    freeze(relatedItems);
+    freeze(referringItems);
+    jeopardyAlerts =
+        indexByItem(order.getJeopardyAlerts(), ServiceOrderJeopardyAlert::getServiceOrderItems);
+    milestones = indexByItem(order.getMilestones(), ServiceOrderMilestone::getServiceOrderItems);
+    errorMessages =
+        indexByItem(order.getErrorMessages(), ServiceOrderErrorMessage::getServiceOrderItems);
+  }
+
+  /**
+   * Builds the index of the given Service Order.
+   *
+   * @param order The Service Order to index.
+   * @return the index of the order.
+   */
+  public static ServiceOrderIndex of(ServiceOrder order) {
+    return new ServiceOrderIndex(order);
+  }
+
+  /**
+   * @return the unmodifiable list of the order items, in their order in the order.
+   */
+  public List<ServiceOrderItem> items() {
+    return items;
+  }
+
+  /**
+   * @param id The ID of the Service Order item.
+   * @return true if an item exists with the given id.
+   */
+  public boolean containsItem(String id) {
+    return itemsById.containsKey(id);
+  }
+
+  /**
+   * Finds a Service Order item by its ID.
+   *
+   * @param id The ID of the Service Order item to find.
+   * @return The found Service Order item.
+   * @throws IllegalArgumentException If the Service Order item with the given ID is not found in
+   *     the list.
+   */
+  public ServiceOrderItem findServiceOrderItemById(String id) {
+    var item = itemsById.get(id);
+    if (item == null) {
+      throw new IllegalArgumentException(
+          "ServiceOrderItem with id = " + id + " not found in the collection");
+    }
+    return item;
+  }
+
+  /**
+   * Finds the items that the relationships of the item with the given id refer to. Relationships
+   * that refer to items not in the order are skipped.
+   *
+   * @param id The ID of the Service Order item.
+   * @return the unmodifiable list of the related items, in the order of the relationships.
+   */
+  public List<ServiceOrderItem> findRelatedItems(String id) {
+    return relatedItems.getOrDefault(id, Collections.emptyList());
+  }
+
+  /**
+   * Finds the items that have a relationship to the item with the given id.
+   *
+   * @param id The ID of the Service Order item.
+   * @return the unmodifiable list of the referring items, in their order in the order.
+   */
+  public List<ServiceOrderItem> findReferringItems(String id) {
+    return referringItems.getOrDefault(id, Collections.emptyList());
+  }
+
+  /**
+   * @param itemId The ID of the Service Order item.
+   * @return the unmodifiable list of the jeopardy alerts that refer to the item, in their order in
+   *     the order.
+   */
+  public List<ServiceOrderJeopardyAlert> findJeopardyAlerts(String itemId) {
+    return jeopardyAlerts.getOrDefault(itemId, Collections.emptyList());
+  }
+
+  /**
+   * @param itemId The ID of the Service Order item.
+   * @return the unmodifiable list of the milestones that refer to the item, in their order in the
+   *     order.
+   */
+  public List<ServiceOrderMilestone> findMilestones(String itemId) {
+    return milestones.getOrDefault(itemId, Collections.emptyList());
+  }
+
+  /**
+   * @param itemId The ID of the Service Order item.
+   * @return the unmodifiable list of the error messages that refer to the item, in their order in
+   *     the order.
+   */
+  public List<ServiceOrderErrorMessage> findErrorMessages(String itemId) {
+    return errorMessages.getOrDefault(itemId, Collections.emptyList());
+  }
+
+  private void indexRelationships(ServiceOrderItem item) {
+    for (ServiceOrderItemRelationship relationship : item.getServiceOrderItemRelationships()) {
+      if (relationship.getOrderItem() == null) {
+        continue;
+      }
+      var related = itemsById.get(relationship.getOrderItem().getItemId());
+      if (related != null) {
+        relatedItems.computeIfAbsent(item.getId(), k -> new ArrayList<>()).add(related);
+        var referring = referringItems.computeIfAbsent(related.getId(), k -> new ArrayList<>());
+        if (referring.isEmpty() || referring.get(referring.size() - 1) != item) {
+          referring.add(item);
+        }
+      }
+    }
+  }
+
+  /**
+   * Indexes the entries by the item ids they refer to. An entry that refers to the same item more
+   * than once is indexed once for that item.
+   */
+  private static <E> Map<String, List<E>> indexByItem(
+      List<E> entries, Function<E, List<ServiceOrderItemRef>> itemRefs) {
+    Map<String, List<E>> index = new HashMap<>();
+    for (var entry : nonNull(entries)) {
+      for (var ref : nonNull(itemRefs.apply(entry))) {
+        var list = index.computeIfAbsent(ref.getItemId(), k -> new ArrayList<>());
+        if (list.isEmpty() || list.get(list.size() - 1) != entry) {
+          list.add(entry);
+        }
+      }
+    }
+    freeze(index);
+    return index;
+  }
+
+  private static <E> List<E> nonNull(List<E> list) {
+    return list == null ? Collections.emptyList() : list;
+  }
+
+  private static int capacity(int size) {
+    return (int) Math.min(Integer.MAX_VALUE, size * 4L / 3 + 1);
+  }
+
+  private static <E> void freeze(Map<String, List<E>> map) {
+    map.replaceAll((k, list) -> Collections.unmodifiableList(list));
+  }
+}
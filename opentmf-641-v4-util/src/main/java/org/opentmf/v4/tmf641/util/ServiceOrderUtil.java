@@ -1,13 +1,20 @@
 package org.opentmf.v4.tmf641.util;
 
+import org.opentmf.v4.common.util.CharacteristicUtil;
+import org.opentmf.v4.common.util.OrderCriticalPath;
+import org.opentmf.v4.common.util.OrderFingerprint;
+import org.opentmf.v4.common.util.OrderGraph;
+import org.opentmf.v4.common.util.OrderReachabilityIndex;
+import org.opentmf.v4.common.util.OrderScheduler;
+import org.opentmf.v4.common.util.OrderValidationCache;
+import org.opentmf.v4.common.util.RelatedPartyUtil;
+import org.opentmf.v4.common.util.StringPool;
 import org.opentmf.v4.tmf641.model.ServiceOrder;
 import org.opentmf.v4.tmf641.model.ServiceOrderCreate;
 import org.opentmf.v4.tmf641.model.ServiceOrderItem;
-import org.opentmf.v4.tmf641.model.ServiceOrderItemRelationship;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.ToLongFunction;
 import lombok.Generated;
 
 /**
@@ -17,14 +24,15 @@ import lombok.Generated;
  */
 public class ServiceOrderUtil {
 
-  private static final int MAX_ITERATION = 100000;
-
   @Generated
   private ServiceOrderUtil() {}
 
   /**
    * Finds a Service Order item within the given Service Order by its ID.
    *
+   * <p>This method scans the items on each call. For repeated lookups on the same order, build a
+   * {@link ServiceOrderIndex} once and query it.
+   *
    * @param serviceOrder The Service Order containing the items to search within.
    * @param id The ID of the Service Order item to find.
    * @return The found Service Order item.
@@ -51,148 +59,362 @@ public class ServiceOrderUtil {
    *       being referenced by other service items
    *   <li>Validates all order items exist that are pointed by the orderItemRelationship.
    *   <li>Validates that order items does not have circular dependencies.
+   *   <li>Validates that no two order items have the same id, before the other checks.
    * </ul>
    *
+   * <p>The dependency graph of the order items is built once, and all the checks run on it in
+   * linear time with respect to the number of items and relationships.
+   *
    * @param order The ServiceOrderCreate payload.
    */
   public static void validateOrder(ServiceOrderCreate order) {
-    validateFlowCanStart(order);
-    validateFlowCanEnd(order);
-    validateAllDependentNodesExist(order);
-    validateCircularDependencies(order);
+    validateOrder(order, Integer.MAX_VALUE);
   }
 
   /**
-   * Ensures there is at least one independent order item for the flow to be runnable.
+   * Validates a ServiceOrder as {@link #validateOrder(ServiceOrderCreate)} does, additionally
+   * rejecting orders that hold more order item relationships than the given budget.
    *
-   * @param order Service order to validate.
+   * <p>The dependency graph is traversed with an explicit stack, so the depth of the order item
+   * tree is bounded by the heap only, not by the thread stack.
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @param maxRelationships The maximum number of order item relationships to traverse.
+   * @throws IllegalArgumentException If the order is invalid, or it holds more relationships than
+   *     the budget.
    */
-  private static void validateFlowCanStart(ServiceOrderCreate order) {
-    for (var item : order.getServiceOrderItems()) {
-      if (referenceCount(item) == 0) {
-        return;
-      }
-    }
-    throw new IllegalArgumentException("No independent start node exists.");
+  public static void validateOrder(ServiceOrderCreate order, int maxRelationships) {
+    validateOrderGraph(orderGraph(order), maxRelationships);
   }
 
-  private static int referenceCount(ServiceOrderItem me) {
-    var relList = me.getServiceOrderItemRelationships();
-    return relList == null ? 0 : relList.size();
+  /**
+   * Validates a ServiceOrder as {@link #validateOrder(ServiceOrderCreate)} does, and groups
+   * its items into fulfillment waves. The first wave holds the items without dependencies, and
+   * each following wave holds the items whose dependencies are all in the previous waves, so the
+   * items of a wave can be fulfilled concurrently. The waves are computed in the same pass that
+   * checks the order for circular dependencies.
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @return the unmodifiable list of the fulfillment waves.
+   * @throws IllegalArgumentException If the order is invalid.
+   */
+  public static List<List<ServiceOrderItem>> planFulfillmentWaves(ServiceOrderCreate order) {
+    var graph = orderGraph(order);
+    validateOrderGraph(graph, Integer.MAX_VALUE);
+    return graph.waves();
   }
 
   /**
-   * Ensures that there is at least one service item without being referenced by other service items
-   * so that order flow can end.
+   * Validates a ServiceOrder as {@link #validateOrder(ServiceOrderCreate)} does, and creates a
+   * scheduler that releases its items as their dependencies complete. The scheduler can be shared
+   * by concurrent completion callbacks.
    *
-   * @param order The service order to validate.
+   * @param order The ServiceOrderCreate payload.
+   * @return the scheduler of the order items, where no item is completed yet.
+   * @throws IllegalArgumentException If the order is invalid.
    */
-  private static void validateFlowCanEnd(ServiceOrderCreate order) {
-    for (var item : order.getServiceOrderItems()) {
-      var referencesMeCount = referencesMeCount(order, item);
-      if (referencesMeCount == 0) {
-        return;
-      }
-    }
-    throw new IllegalArgumentException("No end node exists for the Service Order Flow.");
+  public static OrderScheduler<ServiceOrderItem> createScheduler(ServiceOrderCreate order) {
+    var graph = orderGraph(order);
+    validateOrderGraph(graph, Integer.MAX_VALUE);
+    return new OrderScheduler<>(graph);
   }
 
-  private static int referencesMeCount(ServiceOrderCreate order, ServiceOrderItem me) {
-    var count = 0;
-    for (var orderItem : order.getServiceOrderItems()) {
-      var relList = orderItem.getServiceOrderItemRelationships();
-      if (orderItem == me || relList == null ) {
-        continue;
-      }
-      for (var rel : relList) {
-        if (rel.getOrderItem().getItemId().equals(me.getId())) {
-          count++;
-        }
-      }
-    }
-    return count;
+  /**
+   * Validates a ServiceOrder as {@link #validateOrder(ServiceOrderCreate)} does, and builds its
+   * reachability index, which answers whether an item depends on another one in constant time.
+   * The index takes n * n / 8 bytes for an order with n items.
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @return the reachability index of the order items.
+   * @throws IllegalArgumentException If the order is invalid.
+   */
+  public static OrderReachabilityIndex<ServiceOrderItem> createReachabilityIndex(
+      ServiceOrderCreate order) {
+    var graph = orderGraph(order);
+    validateOrderGraph(graph, Integer.MAX_VALUE);
+    return OrderReachabilityIndex.of(graph);
   }
 
-  private static void validateAllDependentNodesExist(ServiceOrderCreate order) {
-    var map = orderItemMap(order);
-    order.getServiceOrderItems().forEach(item -> validateDependentNodesExist(item, map));
+  /**
+   * Validates a ServiceOrder as {@link #validateOrder(ServiceOrderCreate)} does, and computes its
+   * critical path: the earliest and latest start and finish times of each item, their slack, and
+   * the total duration of the order. The analysis runs on the same dependency graph as the
+   * validation, in linear time.
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @param duration Returns the expected duration of an order item, which must not be negative.
+   * @return the critical path analysis of the order.
+   * @throws IllegalArgumentException If the order is invalid, or a duration is negative.
+   */
+  public static OrderCriticalPath<ServiceOrderItem> computeCriticalPath(
+      ServiceOrderCreate order, ToLongFunction<ServiceOrderItem> duration) {
+    var graph = orderGraph(order);
+    validateOrderGraph(graph, Integer.MAX_VALUE);
+    return OrderCriticalPath.of(graph, duration);
   }
 
-  private static Map<String, ServiceOrderItem> orderItemMap(ServiceOrderCreate order) {
-    var map = new HashMap<String, ServiceOrderItem>();
-    for (var item : order.getServiceOrderItems()) {
-      map.put(item.getId(), item);
+  private static void validateOrderGraph(
+      OrderGraph<ServiceOrderItem> graph, int maxRelationships) {
+    validateItemIdsAreUnique(graph);
+    validateFlowCanStart(graph);
+    validateFlowCanEnd(graph);
+    validateAllDependentNodesExist(graph);
+    validateCircularDependencies(graph, maxRelationships);
+  }
+
+  /**
+   * Ensures that no two order items have the same id, so that each relationship refers to one
+   * item.
+   *
+   * @param graph Dependency graph of the service order to validate.
+   */
+  private static void validateItemIdsAreUnique(OrderGraph<ServiceOrderItem> graph) {
+    int duplicate = graph.duplicateItem();
+    if (duplicate >= 0) {
+      throw new IllegalArgumentException("Duplicate order item id " + graph.id(duplicate));
     }
-    return map;
   }
 
-  private static void validateDependentNodesExist(
-      ServiceOrderItem item, Map<String, ServiceOrderItem> orderItemMap) {
-    var relList = item.getServiceOrderItemRelationships();
-    if(relList == null) {
-      return;
+  /**
+   * Ensures there is at least one independent order item for the flow to be runnable.
+   *
+   * @param graph Dependency graph of the service order to validate.
+   */
+  private static void validateFlowCanStart(OrderGraph<ServiceOrderItem> graph) {
+    if (!graph.hasIndependentItem()) {
+      throw new IllegalArgumentException("No independent start node exists.");
     }
+  }
 
-    for (var rel : relList) {
-      var otherItem = orderItemMap.get(rel.getOrderItem().getItemId());
-      if (otherItem == null) {
-        throw new IllegalArgumentException(
-            "Item "
-                + item.getId()
-                + " refers to non-existent item "
-                + rel.getOrderItem().getItemId());
-      }
+  /**
+   * Ensures that there is at least one service item without being referenced by other service items
+   * so that order flow can end.
+   *
+   * @param graph Dependency graph of the service order to validate.
+   */
+  private static void validateFlowCanEnd(OrderGraph<ServiceOrderItem> graph) {
+    if (!graph.hasUnreferencedItem()) {
+      throw new IllegalArgumentException("No end node exists for the Service Order Flow.");
     }
   }
 
-  private static void validateCircularDependencies(ServiceOrderCreate order) {
-    order.getServiceOrderItems().forEach(item -> validateCircularDependency(order, item));
+  private static void validateAllDependentNodesExist(OrderGraph<ServiceOrderItem> graph) {
+    int dangling = graph.danglingItem();
+    if (dangling >= 0) {
+      throw new IllegalArgumentException(
+          "Item " + graph.id(dangling) + " refers to non-existent item " + graph.danglingId());
+    }
   }
 
-  private static void validateCircularDependency(ServiceOrderCreate order, ServiceOrderItem item) {
-    var deepDependencySet = deepDependencies(order, item);
-    if (deepDependencySet.contains(item.getId())) {
+  private static void validateCircularDependencies(
+      OrderGraph<ServiceOrderItem> graph, int maxRelationships) {
+    if (graph.relationshipCount() > maxRelationships) {
+      throw new IllegalArgumentException("Very complex service order tree not supported.");
+    }
+    if (!graph.isAcyclic()) {
       throw new IllegalArgumentException(
-          "There is a cyclic dependency on order Item " + item.getId());
+          "There is a cyclic dependency on order Item " + graph.id(graph.firstCyclicItem()));
     }
   }
 
-  private static Set<String> deepDependencies(ServiceOrderCreate order, ServiceOrderItem item) {
-    var deepDependencySet = new HashSet<String>();
-    var alreadyTraversedIds = new HashSet<String>();
-    addDeepDependencies(order, item, deepDependencySet, alreadyTraversedIds, 0);
-    return deepDependencySet;
+  /**
+   * Finds all the items that depend on the item with the given id, directly or transitively. These
+   * are the items to cancel or hold when the given item fails.
+   *
+   * <p>This method builds the dependency graph of the order on each call. For repeated queries on
+   * the same order, build the graph once with {@link #orderGraph(ServiceOrderCreate)} and query it.
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @param itemId The id of the service order item.
+   * @return the transitive dependents of the item, nearest first.
+   * @throws IllegalArgumentException If no item exists with the given id.
+   */
+  public static List<ServiceOrderItem> findAllDependents(ServiceOrderCreate order, String itemId) {
+    return orderGraph(order).dependentsOf(itemId);
+  }
+
+  /**
+   * Finds all the items that the item with the given id depends on, directly or transitively.
+   *
+   * <p>This method builds the dependency graph of the order on each call. For repeated queries on
+   * the same order, build the graph once with {@link #orderGraph(ServiceOrderCreate)} and query it.
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @param itemId The id of the service order item.
+   * @return the transitive dependencies of the item, nearest first.
+   * @throws IllegalArgumentException If no item exists with the given id.
+   */
+  public static List<ServiceOrderItem> findAllDependencies(
+      ServiceOrderCreate order, String itemId) {
+    return orderGraph(order).dependenciesOf(itemId);
   }
 
-  private static void addDeepDependencies(
-      ServiceOrderCreate order,
-      ServiceOrderItem item,
-      Set<String> deepDependencySet,
-      Set<String> alreadyTraversedSet,
-      int iterationCount) {
+  /**
+   * Partitions the items of a ServiceOrder into independent groups, where no order item
+   * relationship connects the items of different groups. Each group holds its items in their order
+   * in the order, together with all the relationships between them, so the groups can be validated
+   * and fulfilled in parallel, for example on different workers.
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @return the unmodifiable list of the independent item groups.
+   */
+  public static List<List<ServiceOrderItem>> partitionOrder(ServiceOrderCreate order) {
+    return orderGraph(order).components();
+  }
 
-    if (alreadyTraversedSet.contains(item.getId())) {
-      return;
+  /**
+   * Builds the dependency graph of the order items, where each order item relationship is an edge
+   * from the item to the item it refers to. The graph is immutable and reusable, so it can serve
+   * repeated queries on the same order without rebuilding anything.
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @return the dependency graph of the order items.
+   */
+  public static OrderGraph<ServiceOrderItem> orderGraph(ServiceOrderCreate order) {
+    return OrderGraph.of(
+        order.getServiceOrderItems(),
+        ServiceOrderItem::getId,
+        ServiceOrderItem::getServiceOrderItemRelationships,
+        rel -> rel.getOrderItem().getItemId());
+  }
+
+  /**
+   * Computes the fingerprint of the content of a Service Order, which is equal for the retried or
+   * duplicated payloads of the same order. The fingerprint covers:
+   *
+   * <ul>
+   *   <li>the external id, category, description and related parties of the order,
+   *   <li>the id and action of its items,
+   *   <li>the types, referred item ids and referred order ids of their relationships,
+   *   <li>the id, name, service type, state, characteristics and related parties of their
+   *       services.
+   * </ul>
+   *
+   * <p>Only these fields are covered: orders that differ only in other fields have the same
+   * fingerprint. The order of the characteristics and of the related parties does not change the
+   * fingerprint, while the order of the items and of their relationships does. The order is read
+   * in a single pass, without building strings.
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @return the fingerprint of the order.
+   */
+  public static OrderFingerprint fingerprint(ServiceOrderCreate order) {
+    var hasher = OrderFingerprint.hasher()
+        .putString(order.getExternalId())
+        .putString(order.getCategory())
+        .putString(order.getDescription())
+        .putRelatedParties(order.getRelatedParties())
+        .putSize(order.getServiceOrderItems());
+    if (order.getServiceOrderItems() == null) {
+      return hasher.fingerprint();
     }
-    alreadyTraversedSet.add(item.getId());
-    if (iterationCount > MAX_ITERATION) {
-      throw new IllegalArgumentException("Very complex service order tree not supported.");
+    for (var item : order.getServiceOrderItems()) {
+      hasher.putString(item.getId()).putString(item.getAction());
+      var relationships = item.getServiceOrderItemRelationships();
+      hasher.putSize(relationships);
+      if (relationships != null) {
+        for (var relationship : relationships) {
+          var orderItem = relationship.getOrderItem();
+          hasher
+              .putString(relationship.getRelationshipType())
+              .putString(orderItem == null ? null : orderItem.getItemId())
+              .putString(orderItem == null ? null : orderItem.getServiceOrderId());
+        }
+      }
+      var service = item.getService();
+      hasher.putBoolean(service != null);
+      if (service != null) {
+        hasher
+            .putString(service.getId())
+            .putString(service.getName())
+            .putString(service.getServiceType())
+            .putValue(service.getState())
+            .putCharacteristics(service.getServiceCharacteristics())
+            .putRelatedParties(service.getRelatedParties());
+      }
     }
+    return hasher.fingerprint();
+  }
 
-    var relList = item.getServiceOrderItemRelationships();
-    if(relList == null) {
-      return;
-    }
-    for (ServiceOrderItemRelationship rel : relList) {
-      deepDependencySet.add(rel.getOrderItem().getItemId());
-      addDeepDependencies(
-          order,
-          orderItemMap(order).get(rel.getOrderItem().getItemId()),
-          deepDependencySet,
-          alreadyTraversedSet,
-          ++iterationCount);
+  /**
+   * Computes the fingerprint of the dependency graph of a Service Order: the ids of its items and
+   * the item ids that their relationships refer to, in their order. This is the part of the order
+   * that {@link #validateOrder(ServiceOrderCreate)} reads, so orders with the same graph
+   * fingerprint have the same validation result.
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @return the fingerprint of the order item graph.
+   */
+  public static OrderFingerprint graphFingerprint(ServiceOrderCreate order) {
+    var hasher = OrderFingerprint.hasher().putSize(order.getServiceOrderItems());
+    if (order.getServiceOrderItems() != null) {
+      for (var item : order.getServiceOrderItems()) {
+        hasher.putString(item.getId()).putSize(item.getServiceOrderItemRelationships());
+        if (item.getServiceOrderItemRelationships() != null) {
+          for (var relationship : item.getServiceOrderItemRelationships()) {
+            var orderItem = relationship.getOrderItem();
+            hasher.putString(orderItem == null ? null : orderItem.getItemId());
+          }
+        }
+      }
     }
+    return hasher.fingerprint();
+  }
 
+  /**
+   * Creates a cache of the results of {@link #validateOrder(ServiceOrderCreate)}, keyed by the
+   * {@link #graphFingerprint(ServiceOrderCreate)} of the orders, so an order whose graph has
+   * already been validated is not validated again. A cached failure is thrown with the same
+   * message as the validation.
+   *
+   * @param maximumSize The maximum number of results in the cache.
+   * @param timeToLive The time a result stays in the cache after the validation.
+   * @return a new validation cache.
+   * @throws IllegalArgumentException If the maximum size or the time to live is not positive.
+   */
+  public static OrderValidationCache<ServiceOrderCreate> createValidationCache(
+      int maximumSize, Duration timeToLive) {
+    return OrderValidationCache.of(
+        ServiceOrderUtil::graphFingerprint,
+        ServiceOrderUtil::validateOrder,
+        maximumSize,
+        timeToLive);
   }
 
+  /**
+   * Replaces the repeating strings of a Service Order with their canonical instances in the pool,
+   * so the orders kept in a cache share them instead of holding their own copies. The following
+   * fields are canonicalized in place, in the order and in all of its items:
+   *
+   * <ul>
+   *   <li>the action and state of the items, and the relationship type of their relationships,
+   *   <li>the service type of the services, and the names and value types of their
+   *       characteristics,
+   *   <li>the roles, referred types and types of the related parties of the order and services.
+   * </ul>
+   *
+   * @param order The ServiceOrderCreate payload.
+   * @param pool The pool of canonical strings.
+   */
+  public static void canonicalize(ServiceOrderCreate order, StringPool pool) {
+    RelatedPartyUtil.canonicalize(order.getRelatedParties(), pool);
+    if (order.getServiceOrderItems() == null) {
+      return;
+    }
+    for (var item : order.getServiceOrderItems()) {
+      item.setAction(pool.canonicalize(item.getAction()));
+      item.setState(pool.canonicalize(item.getState()));
+      if (item.getServiceOrderItemRelationships() != null) {
+        for (var relationship : item.getServiceOrderItemRelationships()) {
+          relationship.setRelationshipType(pool.canonicalize(relationship.getRelationshipType()));
+        }
+      }
+      var service = item.getService();
+      if (service != null) {
+        service.setServiceType(pool.canonicalize(service.getServiceType()));
+        CharacteristicUtil.canonicalize(service.getServiceCharacteristics(), pool);
+        RelatedPartyUtil.canonicalize(service.getRelatedParties(), pool);
+      }
+    }
+  }
 }
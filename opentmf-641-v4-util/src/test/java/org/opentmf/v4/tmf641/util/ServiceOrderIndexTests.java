@@ -0,0 +1,139 @@
+package org.opentmf.v4.tmf641.util;
+
+import static org.opentmf.commons.util.JacksonUtil.fileToObject;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.opentmf.v4.tmf641.model.ServiceOrder;
+import org.opentmf.v4.tmf641.model.ServiceOrderItem;
+import org.opentmf.v4.tmf641.model.ServiceOrderItemRef;
+import org.opentmf.v4.tmf641.model.ServiceOrderItemRelationship;
+import org.opentmf.v4.tmf641.model.ServiceOrderJeopardyAlert;
+import org.opentmf.v4.tmf641.model.ServiceOrderMilestone;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ServiceOrderIndexTests {
+
+  private static final ServiceOrder SERVICE_ORDER =
+      fileToObject("tmf641/service_order_42.json", ServiceOrder.class);
+
+  private static final ServiceOrderIndex INDEX = ServiceOrderIndex.of(SERVICE_ORDER);
+
+  @Test
+  void testFindServiceOrderItemById_withExistingId_returnsItem() {
+    for (var id : List.of("1", "2", "3", "4")) {
+      assertSame(
+          ServiceOrderUtil.findServiceOrderItemById(SERVICE_ORDER, id),
+          INDEX.findServiceOrderItemById(id));
+      assertTrue(INDEX.containsItem(id));
+    }
+    assertEquals(SERVICE_ORDER.getServiceOrderItems(), INDEX.items());
+  }
+
+  @Test
+  void testFindServiceOrderItemById_withNonexistentId_throwsException() {
+    var e = assertThrows(
+        IllegalArgumentException.class, () -> INDEX.findServiceOrderItemById("nonExistentId"));
+    assertEquals(
+        "ServiceOrderItem with id = nonExistentId not found in the collection", e.getMessage());
+    assertFalse(INDEX.containsItem("nonExistentId"));
+  }
+
+  @Test
+  void testFindServiceOrderItemById_withDuplicateIds_returnsFirstItem() {
+    var first = item("1");
+    var index = ServiceOrderIndex.of(order(first, item("1")));
+
+    assertSame(first, index.findServiceOrderItemById("1"));
+  }
+
+  @Test
+  void testFindAlerts_withFixture_returnsEntriesOfItem() {
+    assertEquals(SERVICE_ORDER.getJeopardyAlerts(), INDEX.findJeopardyAlerts("1"));
+    assertEquals(List.of(), INDEX.findJeopardyAlerts("2"));
+    assertEquals(SERVICE_ORDER.getMilestones(), INDEX.findMilestones("2"));
+    assertEquals(List.of(), INDEX.findMilestones("1"));
+    assertEquals(SERVICE_ORDER.getErrorMessages(), INDEX.findErrorMessages("test_1"));
+    assertEquals(List.of(), INDEX.findErrorMessages("1"));
+  }
+
+  @Test
+  void testFindAlerts_withSharedAndRepeatedReferences_indexesEachEntryOncePerItem() {
+    var first = alert("1", "2", "1");
+    var second = alert("2");
+    var milestone = new ServiceOrderMilestone();
+    milestone.setServiceOrderItems(List.of(ref("1")));
+    var order = order(item("1"), item("2"));
+    order.setJeopardyAlerts(List.of(first, second));
+    order.setMilestones(List.of(milestone));
+    var index = ServiceOrderIndex.of(order);
+
+    assertEquals(List.of(first), index.findJeopardyAlerts("1"));
+    assertEquals(List.of(first, second), index.findJeopardyAlerts("2"));
+    assertEquals(List.of(milestone), index.findMilestones("1"));
+    assertEquals(List.of(), index.findErrorMessages("1"));
+    assertThrows(
+        UnsupportedOperationException.class, () -> index.findJeopardyAlerts("2").clear());
+  }
+
+  @Test
+  void testFindRelatedItems_withRelationships_returnsBothDirections() {
+    var one = item("1");
+    var two = item("2", "1");
+    var three = item("3", "1", "2", "missing");
+    var index = ServiceOrderIndex.of(order(one, two, three));
+
+    assertEquals(List.of(one, two), index.findRelatedItems("3"));
+    assertEquals(List.of(), index.findRelatedItems("1"));
+    assertEquals(List.of(two, three), index.findReferringItems("1"));
+    assertEquals(List.of(), index.findReferringItems("3"));
+    assertEquals(
+        List.of(INDEX.findServiceOrderItemById("4")), INDEX.findReferringItems("3"));
+  }
+
+  @Test
+  void testOf_withoutItemsOrAlerts_returnsEmptyIndex() {
+    var index = ServiceOrderIndex.of(new ServiceOrder());
+
+    assertEquals(List.of(), index.items());
+    assertEquals(List.of(), index.findJeopardyAlerts("1"));
+  }
+
+  private ServiceOrder order(ServiceOrderItem... items) {
+    var order = new ServiceOrder();
+    order.setServiceOrderItems(Arrays.stream(items).toList());
+    return order;
+  }
+
+  private ServiceOrderItem item(String id, String... dependentIds) {
+    var item = new ServiceOrderItem();
+    item.setId(id);
+    item.setServiceOrderItemRelationships(
+        Arrays.stream(dependentIds)
+            .map(
+                dependentId -> {
+                  var rel = new ServiceOrderItemRelationship();
+                  rel.setOrderItem(ref(dependentId));
+                  return rel;
+                })
+            .toList());
+    return item;
+  }
+
+  private ServiceOrderJeopardyAlert alert(String... itemIds) {
+    var alert = new ServiceOrderJeopardyAlert();
+    alert.setServiceOrderItems(Arrays.stream(itemIds).map(this::ref).toList());
+    return alert;
+  }
+
+  private ServiceOrderItemRef ref(String itemId) {
+    var ref = new ServiceOrderItemRef();
+    ref.setItemId(itemId);
+    return ref;
+  }
+}
@@ -2,17 +2,36 @@ package org.opentmf.v4.tmf641.util;
 
 import static org.opentmf.commons.util.JacksonUtil.fileToObject;
 import static org.opentmf.commons.util.ListUtil.safeMutable;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.canonicalize;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.computeCriticalPath;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.createReachabilityIndex;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.createScheduler;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.createValidationCache;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.findAllDependencies;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.findAllDependents;
 import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.findServiceOrderItemById;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.fingerprint;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.graphFingerprint;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.orderGraph;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.partitionOrder;
+import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.planFulfillmentWaves;
 import static org.opentmf.v4.tmf641.util.ServiceOrderUtil.validateOrder;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.opentmf.v4.common.model.Characteristic;
+import org.opentmf.v4.common.util.StringPool;
 import org.opentmf.v4.tmf641.model.ServiceOrder;
 import org.opentmf.v4.tmf641.model.ServiceOrderItem;
 import org.opentmf.v4.tmf641.model.ServiceOrderItemRef;
 import org.opentmf.v4.tmf641.model.ServiceOrderItemRelationship;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -49,6 +68,76 @@ class ServiceOrderUtilTests {
     assertDoesNotThrow(() -> validateOrder(SERVICE_ORDER));
   }
 
+  @Test
+  void testPlanFulfillmentWaves_withValidData_returnsWaves() {
+    var waves = planFulfillmentWaves(SERVICE_ORDER);
+
+    assertEquals(2, waves.size());
+    assertEquals(List.of("1", "2", "3"), ids(waves.get(0)));
+    assertEquals(List.of("4"), ids(waves.get(1)));
+  }
+
+  @Test
+  void testPlanFulfillmentWaves_withNonExistentOrderItemDependency_throwsException() {
+    var order = order("1",
+        item("100"),
+        item("200", "400")
+    );
+    var e = assertThrows(IllegalArgumentException.class, () -> planFulfillmentWaves(order));
+    assertEquals("Item 200 refers to non-existent item 400", e.getMessage());
+  }
+
+  @Test
+  void testCreateScheduler_withValidData_releasesItemsAsDependenciesComplete() {
+    var scheduler = createScheduler(SERVICE_ORDER);
+
+    assertEquals(List.of("1", "2", "3"), ids(scheduler.readyItems()));
+    assertEquals(List.of(), scheduler.markCompleted("1"));
+    assertEquals(List.of("4"), ids(scheduler.markCompleted("3")));
+  }
+
+  @Test
+  void testFindAllDependents_withValidData_returnsTransitiveDependents() {
+    assertEquals(List.of("4"), ids(findAllDependents(SERVICE_ORDER, "3")));
+    assertEquals(List.of(), ids(findAllDependents(SERVICE_ORDER, "4")));
+  }
+
+  @Test
+  void testFindAllDependencies_withValidData_returnsTransitiveDependencies() {
+    var graph = orderGraph(SERVICE_ORDER);
+
+    assertEquals(List.of("3"), ids(findAllDependencies(SERVICE_ORDER, "4")));
+    assertEquals(List.of(), ids(graph.dependenciesOf("1")));
+  }
+
+  @Test
+  void testCreateReachabilityIndex_withValidData_answersDependencyQueries() {
+    var index = createReachabilityIndex(SERVICE_ORDER);
+
+    assertTrue(index.dependsOn("4", "3"));
+    assertFalse(index.dependsOn("3", "4"));
+    assertFalse(index.dependsOn("4", "1"));
+  }
+
+  @Test
+  void testPartitionOrder_withValidData_returnsGroups() {
+    var partitions = partitionOrder(SERVICE_ORDER);
+
+    assertEquals(3, partitions.size());
+    assertEquals(List.of("1"), ids(partitions.get(0)));
+    assertEquals(List.of("2"), ids(partitions.get(1)));
+    assertEquals(List.of("3", "4"), ids(partitions.get(2)));
+  }
+
+  @Test
+  void testComputeCriticalPath_withValidData_returnsLongestPath() {
+    var cp = computeCriticalPath(SERVICE_ORDER, item -> 10);
+
+    assertEquals(20, cp.totalDuration());
+    assertEquals(List.of("3", "4"), ids(cp.criticalPath()));
+    assertEquals(10, cp.slack("1"));
+  }
+
   @Test
   void testValidate_withCircularDependencies_throwsException() {
     var order = order("1",
@@ -64,10 +153,65 @@ class ServiceOrderUtilTests {
   @Test
   void testValidate_withComplexServiceOrderTree_throwsException() {
     var order = getComplexOrder();
-    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order));
+    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order, 100000));
     assertEquals("Very complex service order tree not supported.", e.getMessage());
   }
 
+  @Test
+  void testValidate_withComplexCyclicServiceOrderTreeAndNoBudget_throwsCyclicDependencyException() {
+    var order = getComplexOrder();
+    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order));
+    assertEquals("There is a cyclic dependency on order Item 0", e.getMessage());
+  }
+
+  @Test
+  void testValidate_withVeryLongDependencyChain_validatesSuccessfully() {
+    var items = new ServiceOrderItem[200000];
+    items[0] = item("0");
+    for (int i = 1; i < items.length; i++) {
+      items[i] = item("" + i, "" + (i - 1));
+    }
+    var order = order("1", items);
+    assertDoesNotThrow(() -> validateOrder(order));
+  }
+
+  @Test
+  void testValidate_withVeryLongCyclicDependencyChain_throwsException() {
+    var items = new ServiceOrderItem[200001];
+    items[0] = item("start");
+    items[1] = item("0", "" + (items.length - 2));
+    for (int i = 2; i < items.length; i++) {
+      items[i] = item("" + (i - 1), "" + (i - 2));
+    }
+    var order = order("1", items);
+    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order));
+    assertEquals("There is a cyclic dependency on order Item 0", e.getMessage());
+  }
+
+  @Test
+  void testValidate_withSelfReferencingItem_throwsException() {
+    var order = order("1",
+        item("100"),
+        item("200", "100", "200")
+    );
+    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order));
+    assertEquals("There is a cyclic dependency on order Item 200", e.getMessage());
+  }
+
+  @Test
+  void testValidate_withLargeLayeredOrder_validatesSuccessfully() {
+    var items = new ArrayList<ServiceOrderItem>();
+    for (int i = 0; i < 5000; i++) {
+      var dependentIds = new ArrayList<String>();
+      for (int j = i - i % 100 - 100; j >= 0 && j < i - i % 100; j += 10) {
+        dependentIds.add("" + j);
+      }
+      items.add(item("" + i, dependentIds.toArray(String[]::new)));
+    }
+    var order = order("1", items.toArray(ServiceOrderItem[]::new));
+    assertDoesNotThrow(() -> validateOrder(order));
+  }
+
   @Test
   void testValidate_withoutIndependentOrderItem_throwsException() {
     var order = order("1");
@@ -111,6 +255,104 @@ class ServiceOrderUtilTests {
     assertEquals("Item 200 refers to non-existent item 400", e.getMessage());
   }
 
+  @Test
+  void testValidate_withDuplicateItemIds_throwsException() {
+    // the second A would break the cycle if the relationships resolved to it
+    var order = order("1",
+        item("A", "B"),
+        item("B", "A"),
+        item("A"),
+        item("C")
+    );
+    var e = assertThrows(IllegalArgumentException.class, () -> validateOrder(order));
+    assertEquals("Duplicate order item id A", e.getMessage());
+  }
+
+  @Test
+  void testCanonicalize_withRepeatingStrings_sharesInstances() {
+    var first = fileToObject("tmf641/service_order_42.json", ServiceOrder.class);
+    var second = fileToObject("tmf641/service_order_42.json", ServiceOrder.class);
+    var pool = new StringPool(100);
+
+    canonicalize(first, pool);
+    canonicalize(second, pool);
+
+    var firstItem = first.getServiceOrderItems().get(0);
+    var secondItem = second.getServiceOrderItems().get(0);
+    assertEquals("add", secondItem.getAction());
+    assertSame(firstItem.getAction(), secondItem.getAction());
+    assertSame(firstItem.getState(), secondItem.getState());
+    assertSame(
+        firstItem.getService().getServiceType(), secondItem.getService().getServiceType());
+    assertSame(
+        firstItem.getService().getServiceCharacteristics().get(0).getName(),
+        secondItem.getService().getServiceCharacteristics().get(0).getName());
+    assertSame(
+        first.getRelatedParties().get(0).getRole(),
+        second.getRelatedParties().get(0).getRole());
+  }
+
+  @Test
+  void testFingerprint_withDuplicatePayloads_returnsEqualFingerprints() {
+    var first = fileToObject("tmf641/service_order_42.json", ServiceOrder.class);
+    var second = fileToObject("tmf641/service_order_42.json", ServiceOrder.class);
+
+    assertEquals(fingerprint(first), fingerprint(second));
+
+    var firstCharacteristics =
+        first.getServiceOrderItems().get(0).getService().getServiceCharacteristics();
+    var secondCharacteristics =
+        second.getServiceOrderItems().get(0).getService().getServiceCharacteristics();
+    firstCharacteristics.add(Characteristic.of("speed", 100));
+    secondCharacteristics.add(0, Characteristic.of("speed", 100));
+    assertEquals(fingerprint(first), fingerprint(second));
+
+    secondCharacteristics.get(0).setValue(200);
+    assertNotEquals(fingerprint(first), fingerprint(second));
+  }
+
+  @Test
+  void testFingerprint_withChangedOrderOrServiceFields_returnsDifferentFingerprints() {
+    var first = fileToObject("tmf641/service_order_42.json", ServiceOrder.class);
+    var second = fileToObject("tmf641/service_order_42.json", ServiceOrder.class);
+
+    second.setExternalId("other");
+    assertNotEquals(fingerprint(first), fingerprint(second));
+    second.setExternalId(first.getExternalId());
+    assertEquals(fingerprint(first), fingerprint(second));
+
+    second.getServiceOrderItems().get(0).getService().setName("other");
+    assertNotEquals(fingerprint(first), fingerprint(second));
+  }
+
+  @Test
+  void testGraphFingerprint_withDuplicatePayloads_returnsEqualFingerprints() {
+    var first = fileToObject("tmf641/service_order_42.json", ServiceOrder.class);
+    var second = fileToObject("tmf641/service_order_42.json", ServiceOrder.class);
+    second.getServiceOrderItems().get(0).setAction("delete");
+
+    assertEquals(graphFingerprint(first), graphFingerprint(second));
+    second.getServiceOrderItems().get(0).setId("other");
+    assertNotEquals(graphFingerprint(first), graphFingerprint(second));
+  }
+
+  @Test
+  void testCreateValidationCache_withValidAndInvalidOrders_cachesBothResults() {
+    var cache = createValidationCache(10, Duration.ofMinutes(1));
+    var circular = new ServiceOrder();
+    circular.setServiceOrderItems(List.of(item("1", "2"), item("2", "1")));
+
+    assertDoesNotThrow(() -> cache.validate(SERVICE_ORDER));
+    assertDoesNotThrow(() -> cache.validate(SERVICE_ORDER));
+    var expected = assertThrows(IllegalArgumentException.class, () -> validateOrder(circular));
+    var cached = assertThrows(IllegalArgumentException.class, () -> cache.validate(circular));
+
+    assertEquals(expected.getMessage(), cached.getMessage());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(2, cache.size());
+  }
+
   private ServiceOrder getComplexOrder() {
     var order = order("1");
     order.setServiceOrderItems(safeMutable(List.of(item("IndependentStartItem"))));
@@ -130,6 +372,10 @@ class ServiceOrderUtilTests {
     return order;
   }
 
+  private List<String> ids(List<ServiceOrderItem> items) {
+    return items.stream().map(ServiceOrderItem::getId).toList();
+  }
+
   private ServiceOrder order(String id, ServiceOrderItem... items) {
     var order = new ServiceOrder();
     order.setId(id);
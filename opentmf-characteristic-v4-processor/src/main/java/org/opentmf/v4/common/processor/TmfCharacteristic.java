@@ -0,0 +1,48 @@
+package org.opentmf.v4.common.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a record component to the characteristic with the given name. For each record with
+ * annotated components, {@link TmfCharacteristicProcessor} generates a binder class next to the
+ * record, named after it with the "CharacteristicBinder" suffix, whose static {@code bind} method
+ * reads a characteristic collection into a new record instance:
+ *
+ * <pre>{@code
+ * public record AccessParameters(
+ *     @TmfCharacteristic(value = "bandwidth", mandatory = true) int bandwidth,
+ *     @TmfCharacteristic("vlanId") Long vlanId,
+ *     @TmfCharacteristic("startDate") OffsetDateTime startDate) {}
+ *
+ * AccessParameters parameters =
+ *     AccessParametersCharacteristicBinder.bind(product.getProductCharacteristics());
+ * }</pre>
+ *
+ * <p>All the components of the record must be annotated. The supported component types are
+ * String, boolean, Boolean, int, Integer, long, Long, double, Double, OffsetDateTime, Object and
+ * Characteristic. The values are converted with the accessors of CharacteristicUtil; a primitive
+ * component takes 0 or false when the characteristic is absent or its value cannot be converted.
+ *
+ * <p>The annotation is read at compile time only, so the processor module is not needed at
+ * runtime; the generated binders depend on opentmf-common-v4-util.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface TmfCharacteristic {
+
+  /**
+   * @return the name of the characteristic, or an empty string for the name of the component.
+   */
+  String value() default "";
+
+  /**
+   * @return true if the bind method throws an IllegalArgumentException when the characteristic is
+   *     absent.
+   */
+  boolean mandatory() default false;
+}
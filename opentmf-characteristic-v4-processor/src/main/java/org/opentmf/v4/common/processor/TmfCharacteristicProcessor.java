@@ -0,0 +1,258 @@
+package org.opentmf.v4.common.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates the characteristic binders of the records whose components are annotated with {@link
+ * TmfCharacteristic}. A binder reads the characteristic collection in a single pass, keeping the
+ * first characteristic of each name as CharacteristicUtil#findCharacteristicByName does, then
+ * converts the values with straight-line calls to CharacteristicUtil and invokes the canonical
+ * constructor of the record. The binders use no reflection.
+ *
+ * <p>The processor reports a compile error for a record that is private or generic, a component
+ * that is not annotated, and a component of an unsupported type.
+ */
+@SupportedAnnotationTypes("org.opentmf.v4.common.processor.TmfCharacteristic")
+public final class TmfCharacteristicProcessor extends AbstractProcessor {
+
+  static final String BINDER_SUFFIX = "CharacteristicBinder";
+
+  private static final String CHARACTERISTIC = "org.opentmf.v4.common.model.Characteristic";
+  private static final String UTIL = "org.opentmf.v4.common.util.CharacteristicUtil";
+  private static final String MANDATORY_NOT_FOUND =
+      "Mandatory characteristic {0} not found in the characteristic list";
+
+  /** The conversion of each supported component type, where $c is the matched characteristic. */
+  private static final Map<String, String> CONVERSIONS = new LinkedHashMap<>();
+
+  static {
+    CONVERSIONS.put("java.lang.String", "$c == null ? null : " + UTIL + ".getStringValue($c)");
+    CONVERSIONS.put("boolean", "$c != null && " + UTIL + ".getBooleanValue($c, false)");
+    CONVERSIONS.put("java.lang.Boolean", "$c == null ? null : " + UTIL + ".getBooleanValue($c)");
+    CONVERSIONS.put("int", "$c == null ? 0 : " + UTIL + ".getIntValue($c, 0)");
+    CONVERSIONS.put("java.lang.Integer", "$c == null ? null : " + UTIL + ".getIntegerValue($c)");
+    CONVERSIONS.put("long", "$c == null ? 0L : " + UTIL + ".getLongValue($c, 0L)");
+    CONVERSIONS.put("java.lang.Long", "$c == null ? null : " + UTIL + ".getLongValue($c)");
+    CONVERSIONS.put("double", "$c == null ? 0.0 : " + UTIL + ".getDoubleValue($c, 0.0)");
+    CONVERSIONS.put(
+        "java.lang.Double",
+        "$c == null || $c.getValue() == null ? null : " + UTIL + ".getDoubleValue($c, 0.0)");
+    CONVERSIONS.put(
+        "java.time.OffsetDateTime",
+        "$c == null ? null : " + UTIL + ".getOffsetDateTimeValue($c)");
+    CONVERSIONS.put("java.lang.Object", "$c == null ? null : $c.getValue()");
+    CONVERSIONS.put(CHARACTERISTIC, "$c");
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    Set<TypeElement> records = new LinkedHashSet<>();
+    for (Element element : roundEnv.getElementsAnnotatedWith(TmfCharacteristic.class)) {
+      if (element.getKind() == ElementKind.RECORD_COMPONENT) {
+        records.add((TypeElement) element.getEnclosingElement());
+      }
+    }
+    for (TypeElement record : records) {
+      generateBinder(record);
+    }
+    return true;
+  }
+
+  private void generateBinder(TypeElement record) {
+    if (record.getModifiers().contains(Modifier.PRIVATE)) {
+      error(record, "Record " + record.getSimpleName() + " must not be private");
+      return;
+    }
+    if (!record.getTypeParameters().isEmpty()) {
+      error(record, "Generic record " + record.getSimpleName() + " is not supported");
+      return;
+    }
+    var components = record.getRecordComponents();
+    Map<String, Integer> slots = new LinkedHashMap<>();
+    List<String> arguments = new ArrayList<>(components.size());
+    Map<Integer, String> mandatoryNames = new LinkedHashMap<>();
+    boolean valid = true;
+    for (RecordComponentElement component : components) {
+      var annotation = component.getAnnotation(TmfCharacteristic.class);
+      if (annotation == null) {
+        error(component, "Record component " + component.getSimpleName()
+            + " is not annotated with @TmfCharacteristic");
+        valid = false;
+        continue;
+      }
+      var conversion = CONVERSIONS.get(typeName(component.asType()));
+      if (conversion == null) {
+        error(component, "Record component " + component.getSimpleName()
+            + " has an unsupported type " + component.asType());
+        valid = false;
+        continue;
+      }
+      var name = annotation.value().isEmpty()
+          ? component.getSimpleName().toString()
+          : annotation.value();
+      int slot = slots.computeIfAbsent(name, k -> slots.size());
+      if (annotation.mandatory()) {
+        mandatoryNames.put(slot, name);
+      }
+      arguments.add(conversion.replace("$c", "c" + slot));
+    }
+    if (valid) {
+      writeBinder(record, slots, mandatoryNames, arguments);
+    }
+  }
+
+  private void writeBinder(
+      TypeElement record,
+      Map<String, Integer> slots,
+      Map<Integer, String> mandatoryNames,
+      List<String> arguments) {
+    var packageName =
+        processingEnv.getElementUtils().getPackageOf(record).getQualifiedName().toString();
+    var binderName = binderName(record);
+    var recordName = record.getQualifiedName().toString();
+    var source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source
+        .append("@javax.annotation.processing.Generated(\"")
+        .append(TmfCharacteristicProcessor.class.getName())
+        .append("\")\n")
+        .append("public final class ").append(binderName).append(" {\n\n")
+        .append("  private ").append(binderName).append("() {}\n\n")
+        .append("  /**\n")
+        .append("   * Reads the given characteristics into a new {@link ").append(recordName)
+        .append("}.\n")
+        .append("   *\n")
+        .append("   * @param characteristics The characteristic collection, may be null.\n")
+        .append("   * @return the record that holds the converted values.\n")
+        .append("   * @throws IllegalArgumentException If a mandatory characteristic is absent.\n")
+        .append("   */\n")
+        .append("  public static ").append(recordName).append(" bind(\n")
+        .append("      java.util.Collection<").append(CHARACTERISTIC)
+        .append("> characteristics) {\n");
+    for (int slot = 0; slot < slots.size(); slot++) {
+      source.append("    ").append(CHARACTERISTIC).append(" c").append(slot).append(" = null;\n");
+    }
+    source
+        .append("    if (characteristics != null) {\n")
+        .append("      for (").append(CHARACTERISTIC)
+        .append(" characteristic : characteristics) {\n")
+        .append("        String name = characteristic.getName();\n")
+        .append("        if (name == null) {\n")
+        .append("          continue;\n")
+        .append("        }\n")
+        .append("        switch (name) {\n");
+    for (var entry : slots.entrySet()) {
+      var variable = "c" + entry.getValue();
+      source
+          .append("          case ").append(literal(entry.getKey())).append(":\n")
+          .append("            if (").append(variable).append(" == null) {\n")
+          .append("              ").append(variable).append(" = characteristic;\n")
+          .append("            }\n")
+          .append("            break;\n");
+    }
+    source
+        .append("          default:\n")
+        .append("            break;\n")
+        .append("        }\n")
+        .append("      }\n")
+        .append("    }\n");
+    for (var entry : mandatoryNames.entrySet()) {
+      source
+          .append("    if (c").append(entry.getKey()).append(" == null) {\n")
+          .append("      throw new IllegalArgumentException(")
+          .append(literal(MessageFormat.format(MANDATORY_NOT_FOUND, entry.getValue())))
+          .append(");\n")
+          .append("    }\n");
+    }
+    source.append("    return new ").append(recordName).append("(");
+    for (int i = 0; i < arguments.size(); i++) {
+      source.append(i == 0 ? "\n        " : ",\n        ").append(arguments.get(i));
+    }
+    source.append(");\n  }\n}\n");
+
+    var qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+    try (Writer writer =
+        processingEnv.getFiler().createSourceFile(qualifiedName, record).openWriter()) {
+      writer.write(source.toString());
+    } catch (IOException e) {
+      error(record, "Could not write " + qualifiedName + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * @return the name of the binder of the record: the simple names of the record and the types
+   *     that enclose it, joined with underscores, followed by the binder suffix.
+   */
+  static String binderName(TypeElement record) {
+    var name = new StringBuilder(record.getSimpleName());
+    var enclosing = record.getEnclosingElement();
+    while (enclosing.getKind().isClass() || enclosing.getKind().isInterface()) {
+      name.insert(0, '_').insert(0, enclosing.getSimpleName());
+      enclosing = enclosing.getEnclosingElement();
+    }
+    return name.append(BINDER_SUFFIX).toString();
+  }
+
+  private String typeName(TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return type.toString();
+    }
+    if (type.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    var element = (TypeElement) processingEnv.getTypeUtils().asElement(type);
+    return element.getQualifiedName().toString();
+  }
+
+  /**
+   * @return the Java string literal of the given value. The control characters are escaped in
+   *     octal, since a unicode escape of a line terminator would end the literal.
+   */
+  static String literal(String value) {
+    var literal = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        literal.append('\\').append(c);
+      } else if (c < ' ' || c == 0x7f) {
+        literal.append(String.format("\\%03o", (int) c));
+      } else if (c > 0x7f) {
+        literal.append(String.format("\\u%04x", (int) c));
+      } else {
+        literal.append(c);
+      }
+    }
+    return literal.append('"').toString();
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
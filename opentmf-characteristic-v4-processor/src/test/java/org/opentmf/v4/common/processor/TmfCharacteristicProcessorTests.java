@@ -0,0 +1,237 @@
+package org.opentmf.v4.common.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.opentmf.v4.common.model.Characteristic;
+import org.opentmf.v4.common.util.CharacteristicUtil;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TmfCharacteristicProcessorTests {
+
+  private static final String ACCESS_PARAMETERS =
+      "package com.example;\n"
+          + "import org.opentmf.v4.common.processor.TmfCharacteristic;\n"
+          + "import java.time.OffsetDateTime;\n"
+          + "public record AccessParameters(\n"
+          + "    @TmfCharacteristic(value = \"bandwidth\", mandatory = true) int bandwidth,\n"
+          + "    @TmfCharacteristic(\"vlanId\") Long vlanId,\n"
+          + "    @TmfCharacteristic(\"vlanId\") long vlanIdOrZero,\n"
+          + "    @TmfCharacteristic(\"enabled\") boolean enabled,\n"
+          + "    @TmfCharacteristic(\"ratio\") Double ratio,\n"
+          + "    @TmfCharacteristic(\"startDate\") OffsetDateTime startDate,\n"
+          + "    @TmfCharacteristic String name,\n"
+          + "    @TmfCharacteristic(\"quote\\\"d\\n\") Object quoted) {}\n";
+
+  @TempDir Path output;
+
+  @Test
+  void generatedBinderConvertsTheCharacteristics() throws Exception {
+    var bind = compile("com.example.AccessParameters", ACCESS_PARAMETERS);
+
+    var record =
+        invoke(
+            bind,
+            List.of(
+                Characteristic.of("bandwidth", "1000"),
+                Characteristic.of("vlanId", 7),
+                Characteristic.of("enabled", "yes"),
+                Characteristic.of("ratio", 0.5f),
+                Characteristic.of("startDate", "2023-02-16T10:00:00+0000"),
+                Characteristic.of("name", "first"),
+                Characteristic.of("name", "second"),
+                Characteristic.of("quote\"d\n", List.of(1))));
+
+    assertEquals(1000, component(record, "bandwidth"));
+    assertEquals(7L, component(record, "vlanId"));
+    assertEquals(7L, component(record, "vlanIdOrZero"));
+    assertEquals(true, component(record, "enabled"));
+    assertEquals(0.5, component(record, "ratio"));
+    assertEquals(
+        OffsetDateTime.of(2023, 2, 16, 10, 0, 0, 0, ZoneOffset.UTC),
+        ((OffsetDateTime) component(record, "startDate")).withOffsetSameInstant(ZoneOffset.UTC));
+    assertEquals("first", component(record, "name"));
+    assertEquals(List.of(1), component(record, "quoted"));
+  }
+
+  @Test
+  void generatedBinderUsesDefaultsForAbsentCharacteristics() throws Exception {
+    var bind = compile("com.example.AccessParameters", ACCESS_PARAMETERS);
+
+    var record = invoke(bind, List.of(Characteristic.of("bandwidth", 1)));
+
+    assertNull(component(record, "vlanId"));
+    assertEquals(0L, component(record, "vlanIdOrZero"));
+    assertEquals(false, component(record, "enabled"));
+    assertNull(component(record, "ratio"));
+    assertNull(component(record, "startDate"));
+  }
+
+  @Test
+  void generatedBinderRejectsMissingMandatoryCharacteristic() throws Exception {
+    var bind = compile("com.example.AccessParameters", ACCESS_PARAMETERS);
+
+    var e =
+        assertThrows(
+            InvocationTargetException.class, () -> bind.invoke(null, (Collection<?>) null));
+
+    assertTrue(e.getCause() instanceof IllegalArgumentException);
+    assertEquals(
+        "Mandatory characteristic bandwidth not found in the characteristic list",
+        e.getCause().getMessage());
+  }
+
+  @Test
+  void nestedRecordBinderIsNamedAfterEnclosingTypes() throws Exception {
+    var bind =
+        compile(
+            "com.example.Outer_InnerCharacteristicBinder",
+            "com.example.Outer",
+            "package com.example;\n"
+                + "import org.opentmf.v4.common.processor.TmfCharacteristic;\n"
+                + "public class Outer {\n"
+                + "  record Inner(@TmfCharacteristic(\"a\") String a) {}\n"
+                + "}\n");
+
+    var record = invoke(bind, List.of(Characteristic.of("a", 1)));
+
+    assertEquals("1", component(record, "a"));
+  }
+
+  @Test
+  void unsupportedRecordsAreCompileErrors() {
+    var errors =
+        compileErrors(
+            "com.example.Invalid",
+            "package com.example;\n"
+                + "import org.opentmf.v4.common.processor.TmfCharacteristic;\n"
+                + "public record Invalid(\n"
+                + "    @TmfCharacteristic(\"a\") java.util.List<String> a,\n"
+                + "    String b) {}\n");
+
+    assertEquals(
+        List.of(
+            "Record component a has an unsupported type java.util.List<java.lang.String>",
+            "Record component b is not annotated with @TmfCharacteristic"),
+        errors);
+  }
+
+  @Test
+  void privateAndGenericRecordsAreCompileErrors() {
+    var errors =
+        compileErrors(
+            "com.example.Holder",
+            "package com.example;\n"
+                + "import org.opentmf.v4.common.processor.TmfCharacteristic;\n"
+                + "public class Holder {\n"
+                + "  private record Hidden(@TmfCharacteristic(\"a\") String a) {}\n"
+                + "  record Generic<T>(@TmfCharacteristic(\"a\") String a) {}\n"
+                + "}\n");
+
+    assertEquals(
+        List.of(
+            "Record Hidden must not be private", "Generic record Generic is not supported"),
+        errors);
+  }
+
+  @Test
+  void literalEscapesQuotesAndControlCharacters() {
+    assertEquals(
+        "\"a\\\"b\\\\c\\012\\u00e7\"", TmfCharacteristicProcessor.literal("a\"b\\c\n\u00e7"));
+  }
+
+  private Method compile(String recordName, String source) throws Exception {
+    return compile(recordName + TmfCharacteristicProcessor.BINDER_SUFFIX, recordName, source);
+  }
+
+  private Method compile(String binderName, String typeName, String source) throws Exception {
+    var errors = compileErrors(typeName, source);
+    assertTrue(errors.isEmpty(), errors::toString);
+    var loader =
+        new URLClassLoader(new URL[] {output.toUri().toURL()}, getClass().getClassLoader());
+    var binder = loader.loadClass(binderName);
+    assertTrue(Files.exists(output.resolve(binderName.replace('.', '/') + ".java")));
+    return binder.getMethod("bind", Collection.class);
+  }
+
+  private List<String> compileErrors(String typeName, String source) {
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    var diagnostics = new DiagnosticCollector<JavaFileObject>();
+    var options =
+        List.of(
+            "-d", output.toString(),
+            "-s", output.toString(),
+            "-classpath",
+            classPath(TmfCharacteristic.class, Characteristic.class, CharacteristicUtil.class));
+    var task =
+        compiler.getTask(
+            null, null, diagnostics, options, null, List.of(new Source(typeName, source)));
+    task.setProcessors(List.of(new TmfCharacteristicProcessor()));
+    task.call();
+    return diagnostics.getDiagnostics().stream()
+        .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+        .map(d -> d.getMessage(null))
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * @return the class path of the given classes, from their code sources rather than the
+   *     "java.class.path" property, which a test launcher may not set.
+   */
+  private static String classPath(Class<?>... classes) {
+    return Arrays.stream(classes)
+        .map(c -> c.getProtectionDomain().getCodeSource().getLocation())
+        .map(location -> Path.of(URI.create(location.toString())).toString())
+        .collect(Collectors.joining(File.pathSeparator));
+  }
+
+  private static Object invoke(Method bind, List<Characteristic> characteristics)
+      throws ReflectiveOperationException {
+    return bind.invoke(null, characteristics);
+  }
+
+  private static Object component(Object record, String name) throws ReflectiveOperationException {
+    var accessor = record.getClass().getDeclaredMethod(name);
+    accessor.setAccessible(true);
+    return accessor.invoke(record);
+  }
+
+  private static final class Source extends SimpleJavaFileObject {
+
+    private final String code;
+
+    Source(String typeName, String code) {
+      super(URI.create("string:///" + typeName.replace('.', '/') + ".java"), Kind.SOURCE);
+      this.code = code;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
+      return code;
+    }
+  }
+}
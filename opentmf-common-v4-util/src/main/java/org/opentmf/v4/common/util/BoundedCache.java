@@ -0,0 +1,276 @@
+package org.opentmf.v4.common.util;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A thread-safe cache that holds at most a given number of entries, each for at most a given time.
+ * When the cache is full, the least recently used entries are evicted; an expired entry is evicted
+ * when it is next accessed.
+ *
+ * <p>A lookup that finds a live value takes no lock: the entries are held in a concurrent map, and
+ * each lookup stamps its entry with the order of the access. The eviction runs under a lock when
+ * an entry is added to a full cache, and it evicts the entries with the oldest stamps, the least
+ * recently used 1/16 of the entries at once, so that the cache is not scanned on each addition.
+ * The stamps of concurrent lookups race with the eviction, so the recency is approximate under
+ * contention.
+ *
+ * <p>The values are loaded on demand, and a load runs once for concurrent misses of the same key:
+ * the first caller runs the loader outside of any lock, and the others wait for its result. A
+ * loader failure, of any type, is thrown to all of them, and nothing is cached, so the next miss
+ * loads again. Loads of different keys run in parallel.
+ *
+ * <p>The cache counts the lookups that find a live value as hits, and the others as misses,
+ * whether they load the value or wait for its load.
+ *
+ * @param <K> the type of the keys, which must implement equals and hashCode.
+ * @param <V> the type of the values.
+ */
+public final class BoundedCache<K, V> {
+
+  private final int maximumSize;
+  private final long timeToLiveNanos;
+  private final LongSupplier ticker;
+
+  private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+  /** The order of the accesses, which stamps the entries. */
+  private final AtomicLong accesses = new AtomicLong();
+
+  /** The loads in progress, guarded by this. */
+  private final Map<K, CompletableFuture<V>> loads = new HashMap<>();
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+
+  /**
+   * @param maximumSize The maximum number of entries in the cache.
+   * @param timeToLive The time an entry stays in the cache after it is loaded.
+   * @throws IllegalArgumentException If the maximum size or the time to live is not positive.
+   */
+  public BoundedCache(int maximumSize, Duration timeToLive) {
+    this(maximumSize, timeToLive, System::nanoTime);
+  }
+
+  BoundedCache(int maximumSize, Duration timeToLive, LongSupplier ticker) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+    }
+    if (timeToLive.isNegative() || timeToLive.isZero()) {
+      throw new IllegalArgumentException("Time to live must be positive: " + timeToLive);
+    }
+    this.maximumSize = maximumSize;
+    this.timeToLiveNanos = toNanos(timeToLive);
+    this.ticker = ticker;
+  }
+
+  /**
+   * Returns the value of the key, loading it if the cache holds no live value for the key. A null
+   * value is returned to the callers that wait for it, but it is not cached.
+   *
+   * @param key The key of the value.
+   * @param loader Loads the value of the key.
+   * @return the cached or loaded value.
+   */
+  public V get(K key, Function<? super K, ? extends V> loader) {
+    Objects.requireNonNull(key, "key");
+    var entry = liveEntry(key);
+    if (entry != null) {
+      hitCount.increment();
+      return entry.value;
+    }
+    CompletableFuture<V> load;
+    boolean loading;
+    synchronized (this) {
+      // a load may have completed since the lookup above, and loads complete under this lock
+      entry = liveEntry(key);
+      if (entry != null) {
+        hitCount.increment();
+        return entry.value;
+      }
+      missCount.increment();
+      load = loads.get(key);
+      loading = load == null;
+      if (loading) {
+        load = new CompletableFuture<>();
+        loads.put(key, load);
+      }
+    }
+    return loading ? load(key, loader, load) : await(load);
+  }
+
+  /**
+   * @param key The key of the value.
+   * @return the live value of the key, or null if the cache holds no live value for it.
+   */
+  public V getIfPresent(K key) {
+    var entry = liveEntry(key);
+    if (entry == null) {
+      missCount.increment();
+      return null;
+    }
+    hitCount.increment();
+    return entry.value;
+  }
+
+  /**
+   * Caches the value of the key, replacing its previous value.
+   *
+   * @param key The key of the value.
+   * @param value The value, which must not be null.
+   */
+  public void put(K key, V value) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(value, "value");
+    add(key, value);
+  }
+
+  /**
+   * Evicts the value of the key. A load of the key in progress is not affected.
+   *
+   * @param key The key of the value.
+   */
+  public void invalidate(K key) {
+    entries.remove(key);
+  }
+
+  /** Evicts all the values. The loads in progress are not affected. */
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  /**
+   * @return the number of cached values, including the expired ones not evicted yet.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return the number of lookups that found a live value.
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * @return the number of lookups that found no live value.
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  private V load(K key, Function<? super K, ? extends V> loader, CompletableFuture<V> load) {
+    V value = null;
+    Throwable failure = null;
+    try {
+      value = loader.apply(key);
+      return value;
+    } catch (Throwable e) {
+      failure = e;
+      throw e;
+    } finally {
+      // runs for any failure, including a checked exception thrown sneakily, so that the waiters
+      // are released and the next miss loads again
+      synchronized (this) {
+        loads.remove(key);
+        if (failure == null && value != null) {
+          add(key, value);
+        }
+      }
+      if (failure == null) {
+        load.complete(value);
+      } else {
+        load.completeExceptionally(failure);
+      }
+    }
+  }
+
+  /** Returns the entry of the key if it has not expired, and evicts it otherwise. */
+  private Entry<V> liveEntry(K key) {
+    var entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (ticker.getAsLong() - entry.loadedAt >= timeToLiveNanos) {
+      entries.remove(key, entry);
+      return null;
+    }
+    entry.accessedAt = accesses.incrementAndGet();
+    return entry;
+  }
+
+  private synchronized void add(K key, V value) {
+    var entry = new Entry<>(value, ticker.getAsLong());
+    entry.accessedAt = accesses.incrementAndGet();
+    entries.put(key, entry);
+    if (entries.size() > maximumSize) {
+      evictLeastRecentlyUsed(entries.size() - maximumSize + maximumSize / 16);
+    }
+  }
+
+  /** Evicts the given number of entries with the oldest access stamps. */
+  private void evictLeastRecentlyUsed(int count) {
+    // the newest of the oldest entries found so far is at the head
+    var eldest = new PriorityQueue<Map.Entry<K, Entry<V>>>(
+        count + 1,
+        Comparator.comparingLong((Map.Entry<K, Entry<V>> e) -> e.getValue().accessedAt)
+            .reversed());
+    for (var entry : entries.entrySet()) {
+      if (eldest.size() < count) {
+        eldest.add(Map.entry(entry.getKey(), entry.getValue()));
+      } else if (entry.getValue().accessedAt < eldest.peek().getValue().accessedAt) {
+        eldest.poll();
+        eldest.add(Map.entry(entry.getKey(), entry.getValue()));
+      }
+    }
+    for (var entry : eldest) {
+      entries.remove(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private static <V> V await(CompletableFuture<V> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static long toNanos(Duration duration) {
+    try {
+      return duration.toNanos();
+    } catch (ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  private static final class Entry<V> {
+
+    private final V value;
+    private final long loadedAt;
+    private volatile long accessedAt;
+
+    Entry(V value, long loadedAt) {
+      this.value = value;
+      this.loadedAt = loadedAt;
+    }
+  }
+}
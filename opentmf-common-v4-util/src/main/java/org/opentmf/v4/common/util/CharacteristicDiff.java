@@ -0,0 +1,320 @@
+package org.opentmf.v4.common.util;
+
+import org.opentmf.v4.common.model.Characteristic;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The differences between an old and a new list of characteristics, such as the product or service
+ * characteristics of an order item before and after a PATCH request: the characteristics that are
+ * added, removed, and changed.
+ *
+ * <p>The characteristics are matched by their names, regardless of their order. A characteristic
+ * is unchanged if the other list has one with the same name, value type and value. Numbers are
+ * compared by their numeric values, regardless of their types and scales, so an Integer 10 equals
+ * a Long 10, and a BigDecimal 1.0 equals a BigDecimal 1.00 or a Double 1.0. As in {@link
+ * CharacteristicUtil#detectDuplicates(Collection)}, each characteristic of a duplicate name counts
+ * on its own: the characteristics of a name are first matched by their value types and values, and
+ * the rest of them are paired in their order as changes, while the extra old ones are removed and
+ * the extra new ones are added. A null name is a name as any other.
+ *
+ * <p>Both lists are read once and the characteristics are matched with hash lookups, so a diff
+ * takes a time linear in the sizes of the lists. {@link #diff(Collection, Iterator, Listener)}
+ * reports the differences to a listener instead of collecting them, and reads the new
+ * characteristics from an iterator, so only the old characteristics and the unmatched new ones are
+ * held in memory.
+ */
+public final class CharacteristicDiff {
+
+  private final List<Characteristic> added;
+  private final List<Characteristic> removed;
+  private final List<Change> changed;
+
+  private CharacteristicDiff(
+      List<Characteristic> added, List<Characteristic> removed, List<Change> changed) {
+    this.added = Collections.unmodifiableList(added);
+    this.removed = Collections.unmodifiableList(removed);
+    this.changed = Collections.unmodifiableList(changed);
+  }
+
+  /**
+   * Compares the given lists of characteristics.
+   *
+   * @param oldCharacteristics The old characteristics, may be null.
+   * @param newCharacteristics The new characteristics, may be null.
+   * @return the differences of the new characteristics from the old ones.
+   */
+  public static CharacteristicDiff of(
+      Collection<Characteristic> oldCharacteristics,
+      Collection<Characteristic> newCharacteristics) {
+    var added = new ArrayList<Characteristic>();
+    var removed = new ArrayList<Characteristic>();
+    var changed = new ArrayList<Change>();
+    diff(
+        oldCharacteristics,
+        newCharacteristics == null
+            ? Collections.emptyIterator()
+            : newCharacteristics.iterator(),
+        new Listener() {
+          @Override
+          public void added(Characteristic characteristic) {
+            added.add(characteristic);
+          }
+
+          @Override
+          public void removed(Characteristic characteristic) {
+            removed.add(characteristic);
+          }
+
+          @Override
+          public void changed(Characteristic oldCharacteristic, Characteristic newCharacteristic) {
+            changed.add(new Change(oldCharacteristic, newCharacteristic));
+          }
+        });
+    return new CharacteristicDiff(added, removed, changed);
+  }
+
+  /**
+   * Compares the old characteristics with the new ones that the iterator returns, and reports the
+   * differences to the listener. A new characteristic whose name is not in the old ones is reported
+   * as added as soon as it is read; the other differences are reported after the iterator is
+   * exhausted, the changed and removed ones in the order of the old characteristics, and then the
+   * rest of the added ones in the order of the new characteristics.
+   *
+   * @param oldCharacteristics The old characteristics, may be null.
+   * @param newCharacteristics The iterator of the new characteristics.
+   * @param listener The listener that receives the differences.
+   */
+  public static void diff(
+      Collection<Characteristic> oldCharacteristics,
+      Iterator<? extends Characteristic> newCharacteristics,
+      Listener listener) {
+    Objects.requireNonNull(newCharacteristics, "newCharacteristics");
+    Objects.requireNonNull(listener, "listener");
+    var olds = oldCharacteristics == null
+        ? new Characteristic[0]
+        : oldCharacteristics.toArray(new Characteristic[0]);
+    // the indexes of the old characteristics by name, value type and value
+    var unmatched = new HashMap<Key, ArrayDeque<Integer>>(capacity(olds.length));
+    var names = new HashMap<String, List<Characteristic>>(capacity(olds.length));
+    for (int i = 0; i < olds.length; i++) {
+      unmatched.computeIfAbsent(new Key(olds[i]), k -> new ArrayDeque<>(1)).add(i);
+      names.putIfAbsent(olds[i].getName(), Collections.emptyList());
+    }
+    var matched = new boolean[olds.length];
+    List<Characteristic> pending = new ArrayList<>();
+    while (newCharacteristics.hasNext()) {
+      Characteristic characteristic = newCharacteristics.next();
+      var indexes = unmatched.get(new Key(characteristic));
+      if (indexes != null && !indexes.isEmpty()) {
+        matched[indexes.poll()] = true;
+        continue;
+      }
+      var pendingOfName = names.get(characteristic.getName());
+      if (pendingOfName == null) {
+        listener.added(characteristic);
+        continue;
+      }
+      if (pendingOfName.isEmpty()) {
+        pendingOfName = new ArrayList<>(1);
+        names.put(characteristic.getName(), pendingOfName);
+      }
+      pendingOfName.add(characteristic);
+      pending.add(characteristic);
+    }
+    var paired = new HashMap<String, Integer>();
+    var changedNew = Collections.newSetFromMap(new IdentityHashMap<Characteristic, Boolean>());
+    for (int i = 0; i < olds.length; i++) {
+      if (matched[i]) {
+        continue;
+      }
+      var name = olds[i].getName();
+      var pendingOfName = names.get(name);
+      int count = paired.getOrDefault(name, 0);
+      if (count < pendingOfName.size()) {
+        listener.changed(olds[i], pendingOfName.get(count));
+        changedNew.add(pendingOfName.get(count));
+        paired.put(name, count + 1);
+      } else {
+        listener.removed(olds[i]);
+      }
+    }
+    for (var characteristic : pending) {
+      if (!changedNew.contains(characteristic)) {
+        listener.added(characteristic);
+      }
+    }
+  }
+
+  /**
+   * @return the new characteristics that have no counterpart in the old ones, in the order that
+   *     {@link #diff(Collection, Iterator, Listener)} reports them.
+   */
+  public List<Characteristic> getAdded() {
+    return added;
+  }
+
+  /**
+   * @return the old characteristics that have no counterpart in the new ones, in their order.
+   */
+  public List<Characteristic> getRemoved() {
+    return removed;
+  }
+
+  /**
+   * @return the old and new characteristics that have the same name but different value types or
+   *     values, in the order of the old characteristics.
+   */
+  public List<Change> getChanged() {
+    return changed;
+  }
+
+  /**
+   * @return true if the new characteristics equal the old ones, regardless of their order.
+   */
+  public boolean isEmpty() {
+    return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+  }
+
+  private static int capacity(int size) {
+    return size * 4 / 3 + 1;
+  }
+
+  /** Receives the differences of a diff as they are found. */
+  public interface Listener {
+
+    /**
+     * @param characteristic A new characteristic that has no counterpart in the old ones.
+     */
+    void added(Characteristic characteristic);
+
+    /**
+     * @param characteristic An old characteristic that has no counterpart in the new ones.
+     */
+    void removed(Characteristic characteristic);
+
+    /**
+     * @param oldCharacteristic The old characteristic.
+     * @param newCharacteristic The new characteristic with the same name, but a different value
+     *     type or value.
+     */
+    void changed(Characteristic oldCharacteristic, Characteristic newCharacteristic);
+  }
+
+  /** An old and a new characteristic that have the same name but different values. */
+  public static final class Change {
+
+    private final Characteristic oldCharacteristic;
+    private final Characteristic newCharacteristic;
+
+    Change(Characteristic oldCharacteristic, Characteristic newCharacteristic) {
+      this.oldCharacteristic = oldCharacteristic;
+      this.newCharacteristic = newCharacteristic;
+    }
+
+    /**
+     * @return the name of the characteristics.
+     */
+    public String getName() {
+      return newCharacteristic.getName();
+    }
+
+    public Characteristic getOldCharacteristic() {
+      return oldCharacteristic;
+    }
+
+    public Characteristic getNewCharacteristic() {
+      return newCharacteristic;
+    }
+
+    @Override
+    public String toString() {
+      return "Change{name=" + getName() + ", oldValue=" + oldCharacteristic.getValue()
+          + ", newValue=" + newCharacteristic.getValue() + "}";
+    }
+  }
+
+  /** The name, value type and value of a characteristic, which are compared by a diff. */
+  private static final class Key {
+
+    private final String name;
+    private final String valueType;
+    private final Object value;
+
+    Key(Characteristic characteristic) {
+      this.name = characteristic.getName();
+      this.valueType = characteristic.getValueType();
+      this.value = normalize(characteristic.getValue());
+    }
+
+    /**
+     * Returns a number as a Long if it is integral and fits in a long, and as a BigDecimal without
+     * trailing zeros otherwise, so that equal numbers of different types and scales are equal.
+     * Another value, or a number that is not finite, is returned as it is.
+     */
+    private static Object normalize(Object value) {
+      if (value instanceof Long) {
+        return value;
+      }
+      if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+        return ((Number) value).longValue();
+      }
+      BigDecimal decimal;
+      if (value instanceof BigDecimal) {
+        decimal = (BigDecimal) value;
+      } else if (value instanceof BigInteger) {
+        decimal = new BigDecimal((BigInteger) value);
+      } else if (value instanceof Double || value instanceof Float) {
+        double number = ((Number) value).doubleValue();
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+          return value;
+        }
+        // the shortest decimal form of the value, so a Float 0.1 equals a Double 0.1
+        decimal = value instanceof Float
+            ? new BigDecimal(value.toString())
+            : BigDecimal.valueOf(number);
+      } else {
+        return value;
+      }
+      decimal = decimal.stripTrailingZeros();
+      // a long has at most 19 digits, and the exact conversion rejects the 19-digit values out of
+      // its range
+      if (decimal.scale() <= 0 && decimal.precision() - decimal.scale() <= 19) {
+        try {
+          return decimal.longValueExact();
+        } catch (ArithmeticException e) {
+          return decimal;
+        }
+      }
+      return decimal;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      var other = (Key) o;
+      return Objects.equals(name, other.name)
+          && Objects.equals(valueType, other.valueType)
+          && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, valueType, value);
+    }
+  }
+}
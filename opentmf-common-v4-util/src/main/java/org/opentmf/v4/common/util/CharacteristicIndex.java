@@ -0,0 +1,207 @@
+package org.opentmf.v4.common.util;
+
+import static org.opentmf.v4.common.util.CharacteristicUtil.mandatoryCharacteristicNotFound;
+
+import org.opentmf.v4.common.model.Characteristic;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable index over a collection of characteristics, which offers the typed accessors of
+ * {@link CharacteristicUtil} with a hash lookup instead of a scan of the collection on each call.
+ * The index is built once in a single pass over the collection, and it can be shared between
+ * threads.
+ *
+ * <p>The index is a snapshot of the collection at the time it is built; it does not reflect later
+ * changes to the collection, though it holds the same characteristic instances. When several
+ * characteristics have the same name, the name resolves to the first of them, as in {@link
+ * CharacteristicUtil#findCharacteristicByName(String, Collection)}. The values are converted with
+ * the same rules as the accessors of {@link CharacteristicUtil}.
+ */
+public final class CharacteristicIndex {
+
+  private static final CharacteristicIndex EMPTY = new CharacteristicIndex(new HashMap<>());
+
+  private final Map<String, Characteristic> characteristicsByName;
+
+  private CharacteristicIndex(Map<String, Characteristic> characteristicsByName) {
+    this.characteristicsByName = characteristicsByName;
+  }
+
+  /**
+   * Builds the index of the given characteristics.
+   *
+   * @param characteristics The collection that holds characteristics, may be null.
+   * @return the index of the characteristics.
+   */
+  public static CharacteristicIndex of(Collection<Characteristic> characteristics) {
+    if (characteristics == null || characteristics.isEmpty()) {
+      return EMPTY;
+    }
+    var map = new HashMap<String, Characteristic>(characteristics.size() * 4 / 3 + 1);
+    for (var characteristic : characteristics) {
+      if (characteristic.getName() != null) {
+        map.putIfAbsent(characteristic.getName(), characteristic);
+      }
+    }
+    return new CharacteristicIndex(map);
+  }
+
+  /**
+   * @return the number of distinct characteristic names in the index.
+   */
+  public int size() {
+    return characteristicsByName.size();
+  }
+
+  /**
+   * @param name The name of the characteristic.
+   * @return true if a characteristic exists with the given name.
+   */
+  public boolean containsCharacteristic(String name) {
+    return characteristicsByName.containsKey(name);
+  }
+
+  /**
+   * Finds a characteristic by its name.
+   *
+   * @param name The name of the characteristic to find.
+   * @return An Optional containing the found characteristic, or an empty Optional if not found.
+   */
+  public Optional<Characteristic> findCharacteristicByName(String name) {
+    return Optional.ofNullable(characteristicsByName.get(name));
+  }
+
+  /**
+   * Returns the optional characteristic's value as an object, or null if it does not exist.
+   *
+   * @param name The optional characteristic name.
+   * @return the optional characteristic's value as an object, or null if it does not exist.
+   */
+  public Object getOptionalCharacteristicValue(String name) {
+    var characteristic = characteristicsByName.get(name);
+    return characteristic == null ? null : characteristic.getValue();
+  }
+
+  /**
+   * Returns the optional characteristic's string value. If the characteristic does not exist then
+   * returns null.
+   *
+   * @param name The name of the characteristic.
+   * @return the optional characteristic's string value or null if the characteristic does not
+   *     exist.
+   */
+  public String getOptionalCharacteristicStringValue(String name) {
+    var characteristic = characteristicsByName.get(name);
+    return characteristic == null ? null : CharacteristicUtil.getStringValue(characteristic);
+  }
+
+  public Boolean getOptionalCharacteristicBooleanValue(String name) {
+    var characteristic = characteristicsByName.get(name);
+    return characteristic == null ? null : CharacteristicUtil.getBooleanValue(characteristic);
+  }
+
+  public Integer getOptionalCharacteristicIntegerValue(String name) {
+    var characteristic = characteristicsByName.get(name);
+    return characteristic == null ? null : CharacteristicUtil.getIntegerValue(characteristic);
+  }
+
+  public Long getOptionalCharacteristicLongValue(String name) {
+    var characteristic = characteristicsByName.get(name);
+    return characteristic == null ? null : CharacteristicUtil.getLongValue(characteristic);
+  }
+
+  public OffsetDateTime getOptionalCharacteristicOffsetDateTimeValue(String name) {
+    var characteristic = characteristicsByName.get(name);
+    return characteristic == null
+        ? null
+        : CharacteristicUtil.getOffsetDateTimeValue(characteristic);
+  }
+
+  /**
+   * Retrieves the mandatory characteristic by its name.
+   *
+   * @param name The name of the mandatory characteristic to be retrieved.
+   * @return The found mandatory characteristic.
+   * @throws IllegalArgumentException If the mandatory characteristic is not found in the index.
+   */
+  public Characteristic getMandatoryCharacteristic(String name) {
+    var characteristic = characteristicsByName.get(name);
+    if (characteristic == null) {
+      throw mandatoryCharacteristicNotFound(name);
+    }
+    return characteristic;
+  }
+
+  /**
+   * Retrieves the value of the mandatory characteristic by its name.
+   *
+   * @param name The name of the mandatory characteristic whose value is to be retrieved.
+   * @return The value of the found mandatory characteristic.
+   * @throws IllegalArgumentException If the mandatory characteristic is not found in the index.
+   */
+  public Object getMandatoryCharacteristicValue(String name) {
+    return getMandatoryCharacteristic(name).getValue();
+  }
+
+  /**
+   * Retrieves the string value of the mandatory characteristic by its name.
+   *
+   * @param name The name of the mandatory characteristic whose string value is to be retrieved.
+   * @return The string value of the found mandatory characteristic.
+   * @throws IllegalArgumentException If the mandatory characteristic is not found in the index.
+   */
+  public String getMandatoryCharacteristicStringValue(String name) {
+    return CharacteristicUtil.getStringValue(getMandatoryCharacteristic(name));
+  }
+
+  /**
+   * Retrieves the boolean value of the mandatory characteristic by its name.
+   *
+   * @param name The name of the mandatory characteristic whose boolean value is to be retrieved.
+   * @return The boolean value of the found mandatory characteristic.
+   * @throws IllegalArgumentException If the mandatory characteristic is not found in the index.
+   */
+  public Boolean getMandatoryCharacteristicBooleanValue(String name) {
+    return CharacteristicUtil.getBooleanValue(getMandatoryCharacteristic(name));
+  }
+
+  /**
+   * Retrieves the integer value of the mandatory characteristic by its name.
+   *
+   * @param name The name of the mandatory characteristic whose integer value is to be retrieved.
+   * @return The integer value of the found mandatory characteristic.
+   * @throws IllegalArgumentException If the mandatory characteristic is not found in the index.
+   */
+  public Integer getMandatoryCharacteristicIntegerValue(String name) {
+    return CharacteristicUtil.getIntegerValue(getMandatoryCharacteristic(name));
+  }
+
+  /**
+   * Retrieves the long value of the mandatory characteristic by its name.
+   *
+   * @param name The name of the mandatory characteristic whose long value is to be retrieved.
+   * @return The long value of the found mandatory characteristic.
+   * @throws IllegalArgumentException If the mandatory characteristic is not found in the index.
+   */
+  public Long getMandatoryCharacteristicLongValue(String name) {
+    return CharacteristicUtil.getLongValue(getMandatoryCharacteristic(name));
+  }
+
+  /**
+   * Parses the string value of a mandatory characteristic that holds a date-time value, with the
+   * patterns of {@link CharacteristicUtil#getMandatoryCharacteristicOffsetDateTimeValue(String,
+   * Collection)}.
+   *
+   * @param name The name of the mandatory characteristic whose value is to be retrieved.
+   * @return The date-time string value of the mandatory characteristic as an OffsetDateTime.
+   * @throws IllegalArgumentException If the mandatory characteristic is not found in the index, or
+   *     it cannot be parsed using neither of the supported formats.
+   */
+  public OffsetDateTime getMandatoryCharacteristicOffsetDateTimeValue(String name) {
+    return CharacteristicUtil.getOffsetDateTimeValue(getMandatoryCharacteristic(name));
+  }
+}
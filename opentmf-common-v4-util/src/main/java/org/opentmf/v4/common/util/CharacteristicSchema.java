@@ -0,0 +1,304 @@
+package org.opentmf.v4.common.util;
+
+import static org.opentmf.v4.common.util.CharacteristicUtil.mandatoryCharacteristicNotFound;
+
+import org.opentmf.v4.common.model.Characteristic;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A compiled description of the characteristics that a specification expects: the name, the value
+ * type, whether the characteristic is mandatory, and the default value of an optional one. The
+ * schema is built once, for example at startup, and it extracts all of its characteristics from a
+ * collection in a single pass over the collection:
+ *
+ * <pre>{@code
+ * CharacteristicSchema schema =
+ *     CharacteristicSchema.builder()
+ *         .mandatory("bandwidth", CharacteristicType.INTEGER)
+ *         .optional("vlanId", CharacteristicType.LONG, 100L)
+ *         .optional("startDate", CharacteristicType.OFFSET_DATE_TIME)
+ *         .build();
+ * CharacteristicValues values = schema.extract(product.getProductCharacteristics());
+ * int bandwidth = values.getInteger("bandwidth");
+ * }</pre>
+ *
+ * <p>When several characteristics have the same name, the name resolves to the first of them, as
+ * in {@link CharacteristicUtil#findCharacteristicByName(String, Collection)}. The values are
+ * converted with the rules of {@link CharacteristicType}. A missing mandatory characteristic, or a
+ * value that cannot be converted, does not stop the extraction; all of them are reported together.
+ * A characteristic without a value is treated as absent for the default value, but a mandatory
+ * characteristic without a value is extracted as null.
+ *
+ * <p>The schema is immutable, therefore it can be shared between threads.
+ */
+public final class CharacteristicSchema {
+
+  private final String[] names;
+  private final CharacteristicType[] types;
+  private final boolean[] mandatory;
+  private final Object[] defaultValues;
+  private final Map<String, Integer> slots;
+  private final OffsetDateTimeParser dateTimeParser;
+
+  private CharacteristicSchema(Builder builder) {
+    int size = builder.names.size();
+    names = builder.names.toArray(new String[0]);
+    types = builder.types.toArray(new CharacteristicType[0]);
+    mandatory = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      mandatory[i] = builder.mandatory.get(i);
+    }
+    defaultValues = builder.defaultValues.toArray();
+    slots = new HashMap<>(builder.slots);
+    dateTimeParser = OffsetDateTimeParser.of(builder.zone);
+  }
+
+  /**
+   * @return a builder of a schema with no characteristics, whose date-time values are in the
+   *     current default time zone of the system.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @return the number of characteristics in the schema.
+   */
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * @param name The name of the characteristic.
+   * @return the position of the characteristic in the schema, in the order it was added, or -1 if
+   *     the schema has no characteristic with the given name.
+   */
+  public int indexOf(String name) {
+    var slot = slots.get(name);
+    return slot == null ? -1 : slot;
+  }
+
+  /**
+   * @param index The position of the characteristic in the schema.
+   * @return the name of the characteristic.
+   */
+  public String getName(int index) {
+    return names[index];
+  }
+
+  /**
+   * @param index The position of the characteristic in the schema.
+   * @return the value type of the characteristic.
+   */
+  public CharacteristicType getType(int index) {
+    return types[index];
+  }
+
+  /**
+   * @param index The position of the characteristic in the schema.
+   * @return true if the characteristic is mandatory.
+   */
+  public boolean isMandatory(int index) {
+    return mandatory[index];
+  }
+
+  /**
+   * Extracts the values of the characteristics of the schema from the given collection.
+   *
+   * @param characteristics The collection that holds characteristics, may be null.
+   * @return the converted values, or the default values of the absent optional characteristics.
+   * @throws IllegalArgumentException If any mandatory characteristic is not found in the
+   *     collection, or any value cannot be converted to its type. The message lists all of them.
+   */
+  public CharacteristicValues extract(Collection<Characteristic> characteristics) {
+    var values = new Object[names.length];
+    var errors = read(characteristics, values);
+    if (!errors.isEmpty()) {
+      throw new IllegalArgumentException(String.join("; ", errors));
+    }
+    return new CharacteristicValues(this, values);
+  }
+
+  /**
+   * Checks the given collection against the schema, with the same rules as {@link
+   * #extract(Collection)}.
+   *
+   * @param characteristics The collection that holds characteristics, may be null.
+   * @return the unmodifiable list of the missing mandatory characteristics and invalid values, in
+   *     the order of the schema, or an empty list if the collection is valid.
+   */
+  public List<String> validate(Collection<Characteristic> characteristics) {
+    return read(characteristics, new Object[names.length]);
+  }
+
+  private List<String> read(Collection<Characteristic> characteristics, Object[] values) {
+    var found = new Characteristic[names.length];
+    if (characteristics != null) {
+      int matched = 0;
+      for (var characteristic : characteristics) {
+        var slot = characteristic.getName() == null ? null : slots.get(characteristic.getName());
+        if (slot != null && found[slot] == null) {
+          found[slot] = characteristic;
+          if (++matched == found.length) {
+            break;
+          }
+        }
+      }
+    }
+    List<String> errors = null;
+    for (int i = 0; i < names.length; i++) {
+      String error = null;
+      if (found[i] == null) {
+        if (mandatory[i]) {
+          error = mandatoryCharacteristicNotFound(names[i]).getMessage();
+        } else {
+          values[i] = defaultValues[i];
+        }
+      } else if (found[i].getValue() == null) {
+        values[i] = defaultValues[i];
+      } else {
+        values[i] = convert(types[i], found[i].getValue());
+        if (values[i] == null) {
+          error = "Characteristic " + names[i] + " has an invalid " + types[i] + " value: "
+              + found[i].getValue();
+        }
+      }
+      if (error != null) {
+        if (errors == null) {
+          errors = new ArrayList<>();
+        }
+        errors.add(error);
+      }
+    }
+    return errors == null ? Collections.emptyList() : Collections.unmodifiableList(errors);
+  }
+
+  /**
+   * @return the converted value, or null if the value cannot be converted to the type.
+   */
+  private Object convert(CharacteristicType type, Object value) {
+    switch (type) {
+      case STRING:
+        return String.valueOf(value);
+      case BOOLEAN:
+        return CharacteristicUtil.toBoolean(value);
+      case INTEGER:
+        try {
+          return CharacteristicUtil.toInt(value);
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      case LONG:
+        try {
+          return CharacteristicUtil.toLong(value);
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      case DOUBLE:
+        if (value instanceof Number) {
+          return ((Number) value).doubleValue();
+        }
+        try {
+          return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      case OFFSET_DATE_TIME:
+        return dateTimeParser.tryParse(String.valueOf(value)).orElse(null);
+      default:
+        return value;
+    }
+  }
+
+  /** Collects the characteristics of a {@link CharacteristicSchema}, in order. */
+  public static final class Builder {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<CharacteristicType> types = new ArrayList<>();
+    private final List<Boolean> mandatory = new ArrayList<>();
+    private final List<Object> defaultValues = new ArrayList<>();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private ZoneId zone = ZoneId.systemDefault();
+
+    private Builder() {}
+
+    /**
+     * Adds a mandatory characteristic to the schema.
+     *
+     * @param name The name of the characteristic.
+     * @param type The value type of the characteristic.
+     * @return this builder.
+     * @throws IllegalArgumentException If the schema already has a characteristic with the name.
+     */
+    public Builder mandatory(String name, CharacteristicType type) {
+      return add(name, type, true, null);
+    }
+
+    /**
+     * Adds an optional characteristic without a default value to the schema.
+     *
+     * @param name The name of the characteristic.
+     * @param type The value type of the characteristic.
+     * @return this builder.
+     * @throws IllegalArgumentException If the schema already has a characteristic with the name.
+     */
+    public Builder optional(String name, CharacteristicType type) {
+      return add(name, type, false, null);
+    }
+
+    /**
+     * Adds an optional characteristic to the schema.
+     *
+     * @param name The name of the characteristic.
+     * @param type The value type of the characteristic.
+     * @param defaultValue The value to extract when the characteristic is absent or has no value.
+     * @return this builder.
+     * @throws IllegalArgumentException If the schema already has a characteristic with the name,
+     *     or the default value is not of the type.
+     */
+    public Builder optional(String name, CharacteristicType type, Object defaultValue) {
+      return add(name, type, false, defaultValue);
+    }
+
+    /**
+     * @param zone The time zone of the local date-time values, and of the extracted values.
+     * @return this builder.
+     */
+    public Builder zone(ZoneId zone) {
+      this.zone = Objects.requireNonNull(zone, "zone");
+      return this;
+    }
+
+    /**
+     * @return the schema of the characteristics added so far.
+     */
+    public CharacteristicSchema build() {
+      return new CharacteristicSchema(this);
+    }
+
+    private Builder add(
+        String name, CharacteristicType type, boolean isMandatory, Object defaultValue) {
+      Objects.requireNonNull(name, "name");
+      Objects.requireNonNull(type, "type");
+      if (defaultValue != null && !type.getValueClass().isInstance(defaultValue)) {
+        throw new IllegalArgumentException(
+            "Default value of characteristic " + name + " is not of type " + type);
+      }
+      if (slots.putIfAbsent(name, names.size()) != null) {
+        throw new IllegalArgumentException("Characteristic " + name + " is already in the schema");
+      }
+      names.add(name);
+      types.add(type);
+      mandatory.add(isMandatory);
+      defaultValues.add(defaultValue);
+      return this;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package org.opentmf.v4.common.util;
+
+import org.opentmf.v4.common.model.CharacteristicSpecificationBase;
+import java.util.List;
+
+/**
+ * Loads the characteristic specifications of a product specification for a {@link
+ * CharacteristicSpecificationRegistry}, for example from a product catalog. The registry calls the
+ * loader once per cache miss, concurrently for different product specifications.
+ */
+@FunctionalInterface
+public interface CharacteristicSpecificationLoader {
+
+  /**
+   * @param specificationId The id of the product specification.
+   * @param version The version of the product specification, may be null.
+   * @return the characteristic specifications of the product specification, or null if the
+   *     product specification does not exist.
+   */
+  List<? extends CharacteristicSpecificationBase> load(String specificationId, String version);
+}
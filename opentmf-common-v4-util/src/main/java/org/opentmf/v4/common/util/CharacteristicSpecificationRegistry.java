@@ -0,0 +1,145 @@
+package org.opentmf.v4.common.util;
+
+import org.opentmf.v4.common.model.Characteristic;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of the compiled characteristic specifications of product specifications, keyed
+ * by the product specification id and version. The characteristic specifications are loaded on
+ * demand with a {@link CharacteristicSpecificationLoader}, and compiled once into a {@link
+ * CharacteristicSpecificationValidator}, so a validation after a cache hit does not rebuild any
+ * lookup structure.
+ *
+ * <p>The registry holds at most a given number of product specifications, each for at most a given
+ * time, and concurrent misses of the same product specification load it once, as {@link
+ * BoundedCache} does. The registry is thread-safe.
+ */
+public final class CharacteristicSpecificationRegistry {
+
+  private final CharacteristicSpecificationLoader loader;
+  private final BoundedCache<Key, CharacteristicSpecificationValidator> validators;
+
+  private CharacteristicSpecificationRegistry(
+      CharacteristicSpecificationLoader loader,
+      BoundedCache<Key, CharacteristicSpecificationValidator> validators) {
+    this.loader = Objects.requireNonNull(loader, "loader");
+    this.validators = validators;
+  }
+
+  /**
+   * @param loader Loads the characteristic specifications of a product specification.
+   * @param maximumSize The maximum number of product specifications in the registry.
+   * @param timeToLive The time a product specification stays in the registry after it is loaded.
+   * @return a new registry.
+   * @throws IllegalArgumentException If the maximum size or the time to live is not positive.
+   */
+  public static CharacteristicSpecificationRegistry of(
+      CharacteristicSpecificationLoader loader, int maximumSize, Duration timeToLive) {
+    return new CharacteristicSpecificationRegistry(
+        loader, new BoundedCache<>(maximumSize, timeToLive));
+  }
+
+  static CharacteristicSpecificationRegistry of(
+      CharacteristicSpecificationLoader loader,
+      int maximumSize,
+      Duration timeToLive,
+      LongSupplier ticker) {
+    return new CharacteristicSpecificationRegistry(
+        loader, new BoundedCache<>(maximumSize, timeToLive, ticker));
+  }
+
+  /**
+   * Returns the validator of the characteristic specifications of a product specification,
+   * loading and compiling them if the registry does not hold them.
+   *
+   * @param specificationId The id of the product specification.
+   * @param version The version of the product specification, may be null.
+   * @return the validator of the characteristic specifications.
+   * @throws IllegalArgumentException If the product specification does not exist, or its
+   *     characteristic specifications are invalid.
+   */
+  public CharacteristicSpecificationValidator getValidator(String specificationId, String version) {
+    return validators.get(new Key(specificationId, version), this::load);
+  }
+
+  /**
+   * Validates the given characteristics against the characteristic specifications of a product
+   * specification, as {@link CharacteristicSpecificationValidator#validate(Collection)} does.
+   *
+   * @param specificationId The id of the product specification.
+   * @param version The version of the product specification, may be null.
+   * @param characteristics The collection that holds characteristics, may be null.
+   * @return the unmodifiable list of the validation errors, or an empty list if the collection is
+   *     valid.
+   * @throws IllegalArgumentException If the product specification does not exist, or its
+   *     characteristic specifications are invalid.
+   */
+  public List<String> validate(
+      String specificationId, String version, Collection<Characteristic> characteristics) {
+    return getValidator(specificationId, version).validate(characteristics);
+  }
+
+  /**
+   * Evicts a product specification, so its next use loads it again.
+   *
+   * @param specificationId The id of the product specification.
+   * @param version The version of the product specification, may be null.
+   */
+  public void invalidate(String specificationId, String version) {
+    validators.invalidate(new Key(specificationId, version));
+  }
+
+  /** Evicts all the product specifications. */
+  public void invalidateAll() {
+    validators.invalidateAll();
+  }
+
+  /**
+   * @return the number of product specifications in the registry.
+   */
+  public int size() {
+    return validators.size();
+  }
+
+  private CharacteristicSpecificationValidator load(Key key) {
+    var specifications = loader.load(key.specificationId, key.version);
+    if (specifications == null) {
+      throw new IllegalArgumentException("Product specification " + key.specificationId
+          + " with version " + key.version + " not found");
+    }
+    return CharacteristicSpecificationValidator.of(specifications);
+  }
+
+  private static final class Key {
+
+    private final String specificationId;
+    private final String version;
+
+    Key(String specificationId, String version) {
+      this.specificationId = Objects.requireNonNull(specificationId, "specificationId");
+      this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      var other = (Key) o;
+      return specificationId.equals(other.specificationId)
+          && Objects.equals(version, other.version);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * specificationId.hashCode() + Objects.hashCode(version);
+    }
+  }
+}
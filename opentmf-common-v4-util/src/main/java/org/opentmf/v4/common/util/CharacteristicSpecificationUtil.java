@@ -1,7 +1,5 @@
 package org.opentmf.v4.common.util;
 
-import static org.apache.commons.lang3.math.NumberUtils.toInt;
-
 import org.opentmf.v4.common.model.CharacteristicSpecificationBase;
 import org.opentmf.v4.common.model.CharacteristicValueSpecification;
 import java.util.ArrayList;
@@ -19,11 +17,19 @@ public final class CharacteristicSpecificationUtil {
   }
 
   public static boolean isMandatory(CharacteristicSpecificationBase cs) {
-    var minCardinality = toInt(String.valueOf(cs.getMinCardinality()), 0);
-    var maxCardinality = toInt(String.valueOf(cs.getMaxCardinality()), 0);
-    return (minCardinality == 1 && minCardinality == maxCardinality);
+    var minCardinality = cs.getMinCardinality();
+    var maxCardinality = cs.getMaxCardinality();
+    return minCardinality != null && minCardinality == 1 && minCardinality.equals(maxCardinality);
   }
 
+  /**
+   * Returns the allowed values of a characteristic specification, in a new list. To check values
+   * against the allowed values of many specifications, compile them once into a {@link
+   * CharacteristicSpecificationValidator} instead.
+   *
+   * @param specifications The characteristic value specifications, may be null.
+   * @return the allowed values, or an empty list.
+   */
   public static List<Object> allowedValues(List<CharacteristicValueSpecification> specifications) {
     if (specifications == null || specifications.isEmpty()) {
       return Collections.emptyList();
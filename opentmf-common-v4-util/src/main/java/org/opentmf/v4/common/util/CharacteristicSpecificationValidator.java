@@ -0,0 +1,382 @@
+package org.opentmf.v4.common.util;
+
+import static org.opentmf.v4.common.util.CharacteristicUtil.mandatoryCharacteristicNotFound;
+
+import org.opentmf.v4.common.model.Characteristic;
+import org.opentmf.v4.common.model.CharacteristicSpecificationBase;
+import org.opentmf.v4.common.model.CharacteristicValueSpecification;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates characteristic collections against a list of characteristic specifications. The
+ * specifications are compiled once into their cardinalities, mandatory flags and hashed sets of
+ * allowed values, so the validator can be built at startup and applied to each request.
+ *
+ * <p>A collection is validated in a single pass, which checks that:
+ *
+ * <ul>
+ *   <li>each characteristic is defined by a specification,
+ *   <li>each characteristic value is one of the allowed values of its specification, if the
+ *       specification has any,
+ *   <li>each characteristic occurs at least "minCardinality" and at most "maxCardinality" times.
+ *       A null minimum is 0, and a null or non-positive maximum is unbounded.
+ * </ul>
+ *
+ * <p>The allowed values are normalized by the "valueType" of their specification, so a value
+ * matches an allowed value of the same meaning: for an integer type, "10" matches 10; for a
+ * number type, 2.50 matches "2.5"; for a boolean type, "true" matches true; and for any other type,
+ * the string forms of the values are compared. The values are converted with the rules of {@link
+ * CharacteristicUtil}. A valid collection is validated without allocating any objects for the
+ * integral, boolean and string values.
+ *
+ * <p>The validator is immutable, therefore it can be shared between threads.
+ */
+public final class CharacteristicSpecificationValidator {
+
+  // the occurrence counts of a validation, shared by all the validators of a thread so that an
+  // evicted validator leaves nothing behind on pooled threads; grown to the largest validator
+  private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[16]);
+
+  private final Specification[] specifications;
+  private final Map<String, Specification> specificationsByName;
+
+  private CharacteristicSpecificationValidator(Specification[] specifications) {
+    this.specifications = specifications;
+    specificationsByName = new HashMap<>(specifications.length * 4 / 3 + 1);
+    for (var specification : specifications) {
+      if (specificationsByName.putIfAbsent(specification.name, specification) != null) {
+        throw new IllegalArgumentException(
+            "Characteristic specification " + specification.name + " is defined more than once");
+      }
+    }
+  }
+
+  /**
+   * Compiles the given characteristic specifications.
+   *
+   * @param specifications The characteristic specifications, may be null.
+   * @return the validator of the specifications.
+   * @throws IllegalArgumentException If a specification has no name, two specifications have the
+   *     same name, or an allowed value cannot be converted to the value type of its specification.
+   */
+  public static CharacteristicSpecificationValidator of(
+      List<? extends CharacteristicSpecificationBase> specifications) {
+    if (specifications == null) {
+      return new CharacteristicSpecificationValidator(new Specification[0]);
+    }
+    var compiled = new Specification[specifications.size()];
+    for (int i = 0; i < compiled.length; i++) {
+      compiled[i] = new Specification(i, specifications.get(i));
+    }
+    return new CharacteristicSpecificationValidator(compiled);
+  }
+
+  /**
+   * @return the number of specifications of the validator.
+   */
+  public int size() {
+    return specifications.length;
+  }
+
+  /**
+   * @param name The name of the characteristic.
+   * @return true if a specification exists with the given name.
+   */
+  public boolean containsSpecification(String name) {
+    return specificationsByName.containsKey(name);
+  }
+
+  /**
+   * @param name The name of the characteristic.
+   * @return true if the specification with the given name is mandatory, as {@link
+   *     CharacteristicSpecificationUtil#isMandatory(CharacteristicSpecificationBase)} decides.
+   * @throws IllegalArgumentException If no specification exists with the given name.
+   */
+  public boolean isMandatory(String name) {
+    return getSpecification(name).mandatory;
+  }
+
+  /**
+   * @param name The name of the characteristic.
+   * @return the minimum number of occurrences of the characteristic.
+   * @throws IllegalArgumentException If no specification exists with the given name.
+   */
+  public int getMinCardinality(String name) {
+    return getSpecification(name).minCardinality;
+  }
+
+  /**
+   * @param name The name of the characteristic.
+   * @return the maximum number of occurrences of the characteristic, or Integer.MAX_VALUE if it
+   *     is unbounded.
+   * @throws IllegalArgumentException If no specification exists with the given name.
+   */
+  public int getMaxCardinality(String name) {
+    return getSpecification(name).maxCardinality;
+  }
+
+  /**
+   * @param name The name of the characteristic.
+   * @param value The value of the characteristic.
+   * @return true if the specification with the given name has no allowed values, or the value is
+   *     one of them.
+   * @throws IllegalArgumentException If no specification exists with the given name.
+   */
+  public boolean isAllowedValue(String name, Object value) {
+    return getSpecification(name).isAllowed(value);
+  }
+
+  /**
+   * Validates the given characteristics against the specifications.
+   *
+   * @param characteristics The collection that holds characteristics, may be null.
+   * @return the unmodifiable list of the validation errors, or an empty list if the collection is
+   *     valid.
+   */
+  public List<String> validate(Collection<Characteristic> characteristics) {
+    List<String> errors = null;
+    var occurrences = COUNTS.get();
+    if (occurrences.length < specifications.length) {
+      occurrences = new int[specifications.length];
+      COUNTS.set(occurrences);
+    } else {
+      Arrays.fill(occurrences, 0, specifications.length, 0);
+    }
+    if (characteristics != null) {
+      for (var characteristic : characteristics) {
+        var name = characteristic.getName();
+        var specification = name == null ? null : specificationsByName.get(name);
+        if (specification == null) {
+          errors = add(errors, "Characteristic " + name + " is not defined by a specification");
+          continue;
+        }
+        occurrences[specification.index]++;
+        var value = characteristic.getValue();
+        if (value != null && !specification.isAllowed(value)) {
+          errors =
+              add(errors, "Value " + value + " of characteristic " + name + " is not allowed");
+        }
+      }
+    }
+    for (var specification : specifications) {
+      int count = occurrences[specification.index];
+      if (count == 0 && specification.minCardinality > 0) {
+        errors = add(errors, mandatoryCharacteristicNotFound(specification.name).getMessage());
+      } else if (count < specification.minCardinality) {
+        errors = add(errors, "Characteristic " + specification.name + " occurs " + count
+            + " times, fewer than its minimum cardinality " + specification.minCardinality);
+      } else if (count > specification.maxCardinality) {
+        errors = add(errors, "Characteristic " + specification.name + " occurs " + count
+            + " times, more than its maximum cardinality " + specification.maxCardinality);
+      }
+    }
+    return errors == null ? Collections.emptyList() : Collections.unmodifiableList(errors);
+  }
+
+  /**
+   * Validates the given characteristics against the specifications.
+   *
+   * @param characteristics The collection that holds characteristics, may be null.
+   * @throws IllegalArgumentException If the collection is invalid. The message lists all the
+   *     validation errors.
+   */
+  public void requireValid(Collection<Characteristic> characteristics) {
+    var errors = validate(characteristics);
+    if (!errors.isEmpty()) {
+      throw new IllegalArgumentException(String.join("; ", errors));
+    }
+  }
+
+  private Specification getSpecification(String name) {
+    var specification = specificationsByName.get(name);
+    if (specification == null) {
+      throw new IllegalArgumentException("Characteristic specification " + name + " not found");
+    }
+    return specification;
+  }
+
+  private static List<String> add(List<String> errors, String error) {
+    var list = errors == null ? new ArrayList<String>() : errors;
+    list.add(error);
+    return list;
+  }
+
+  /** The value types whose allowed values are compared by meaning, rather than string form. */
+  private enum ValueKind {
+    STRING,
+    INTEGER,
+    NUMBER,
+    BOOLEAN;
+
+    static ValueKind of(String valueType) {
+      if (valueType == null) {
+        return STRING;
+      }
+      switch (valueType.toLowerCase(Locale.ROOT)) {
+        case "integer":
+        case "int":
+        case "long":
+          return INTEGER;
+        case "number":
+        case "float":
+        case "double":
+        case "decimal":
+          return NUMBER;
+        case "boolean":
+          return BOOLEAN;
+        default:
+          return STRING;
+      }
+    }
+  }
+
+  /** A compiled characteristic specification. */
+  private static final class Specification {
+
+    private final int index;
+    private final String name;
+    private final int minCardinality;
+    private final int maxCardinality;
+    private final boolean mandatory;
+    private final ValueKind kind;
+    private final Set<String> allowedStrings;
+    private final LongHashSet allowedKeys;
+
+    Specification(int index, CharacteristicSpecificationBase specification) {
+      if (specification.getName() == null) {
+        throw new IllegalArgumentException("Characteristic specification has no name");
+      }
+      this.index = index;
+      name = specification.getName();
+      var min = specification.getMinCardinality();
+      var max = specification.getMaxCardinality();
+      minCardinality = min == null ? 0 : Math.max(min, 0);
+      maxCardinality = max == null || max <= 0 ? Integer.MAX_VALUE : max;
+      mandatory = CharacteristicSpecificationUtil.isMandatory(specification);
+      kind = ValueKind.of(specification.getValueType());
+      var values = specification.getCharacteristicValueSpecifications();
+      if (values == null || values.isEmpty()) {
+        allowedStrings = null;
+        allowedKeys = null;
+      } else if (kind == ValueKind.STRING) {
+        allowedStrings = new HashSet<>(values.size() * 4 / 3 + 1);
+        for (var value : values) {
+          allowedStrings.add(String.valueOf(allowedValue(value)));
+        }
+        allowedKeys = null;
+      } else {
+        var keys = new long[values.size()];
+        for (int i = 0; i < keys.length; i++) {
+          var value = allowedValue(values.get(i));
+          try {
+            keys[i] = key(value);
+          } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Allowed value " + value
+                + " of characteristic specification " + name + " is not of type "
+                + specification.getValueType());
+          }
+        }
+        allowedStrings = null;
+        allowedKeys = new LongHashSet(keys);
+      }
+    }
+
+    boolean isAllowed(Object value) {
+      if (allowedStrings != null) {
+        return allowedStrings.contains(value instanceof String ? value : String.valueOf(value));
+      }
+      if (allowedKeys == null) {
+        return true;
+      }
+      try {
+        return allowedKeys.contains(key(value));
+      } catch (IllegalArgumentException e) {
+        return false;
+      }
+    }
+
+    private Object allowedValue(CharacteristicValueSpecification value) {
+      if (value.getValue() == null) {
+        throw new IllegalArgumentException(
+            "Characteristic specification " + name + " has a null allowed value");
+      }
+      return value.getValue();
+    }
+
+    /**
+     * @return the value as a long key of the value type: the value of an integer, the bits of a
+     *     number, or 1 and 0 for a boolean.
+     * @throws IllegalArgumentException If the value cannot be converted to the value type.
+     */
+    private long key(Object value) {
+      switch (kind) {
+        case INTEGER:
+          return CharacteristicUtil.toLong(value);
+        case NUMBER:
+          double number =
+              value instanceof Number
+                  ? ((Number) value).doubleValue()
+                  : Double.parseDouble(value.toString());
+          // 0.0 and -0.0 are the same value
+          return Double.doubleToLongBits(number == 0.0 ? 0.0 : number);
+        default:
+          var bool = CharacteristicUtil.toBoolean(value);
+          if (bool == null) {
+            throw new IllegalArgumentException(value + " is not a boolean");
+          }
+          return bool ? 1 : 0;
+      }
+    }
+  }
+
+  /**
+   * An immutable set of long keys with open addressing and linear probing, which checks a key
+   * without boxing it.
+   */
+  private static final class LongHashSet {
+
+    private final long[] table;
+    private final boolean[] used;
+    private final int mask;
+
+    LongHashSet(long[] keys) {
+      int capacity = Integer.highestOneBit(Math.max(keys.length, 1) * 2 - 1) << 1;
+      table = new long[capacity];
+      used = new boolean[capacity];
+      mask = capacity - 1;
+      for (long key : keys) {
+        int slot = slot(key);
+        while (used[slot] && table[slot] != key) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+        used[slot] = true;
+      }
+    }
+
+    boolean contains(long key) {
+      int slot = slot(key);
+      while (used[slot]) {
+        if (table[slot] == key) {
+          return true;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return false;
+    }
+
+    private int slot(long key) {
+      long hash = key * 0x9E3779B97F4A7C15L;
+      return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package org.opentmf.v4.common.util;
+
+import java.time.OffsetDateTime;
+
+/**
+ * The value types that a {@link CharacteristicSchema} converts the characteristic values to. The
+ * conversions follow the rules of the accessors of {@link CharacteristicUtil}, except that a value
+ * which cannot be converted is reported as invalid instead of being replaced by a default.
+ */
+public enum CharacteristicType {
+
+  /** The value as is, without any conversion. */
+  OBJECT(Object.class),
+
+  /** The string form of the value, as {@link CharacteristicUtil#getStringValue} returns it. */
+  STRING(String.class),
+
+  /** A Boolean, a string such as "true", "yes" or "on", or the integral numbers 1 and 0. */
+  BOOLEAN(Boolean.class),
+
+  /** An integral number in the int range, or its decimal string form. */
+  INTEGER(Integer.class),
+
+  /** An integral number, or its decimal string form. */
+  LONG(Long.class),
+
+  /** Any number, or a string that {@link Double#parseDouble} accepts. */
+  DOUBLE(Double.class),
+
+  /** A date-time string in one of the patterns of {@link OffsetDateTimeParser}. */
+  OFFSET_DATE_TIME(OffsetDateTime.class);
+
+  private final Class<?> valueClass;
+
+  CharacteristicType(Class<?> valueClass) {
+    this.valueClass = valueClass;
+  }
+
+  /**
+   * @return the class of the converted values.
+   */
+  public Class<?> getValueClass() {
+    return valueClass;
+  }
+}
@@ -1,12 +1,10 @@
 package org.opentmf.v4.common.util;
 
 import static org.apache.commons.lang3.BooleanUtils.toBooleanObject;
-import static org.apache.commons.lang3.math.NumberUtils.toInt;
-import static org.apache.commons.lang3.math.NumberUtils.toLong;
+import static org.apache.commons.lang3.math.NumberUtils.toDouble;
 
 import org.opentmf.v4.common.model.Characteristic;
 import java.text.MessageFormat;
-import java.text.ParseException;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.Collection;
@@ -15,7 +13,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import lombok.Generated;
-import org.apache.commons.lang3.time.DateUtils;
 
 /**
  * Utility class for working with characteristics within collections. This class provides convenient
@@ -172,44 +169,174 @@ public final class CharacteristicUtil {
   }
 
   public static Boolean getBooleanValue(final Characteristic characteristic) {
-    String stringValue = getStringValue(characteristic);
-    return stringValue == null ? null : toBooleanObject(stringValue);
+    return toBoolean(characteristic.getValue());
   }
 
   public static Integer getIntegerValue(final Characteristic characteristic) {
-    String stringValue = getStringValue(characteristic);
-    return stringValue == null ? null : toInt(stringValue);
+    return characteristic.getValue() == null ? null : getIntValue(characteristic, 0);
   }
 
   public static Long getLongValue(final Characteristic characteristic) {
-    String stringValue = getStringValue(characteristic);
-    return stringValue == null ? null : toLong(stringValue);
+    return characteristic.getValue() == null ? null : getLongValue(characteristic, 0L);
   }
 
-  public static OffsetDateTime getOffsetDateTimeValue(final Characteristic characteristic) {
-    var dateStr = getStringValue(characteristic);
-    if (dateStr == null) {
-      return null;
+  /**
+   * Returns the value of the existing characteristic as a boolean, with the same conversion as
+   * {@link #getBooleanValue(Characteristic)} but without boxing. A Boolean value is returned as
+   * is, and a string value is matched without copying it.
+   *
+   * @param characteristic Existing characteristic.
+   * @param defaultValue The value to return if the characteristic has no value, or its value is not
+   *     a boolean.
+   * @return the boolean value of the characteristic, or the default value.
+   * @throws NullPointerException If the characteristic itself is null.
+   */
+  public static boolean getBooleanValue(final Characteristic characteristic, boolean defaultValue) {
+    var value = toBoolean(characteristic.getValue());
+    return value == null ? defaultValue : value;
+  }
+
+  /**
+   * Returns the value of the existing characteristic as an int, with the same conversion as {@link
+   * #getIntegerValue(Characteristic)} but without converting the value to a string. An integral
+   * Number value is returned as is if it fits in an int, and a CharSequence value is parsed in
+   * place as a decimal integer.
+   *
+   * @param characteristic Existing characteristic.
+   * @param defaultValue The value to return if the characteristic has no value, or its value is not
+   *     an int.
+   * @return the int value of the characteristic, or the default value.
+   * @throws NullPointerException If the characteristic itself is null.
+   */
+  public static int getIntValue(final Characteristic characteristic, int defaultValue) {
+    var value = characteristic.getValue();
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return toInt(value);
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Returns the value of the existing characteristic as a long, with the same conversion as {@link
+   * #getLongValue(Characteristic)} but without converting the value to a string. An integral
+   * Number value is returned as is, and a CharSequence value is parsed in place as a decimal
+   * integer.
+   *
+   * @param characteristic Existing characteristic.
+   * @param defaultValue The value to return if the characteristic has no value, or its value is not
+   *     a long.
+   * @return the long value of the characteristic, or the default value.
+   * @throws NullPointerException If the characteristic itself is null.
+   */
+  public static long getLongValue(final Characteristic characteristic, long defaultValue) {
+    var value = characteristic.getValue();
+    if (value == null) {
+      return defaultValue;
     }
     try {
-      var date =
-          DateUtils.parseDateStrictly(
-              dateStr,
-              "yyyy/MM/dd'T'HH:mm:ss.SSSSSSZ",
-              "yyyy-MM-dd'T'HH:mm:ss.SSSSSSZ",
-              "yyyy/MM/dd'T'HH:mm:ssZ",
-              "yyyy-MM-dd'T'HH:mm:ssZ",
-              "yyyy/MM/dd'T'HH:mm:ss.SSSSSS",
-              "yyyy-MM-dd'T'HH:mm:ss.SSSSSS",
-              "yyyy/MM/dd'T'HH:mm:ss",
-              "yyyy-MM-dd'T'HH:mm:ss",
-              "yyyy/MM/dd",
-              "yyyy-MM-dd",
-              "yyyy-MM-dd'T'HH:mm:ssX");
-      return OffsetDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
-    } catch (ParseException e) {
-      throw new IllegalArgumentException("Date string " + dateStr + " could not be parsed.");
+      return toLong(value);
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Returns the value of the existing characteristic as a double. A Number value is converted
+   * directly, and any other value is parsed from its string form as {@link Double#parseDouble}
+   * does.
+   *
+   * @param characteristic Existing characteristic.
+   * @param defaultValue The value to return if the characteristic has no value, or its value is not
+   *     a number.
+   * @return the double value of the characteristic, or the default value.
+   * @throws NullPointerException If the characteristic itself is null.
+   */
+  public static double getDoubleValue(final Characteristic characteristic, double defaultValue) {
+    var value = characteristic.getValue();
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    return value == null ? defaultValue : toDouble(value.toString(), defaultValue);
+  }
+
+  /**
+   * Converts a non-null value to an int with the rules of {@link #getIntValue(Characteristic,
+   * int)}.
+   *
+   * @throws NumberFormatException If the value is not an int.
+   */
+  static int toInt(Object value) {
+    if (isIntegral(value)) {
+      long longValue = ((Number) value).longValue();
+      if (longValue != (int) longValue) {
+        throw new NumberFormatException("Value out of int range: " + value);
+      }
+      return (int) longValue;
+    }
+    var chars = value instanceof CharSequence ? (CharSequence) value : String.valueOf(value);
+    return Integer.parseInt(chars, 0, chars.length(), 10);
+  }
+
+  /**
+   * Converts a non-null value to a long with the rules of {@link #getLongValue(Characteristic,
+   * long)}.
+   *
+   * @throws NumberFormatException If the value is not a long.
+   */
+  static long toLong(Object value) {
+    if (isIntegral(value)) {
+      return ((Number) value).longValue();
+    }
+    var chars = value instanceof CharSequence ? (CharSequence) value : String.valueOf(value);
+    return Long.parseLong(chars, 0, chars.length(), 10);
+  }
+
+  private static boolean isIntegral(Object value) {
+    return value instanceof Integer
+        || value instanceof Long
+        || value instanceof Short
+        || value instanceof Byte;
+  }
+
+  /**
+   * Converts a value to a Boolean with the rules of {@link #getBooleanValue(Characteristic)}.
+   *
+   * @return the Boolean value, or null if the value is null or not a boolean.
+   */
+  static Boolean toBoolean(Object value) {
+    if (value == null || value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    if (isIntegral(value)) {
+      long longValue = ((Number) value).longValue();
+      return longValue == 1 ? Boolean.TRUE : longValue == 0 ? Boolean.FALSE : null;
     }
+    return toBooleanObject(value instanceof String ? (String) value : String.valueOf(value));
+  }
+
+  public static OffsetDateTime getOffsetDateTimeValue(final Characteristic characteristic) {
+    return getOffsetDateTimeValue(characteristic, ZoneId.systemDefault());
+  }
+
+  /**
+   * Parses the string value of the existing characteristic with the patterns of {@link
+   * #getMandatoryCharacteristicOffsetDateTimeValue(String, Collection)}, where the local times are
+   * in the given time zone.
+   *
+   * @param characteristic Existing characteristic.
+   * @param zone The time zone of the local times, and of the returned value.
+   * @return the date-time value in the given time zone, or null if the characteristic has no value.
+   * @throws IllegalArgumentException If the value cannot be parsed using neither of the patterns.
+   * @see OffsetDateTimeParser
+   */
+  public static OffsetDateTime getOffsetDateTimeValue(
+      final Characteristic characteristic, ZoneId zone) {
+    var dateStr = getStringValue(characteristic);
+    return dateStr == null ? null : OffsetDateTimeParser.of(zone).parse(dateStr);
   }
 
   /**
@@ -260,6 +387,9 @@ public final class CharacteristicUtil {
   /**
    * Finds a characteristic by its name in the provided collection.
    *
+   * <p>This method scans the collection on each call. For repeated lookups on the same collection,
+   * build a {@link CharacteristicIndex} once and query it.
+   *
    * @param name The name of the characteristic to find.
    * @param characteristics The collection of characteristics to search within.
    * @return An Optional containing the found characteristic, or an empty Optional if not found.
@@ -305,39 +435,85 @@ public final class CharacteristicUtil {
                 HashMap::new));
   }
 
+  /**
+   * Returns the name - value pairs in the characteristics as a compact immutable map, with the same
+   * keys and values as {@link #toNameObjectMap(Collection)}. The map is built in a single pass into
+   * a table presized for the collection, and it takes a fraction of the memory of a HashMap, so it
+   * suits the maps that are kept for a long time. Unlike toNameObjectMap, it permits null values.
+   *
+   * @param characteristics The characteristic collection to map.
+   * @return The unmodifiable map of the characteristic names and their values as an object.
+   */
+  public static Map<String, Object> toCompactNameObjectMap(
+      Collection<Characteristic> characteristics) {
+    return CompactImmutableMap.of(
+        characteristics, Characteristic::getName, Characteristic::getValue);
+  }
+
+  /**
+   * Returns the name - value pairs in the characteristics as a compact immutable map, with the same
+   * keys and values as {@link #toNameStringMap(Collection)}. The map is built in a single pass into
+   * a table presized for the collection, and it takes a fraction of the memory of a HashMap, so it
+   * suits the maps that are kept for a long time.
+   *
+   * @param characteristics The characteristic collection to map.
+   * @return The unmodifiable map of the characteristic names and their values as a string.
+   */
+  public static Map<String, String> toCompactNameStringMap(
+      Collection<Characteristic> characteristics) {
+    return CompactImmutableMap.of(
+        characteristics, Characteristic::getName, c -> emptyINull(getStringValue(c)));
+  }
+
   private static String emptyINull(String s) {
     return s == null ? "" : s;
   }
 
-  private static IllegalArgumentException mandatoryCharacteristicNotFound(String name) {
+  static IllegalArgumentException mandatoryCharacteristicNotFound(String name) {
     String message =
         MessageFormat.format(
             "Mandatory characteristic {0} not found " + "in the characteristic list", name);
     return new IllegalArgumentException(message);
   }
 
+  /**
+   * Replaces the names and value types of the given characteristics with their canonical
+   * instances in the pool, so the characteristics of many cached objects share them.
+   *
+   * @param characteristics The characteristics to update in place, may be null.
+   * @param pool The pool of canonical strings.
+   */
+  public static void canonicalize(Collection<Characteristic> characteristics, StringPool pool) {
+    if (characteristics == null) {
+      return;
+    }
+    for (var characteristic : characteristics) {
+      characteristic.setName(pool.canonicalize(characteristic.getName()));
+      characteristic.setValueType(pool.canonicalize(characteristic.getValueType()));
+    }
+  }
+
+  /**
+   * Checks whether two characteristics in the given collection have the same name. The check stops
+   * at the first duplicate name.
+   *
+   * @param characteristics the collection to be inspected for duplicate characteristic names.
+   * @return true if two characteristics have the same name.
+   */
+  public static boolean hasDuplicates(Collection<Characteristic> characteristics) {
+    return DuplicateUtil.hasDuplicates(characteristics, Characteristic::getName);
+  }
+
   /**
    * Detects the duplicate characteristic names in the given collection of characteristics and
-   * return a name - count map that holds the duplicate characteristic names and the counts.
+   * return a name - count map that holds the duplicate characteristic names and the counts. The
+   * collection is read in a single pass; to check only whether any duplicate exists, use {@link
+   * #hasDuplicates(Collection)}.
    *
    * @param characteristics the collection to be inspected for duplicate characteristic names.
    * @return A map of name - count pairs for the detected duplicate characteristic names.
    */
   public static Map<String, Integer> detectDuplicates(Collection<Characteristic> characteristics) {
-    var temp = new HashMap<String, Integer>();
-    for (var characteristic : characteristics) {
-      if (temp.containsKey(characteristic.getName())) {
-        temp.put(characteristic.getName(), temp.get(characteristic.getName()) + 1);
-      } else {
-        temp.put(characteristic.getName(), 1);
-      }
-    }
-    var ret = new HashMap<String, Integer>();
-    for (var entry : temp.entrySet()) {
-      if (entry.getValue() > 1) {
-        ret.put(entry.getKey(), entry.getValue());
-      }
-    }
-    return ret;
+    return DuplicateUtil.countDuplicates(characteristics, Characteristic::getName);
   }
 }
@@ -0,0 +1,89 @@
+package org.opentmf.v4.common.util;
+
+import java.time.OffsetDateTime;
+
+/**
+ * The values that a {@link CharacteristicSchema} extracted from a collection of characteristics,
+ * held in an array in the order of the schema. A value is read by the name of its characteristic,
+ * or, for the fastest access, by its position in the schema as {@link
+ * CharacteristicSchema#indexOf(String)} returns it.
+ *
+ * <p>The typed getters return the value as the type of its characteristic in the schema. The
+ * values are null for the optional characteristics that are absent and have no default value, and
+ * for the characteristics without a value.
+ */
+public final class CharacteristicValues {
+
+  private final CharacteristicSchema schema;
+  private final Object[] values;
+
+  CharacteristicValues(CharacteristicSchema schema, Object[] values) {
+    this.schema = schema;
+    this.values = values;
+  }
+
+  /**
+   * @return the schema that extracted the values.
+   */
+  public CharacteristicSchema getSchema() {
+    return schema;
+  }
+
+  /**
+   * @param index The position of the characteristic in the schema.
+   * @return the value of the characteristic, or null.
+   */
+  public Object get(int index) {
+    return values[index];
+  }
+
+  /**
+   * @param name The name of the characteristic.
+   * @return the value of the characteristic, or null.
+   * @throws IllegalArgumentException If the schema has no characteristic with the given name.
+   */
+  public Object get(String name) {
+    return values[indexOf(name)];
+  }
+
+  public String getString(String name) {
+    return get(name, CharacteristicType.STRING, String.class);
+  }
+
+  public Boolean getBoolean(String name) {
+    return get(name, CharacteristicType.BOOLEAN, Boolean.class);
+  }
+
+  public Integer getInteger(String name) {
+    return get(name, CharacteristicType.INTEGER, Integer.class);
+  }
+
+  public Long getLong(String name) {
+    return get(name, CharacteristicType.LONG, Long.class);
+  }
+
+  public Double getDouble(String name) {
+    return get(name, CharacteristicType.DOUBLE, Double.class);
+  }
+
+  public OffsetDateTime getOffsetDateTime(String name) {
+    return get(name, CharacteristicType.OFFSET_DATE_TIME, OffsetDateTime.class);
+  }
+
+  private <V> V get(String name, CharacteristicType type, Class<V> valueClass) {
+    int index = indexOf(name);
+    if (schema.getType(index) != type) {
+      throw new IllegalArgumentException(
+          "Characteristic " + name + " is of type " + schema.getType(index) + ", not " + type);
+    }
+    return valueClass.cast(values[index]);
+  }
+
+  private int indexOf(String name) {
+    int index = schema.indexOf(name);
+    if (index < 0) {
+      throw new IllegalArgumentException("Characteristic " + name + " is not in the schema");
+    }
+    return index;
+  }
+}
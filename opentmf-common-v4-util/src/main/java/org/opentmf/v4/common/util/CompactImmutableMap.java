@@ -0,0 +1,182 @@
+package org.opentmf.v4.common.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An immutable map that holds its keys and values in a single array, with open addressing and
+ * linear probing, for maps that are built once and kept for a long time, such as the
+ * characteristic maps of cached products.
+ *
+ * <p>A HashMap holds a node object of 32 bytes for each entry, in addition to its table of
+ * references. This map holds no object per entry; the table has two references per slot, and it
+ * is at most three quarters full, so an entry takes 11 to 21 bytes with compressed references,
+ * about a third to a half of the memory of a HashMap entry. The lookups hash the key once, as a
+ * HashMap does, but they do not follow a reference to a node.
+ *
+ * <p>The map permits a null key and null values. It is unmodifiable, so the mutator methods throw
+ * UnsupportedOperationException, and it can be shared between threads. The iteration order is
+ * unspecified.
+ *
+ * @param <K> the type of the keys, which must implement equals and hashCode.
+ * @param <V> the type of the values.
+ */
+public final class CompactImmutableMap<K, V> extends AbstractMap<K, V> {
+
+  /** Stands for the null key in the table, where null marks an empty slot. */
+  private static final Object NULL_KEY = new Object();
+
+  /** The largest power of two number of slots whose table fits in an array. */
+  private static final int MAX_SLOTS = 1 << 29;
+
+  private final Object[] table;
+  private final int mask;
+  private final int size;
+  private Set<Map.Entry<K, V>> entrySet;
+
+  private CompactImmutableMap(Object[] table, int size) {
+    this.table = table;
+    this.mask = table.length / 2 - 1;
+    this.size = size;
+  }
+
+  /**
+   * Builds a map of the keys and values of the given elements in a single pass. When several
+   * elements have the same key, the value of the last of them is kept.
+   *
+   * @param elements The elements to map.
+   * @param key Returns the key of an element.
+   * @param value Returns the value of an element.
+   * @param <T> the type of the elements.
+   * @param <K> the type of the keys.
+   * @param <V> the type of the values.
+   * @return the map of the keys and values of the elements.
+   */
+  public static <T, K, V> CompactImmutableMap<K, V> of(
+      Collection<T> elements,
+      Function<? super T, ? extends K> key,
+      Function<? super T, ? extends V> value) {
+    long expected = Math.max(elements.size() * 4L / 3, 1);
+    int slots = (int) Math.min(Long.highestOneBit(expected) << 1, MAX_SLOTS);
+    var table = new Object[slots * 2];
+    int size = 0;
+    for (var element : elements) {
+      var elementKey = key.apply(element);
+      int slot = slot(table, slots - 1, elementKey);
+      if (table[slot] == null) {
+        table[slot] = elementKey == null ? NULL_KEY : elementKey;
+        size++;
+      }
+      table[slot + 1] = value.apply(element);
+    }
+    return new CompactImmutableMap<>(table, size);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return table[slot(key)] != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    return (V) table[slot(key) + 1];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V getOrDefault(Object key, V defaultValue) {
+    int slot = slot(key);
+    return table[slot] == null ? defaultValue : (V) table[slot + 1];
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  /**
+   * @return the length of the table, which is twice the number of slots.
+   */
+  int tableLength() {
+    return table.length;
+  }
+
+  private int slot(Object key) {
+    return slot(table, mask, key);
+  }
+
+  /**
+   * @return the index in the table of the slot that holds the key, or of the empty slot where the
+   *     key would be stored.
+   */
+  private static int slot(Object[] table, int mask, Object key) {
+    var stored = key == null ? NULL_KEY : key;
+    int hash = stored.hashCode();
+    int index = (hash ^ (hash >>> 16)) & mask;
+    while (true) {
+      var current = table[index * 2];
+      if (current == null || current.equals(stored)) {
+        return index * 2;
+      }
+      index = (index + 1) & mask;
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+      return new Iterator<>() {
+
+        private int next = advance(0);
+
+        @Override
+        public boolean hasNext() {
+          return next < table.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+          if (next >= table.length) {
+            throw new NoSuchElementException();
+          }
+          var key = table[next] == NULL_KEY ? null : (K) table[next];
+          var entry = new SimpleImmutableEntry<>(key, (V) table[next + 1]);
+          next = advance(next + 2);
+          return entry;
+        }
+      };
+    }
+
+    /**
+     * @return the index of the first used slot at or after the given index.
+     */
+    private int advance(int index) {
+      while (index < table.length && table[index] == null) {
+        index += 2;
+      }
+      return index;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package org.opentmf.v4.common.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.Generated;
+
+/**
+ * Detects the elements of a collection that have the same key, such as the characteristics with
+ * the same name, the related parties with the same id, or the order items with the same id:
+ *
+ * <pre>{@code
+ * DuplicateUtil.hasDuplicates(order.getProductOrderItems(), ProductOrderItem::getId);
+ * DuplicateUtil.countDuplicates(relatedParties, RelatedParty::getId);
+ * }</pre>
+ *
+ * <p>The collection is read in a single pass, with a hash table presized for its elements. A null
+ * key is a key as any other.
+ */
+public final class DuplicateUtil {
+
+  @Generated
+  private DuplicateUtil() {}
+
+  /**
+   * Checks whether two elements of the collection have the same key. The check stops at the first
+   * duplicate key.
+   *
+   * @param elements The collection to inspect, may be null.
+   * @param key Returns the key of an element.
+   * @param <T> the type of the elements.
+   * @return true if two elements have the same key.
+   */
+  public static <T> boolean hasDuplicates(Collection<T> elements, Function<? super T, ?> key) {
+    if (elements == null || elements.size() < 2) {
+      return false;
+    }
+    var seen = new HashSet<>(capacity(elements.size()));
+    for (var element : elements) {
+      if (!seen.add(key.apply(element))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Counts the elements of each key that more than one element of the collection has.
+   *
+   * @param elements The collection to inspect, may be null.
+   * @param key Returns the key of an element.
+   * @param <T> the type of the elements.
+   * @param <K> the type of the keys.
+   * @return A map of key - count pairs for the duplicate keys, or an empty map if there are none.
+   */
+  public static <T, K> Map<K, Integer> countDuplicates(
+      Collection<T> elements, Function<? super T, ? extends K> key) {
+    if (elements == null || elements.size() < 2) {
+      return new HashMap<>();
+    }
+    var counts = new HashMap<K, int[]>(capacity(elements.size()));
+    List<K> duplicates = null;
+    for (var element : elements) {
+      var elementKey = key.apply(element);
+      var count = counts.get(elementKey);
+      if (count == null) {
+        counts.put(elementKey, new int[] {1});
+      } else if (++count[0] == 2) {
+        if (duplicates == null) {
+          duplicates = new ArrayList<>();
+        }
+        duplicates.add(elementKey);
+      }
+    }
+    if (duplicates == null) {
+      duplicates = Collections.emptyList();
+    }
+    var result = new HashMap<K, Integer>(capacity(duplicates.size()));
+    for (var duplicate : duplicates) {
+      result.put(duplicate, counts.get(duplicate)[0]);
+    }
+    return result;
+  }
+
+  private static int capacity(int size) {
+    return (int) Math.min(Integer.MAX_VALUE, size * 4L / 3 + 1);
+  }
+}
@@ -0,0 +1,322 @@
+package org.opentmf.v4.common.util;
+
+import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TimeZone;
+import org.apache.commons.lang3.time.FastDateFormat;
+
+/**
+ * Parses the date-time strings of characteristics into OffsetDateTime values in a given time zone.
+ * The parser accepts the same patterns as {@link CharacteristicUtil#getOffsetDateTimeValue}, and
+ * returns the same values:
+ *
+ * <ul>
+ *   <li>yyyy/MM/dd'T'HH:mm:ss.SSSSSSZ and yyyy-MM-dd'T'HH:mm:ss.SSSSSSZ
+ *   <li>yyyy/MM/dd'T'HH:mm:ssZ and yyyy-MM-dd'T'HH:mm:ssZ
+ *   <li>yyyy/MM/dd'T'HH:mm:ss.SSSSSS and yyyy-MM-dd'T'HH:mm:ss.SSSSSS
+ *   <li>yyyy/MM/dd'T'HH:mm:ss and yyyy-MM-dd'T'HH:mm:ss
+ *   <li>yyyy/MM/dd and yyyy-MM-dd
+ *   <li>yyyy-MM-dd'T'HH:mm:ssX
+ * </ul>
+ *
+ * <p>The string is read in a single pass that selects the pattern from its shape, and the fields
+ * are converted with java.time, so a parse creates no formatter or calendar. As in the original
+ * patterns, the fraction of a second is read as a number of milliseconds, a time without an offset
+ * is local to the zone of the parser, and a local time in a daylight saving gap is rejected.
+ * Strings that the single pass does not cover, such as those with zone names, padded fields,
+ * dates before the Gregorian calendar, or local times out of the years {@value #MIN_LOCAL_YEAR} to
+ * {@value #MAX_LOCAL_YEAR}, are parsed with the original patterns instead.
+ *
+ * <p>The parser is immutable, therefore it can be shared between threads.
+ */
+public final class OffsetDateTimeParser {
+
+  /** The first full year of the Gregorian calendar, which java.util applies from 1582-10-15. */
+  static final int MIN_YEAR = 1583;
+
+  static final int MAX_YEAR = 9999;
+
+  /** The years where the zone rules of java.time and java.util agree on the local times. */
+  static final int MIN_LOCAL_YEAR = 1901;
+
+  static final int MAX_LOCAL_YEAR = 2036;
+
+  private static final String[] PATTERNS = {
+    "yyyy/MM/dd'T'HH:mm:ss.SSSSSSZ",
+    "yyyy-MM-dd'T'HH:mm:ss.SSSSSSZ",
+    "yyyy/MM/dd'T'HH:mm:ssZ",
+    "yyyy-MM-dd'T'HH:mm:ssZ",
+    "yyyy/MM/dd'T'HH:mm:ss.SSSSSS",
+    "yyyy-MM-dd'T'HH:mm:ss.SSSSSS",
+    "yyyy/MM/dd'T'HH:mm:ss",
+    "yyyy-MM-dd'T'HH:mm:ss",
+    "yyyy/MM/dd",
+    "yyyy-MM-dd",
+    "yyyy-MM-dd'T'HH:mm:ssX"
+  };
+
+  private final ZoneId zone;
+
+  private OffsetDateTimeParser(ZoneId zone) {
+    this.zone = Objects.requireNonNull(zone, "zone");
+  }
+
+  /**
+   * @param zone The time zone of the local times, and of the parsed values.
+   * @return a parser that returns its values in the given time zone.
+   */
+  public static OffsetDateTimeParser of(ZoneId zone) {
+    return new OffsetDateTimeParser(zone);
+  }
+
+  /**
+   * @return a parser that returns its values in the current default time zone of the system.
+   */
+  public static OffsetDateTimeParser systemDefault() {
+    return new OffsetDateTimeParser(ZoneId.systemDefault());
+  }
+
+  /**
+   * @return the time zone of the local times, and of the parsed values.
+   */
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * Parses the given date-time string.
+   *
+   * @param text The date-time string.
+   * @return the parsed value in the zone of the parser.
+   * @throws IllegalArgumentException If the string is null, or it cannot be parsed using neither
+   *     of the supported patterns.
+   */
+  public OffsetDateTime parse(String text) {
+    var instant = text == null ? null : parseInstant(text);
+    if (instant == null) {
+      throw new IllegalArgumentException("Date string " + text + " could not be parsed.");
+    }
+    return OffsetDateTime.ofInstant(instant, zone);
+  }
+
+  /**
+   * Parses the given date-time string without throwing an exception when it is invalid.
+   *
+   * @param text The date-time string, may be null.
+   * @return the parsed value in the zone of the parser, or an empty Optional if the string is null
+   *     or it cannot be parsed using neither of the supported patterns.
+   */
+  public Optional<OffsetDateTime> tryParse(String text) {
+    var instant = text == null ? null : parseInstant(text);
+    return instant == null
+        ? Optional.empty()
+        : Optional.of(OffsetDateTime.ofInstant(instant, zone));
+  }
+
+  private Instant parseInstant(String text) {
+    if (!isPlain(text)) {
+      return parseWithPatterns(text);
+    }
+    int length = text.length();
+    int end = digitsEnd(text, 0);
+    int year = number(text, 0, end);
+    if (year < 0 || end == length) {
+      return null;
+    }
+    if (year < MIN_YEAR || year > MAX_YEAR) {
+      return parseWithPatterns(text);
+    }
+    char separator = text.charAt(end);
+    if (separator != '-' && separator != '/') {
+      return null;
+    }
+    int start = end + 1;
+    end = digitsEnd(text, start);
+    int month = number(text, start, end);
+    if (month < 1 || month > 12 || end == length || text.charAt(end) != separator) {
+      return null;
+    }
+    start = end + 1;
+    end = digitsEnd(text, start);
+    int day = number(text, start, end);
+    if (day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+      return null;
+    }
+    if (end == length) {
+      return atZone(LocalDateTime.of(year, month, day, 0, 0), false, text);
+    }
+    if (text.charAt(end) != 'T') {
+      return null;
+    }
+    start = end + 1;
+    end = digitsEnd(text, start);
+    int hour = number(text, start, end);
+    if (hour < 0 || hour > 23 || end == length || text.charAt(end) != ':') {
+      return null;
+    }
+    start = end + 1;
+    end = digitsEnd(text, start);
+    int minute = number(text, start, end);
+    if (minute < 0 || minute > 59 || end == length || text.charAt(end) != ':') {
+      return null;
+    }
+    start = end + 1;
+    end = digitsEnd(text, start);
+    int second = number(text, start, end);
+    if (second < 0 || second > 59) {
+      return null;
+    }
+    int millis = 0;
+    boolean fraction = end < length && text.charAt(end) == '.';
+    if (fraction) {
+      start = end + 1;
+      end = digitsEnd(text, start);
+      millis = number(text, start, end);
+      if (millis < 0 || millis > 999) {
+        return null;
+      }
+    }
+    var local = LocalDateTime.of(year, month, day, hour, minute, second, millis * 1_000_000);
+    if (end == length) {
+      return atZone(local, true, text);
+    }
+    int offsetSeconds = offsetSeconds(text, end, separator == '-' && !fraction);
+    if (offsetSeconds == Integer.MIN_VALUE) {
+      return null;
+    }
+    return local.toInstant(ZoneOffset.UTC).minusSeconds(offsetSeconds);
+  }
+
+  /**
+   * Resolves a local date-time in the zone of the parser as a non-lenient Calendar does: a time in
+   * a daylight saving gap is rejected, a date at the start of a gap takes the offset before it
+   * unless the gap skips the whole day, and a time in an overlap takes the offset after it. Out of
+   * the years where the zone rules of java.time and java.util agree, the string is parsed with the
+   * original patterns instead.
+   */
+  private Instant atZone(LocalDateTime local, boolean hasTime, String text) {
+    if (local.getYear() < MIN_LOCAL_YEAR || local.getYear() > MAX_LOCAL_YEAR) {
+      return parseWithPatterns(text);
+    }
+    var rules = zone.getRules();
+    var offsets = rules.getValidOffsets(local);
+    if (offsets.size() == 1) {
+      return local.toInstant(offsets.get(0));
+    }
+    var transition = rules.getTransition(local);
+    if (!offsets.isEmpty()) {
+      return local.toInstant(transition.getOffsetAfter());
+    }
+    if (hasTime) {
+      return null;
+    }
+    var instant = local.toInstant(transition.getOffsetBefore());
+    return LocalDate.ofInstant(instant, zone).equals(local.toLocalDate()) ? instant : null;
+  }
+
+  /**
+   * Reads the offset at the end of the string: Z or +HH only for the yyyy-MM-dd'T'HH:mm:ssX
+   * pattern, and +HHmm for the others.
+   *
+   * @return the offset in seconds, or Integer.MIN_VALUE if the string does not end with an offset.
+   */
+  private static int offsetSeconds(String text, int start, boolean isoZone) {
+    int length = text.length();
+    char sign = text.charAt(start);
+    if (sign == 'Z') {
+      return isoZone && start + 1 == length ? 0 : Integer.MIN_VALUE;
+    }
+    if ((sign != '+' && sign != '-') || digitsEnd(text, start + 1) != length) {
+      return Integer.MIN_VALUE;
+    }
+    int hours;
+    int minutes = 0;
+    if (length - start == 5) {
+      hours = number(text, start + 1, start + 3);
+      minutes = number(text, start + 3, length);
+    } else if (length - start == 3 && isoZone) {
+      hours = number(text, start + 1, length);
+    } else {
+      return Integer.MIN_VALUE;
+    }
+    if (hours > 23 || minutes > 59) {
+      return Integer.MIN_VALUE;
+    }
+    int seconds = hours * 3600 + minutes * 60;
+    return sign == '-' ? -seconds : seconds;
+  }
+
+  /**
+   * Parses the string with the original patterns, in order, where the local times are in the zone
+   * of the parser.
+   */
+  private Instant parseWithPatterns(String text) {
+    var timeZone = TimeZone.getTimeZone(zone);
+    var calendar = Calendar.getInstance(timeZone);
+    calendar.setLenient(false);
+    var position = new ParsePosition(0);
+    for (var pattern : PATTERNS) {
+      calendar.clear();
+      try {
+        if (FastDateFormat.getInstance(pattern, timeZone).parse(text, position, calendar)
+            && position.getIndex() == text.length()) {
+          return calendar.toInstant();
+        }
+      } catch (IllegalArgumentException e) {
+        // the calendar rejects a field out of its range
+      }
+      position.setIndex(0);
+    }
+    return null;
+  }
+
+  /**
+   * @return true if the string consists of the characters of the supported patterns only.
+   */
+  private static boolean isPlain(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if ((c < '0' || c > '9')
+          && c != '-' && c != '/' && c != 'T' && c != ':' && c != '.' && c != '+' && c != 'Z') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int digitsEnd(String text, int start) {
+    int end = start;
+    while (end < text.length() && text.charAt(end) >= '0' && text.charAt(end) <= '9') {
+      end++;
+    }
+    return end;
+  }
+
+  /**
+   * @return the value of the ASCII digits between the given indexes, or -1 if there are no digits
+   *     or the value does not fit in an int.
+   */
+  private static int number(String text, int start, int end) {
+    if (start == end) {
+      return -1;
+    }
+    long value = 0;
+    for (int i = start; i < end; i++) {
+      value = value * 10 + text.charAt(i) - '0';
+      if (value > Integer.MAX_VALUE) {
+        return -1;
+      }
+    }
+    return (int) value;
+  }
+}
@@ -0,0 +1,151 @@
+package org.opentmf.v4.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * The critical path analysis of an order, where each order item takes a known duration and starts
+ * as soon as all its dependencies finish. The analysis computes the earliest and latest start and
+ * finish times of each item relative to the start of the order, the slack of each item, and the
+ * longest chain of dependent items which determines the total duration of the order.
+ *
+ * <p>The times are computed with one forward and one backward pass over the items in topological
+ * order, in linear time with respect to the number of items and relationships. The durations are
+ * in any unit the caller chooses, for example milliseconds. The analysis is immutable, therefore
+ * it can be shared between threads.
+ *
+ * @param <T> The order item type.
+ */
+public final class OrderCriticalPath<T> {
+
+  private final OrderGraph<T> graph;
+  private final long[] earliestStarts;
+  private final long[] earliestFinishes;
+  private final long[] latestStarts;
+  private final long totalDuration;
+  private final List<T> criticalPath;
+
+  private OrderCriticalPath(OrderGraph<T> graph, ToLongFunction<T> duration) {
+    this.graph = graph;
+    int size = graph.size();
+    var durations = new long[size];
+    for (int i = 0; i < size; i++) {
+      durations[i] = duration.applyAsLong(graph.item(i));
+      if (durations[i] < 0) {
+        throw new IllegalArgumentException(
+            "Duration of order Item " + graph.id(i) + " must not be negative.");
+      }
+    }
+    var order = graph.topologicalOrder();
+    earliestStarts = new long[size];
+    earliestFinishes = new long[size];
+    long total = 0;
+    for (int v : order) {
+      long start = 0;
+      for (int e = graph.dependencyOffset(v); e < graph.dependencyOffset(v + 1); e++) {
+        start = Math.max(start, earliestFinishes[graph.dependencyAt(e)]);
+      }
+      earliestStarts[v] = start;
+      earliestFinishes[v] = start + durations[v];
+      total = Math.max(total, earliestFinishes[v]);
+    }
+    totalDuration = total;
+    latestStarts = new long[size];
+    for (int k = order.length - 1; k >= 0; k--) {
+      int v = order[k];
+      long finish = total;
+      for (int e = graph.dependentOffset(v); e < graph.dependentOffset(v + 1); e++) {
+        finish = Math.min(finish, latestStarts[graph.dependentAt(e)]);
+      }
+      latestStarts[v] = finish - durations[v];
+    }
+    criticalPath = Collections.unmodifiableList(tracePath());
+  }
+
+  /**
+   * Computes the critical path analysis of the given order graph.
+   *
+   * @param graph The dependency graph of the order items.
+   * @param duration Returns the expected duration of an order item, which must not be negative.
+   * @param <T> The order item type.
+   * @return the critical path analysis of the order.
+   * @throws IllegalArgumentException If the graph has a cycle, or a duration is negative.
+   */
+  public static <T> OrderCriticalPath<T> of(OrderGraph<T> graph, ToLongFunction<T> duration) {
+    if (!graph.isAcyclic()) {
+      throw new IllegalArgumentException(
+          "There is a cyclic dependency on order Item " + graph.id(graph.firstCyclicItem()));
+    }
+    return new OrderCriticalPath<>(graph, duration);
+  }
+
+  /**
+   * @return the total duration of the order, which is the length of the critical path.
+   */
+  public long totalDuration() {
+    return totalDuration;
+  }
+
+  /**
+   * @return the longest chain of dependent items, in execution order. Delaying any of these
+   *     items delays the whole order.
+   */
+  public List<T> criticalPath() {
+    return criticalPath;
+  }
+
+  public long earliestStart(String itemId) {
+    return earliestStarts[graph.requireIndexOf(itemId)];
+  }
+
+  public long earliestFinish(String itemId) {
+    return earliestFinishes[graph.requireIndexOf(itemId)];
+  }
+
+  public long latestStart(String itemId) {
+    return latestStarts[graph.requireIndexOf(itemId)];
+  }
+
+  public long latestFinish(String itemId) {
+    int index = graph.requireIndexOf(itemId);
+    return latestStarts[index] + earliestFinishes[index] - earliestStarts[index];
+  }
+
+  /**
+   * Returns how long the start of an item can be delayed without delaying the order.
+   *
+   * @param itemId The item id.
+   * @return the slack of the item, which is zero for the items on a critical path.
+   * @throws IllegalArgumentException If no item exists with the given id.
+   */
+  public long slack(String itemId) {
+    int index = graph.requireIndexOf(itemId);
+    return latestStarts[index] - earliestStarts[index];
+  }
+
+  private List<T> tracePath() {
+    var path = new ArrayList<T>();
+    int v = -1;
+    for (int i = 0; i < graph.size() && v < 0; i++) {
+      if (earliestFinishes[i] == totalDuration) {
+        v = i;
+      }
+    }
+    while (v >= 0) {
+      path.add(graph.item(v));
+      int previous = -1;
+      for (int e = graph.dependencyOffset(v); e < graph.dependencyOffset(v + 1); e++) {
+        int w = graph.dependencyAt(e);
+        if (earliestFinishes[w] == earliestStarts[v]) {
+          previous = w;
+          break;
+        }
+      }
+      v = previous;
+    }
+    Collections.reverse(path);
+    return path;
+  }
+}
@@ -0,0 +1,392 @@
+package org.opentmf.v4.common.util;
+
+import org.opentmf.v4.common.model.Characteristic;
+import org.opentmf.v4.common.model.RelatedParty;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A 128-bit fingerprint of the content of an order, which identifies the retried or duplicated
+ * payloads of the same order and keys the caches of the results computed from it. The fingerprint
+ * covers only the fields written to its {@link Hasher}: two orders with the same values of these
+ * fields have the same fingerprint, and two orders that differ in them have different
+ * fingerprints unless they collide by chance, which the 128 bits make negligible. The fingerprint
+ * is not a cryptographic hash, so it must not be trusted when the payloads can be crafted to
+ * collide.
+ *
+ * <p>The fingerprints are computed with a {@link Hasher}, which mixes each field of the order into
+ * its state as it is read, without building a string or byte form of the order. The hashers of the
+ * orders list the fields they cover, see {@code ProductOrderUtil#fingerprint} and {@code
+ * ServiceOrderUtil#fingerprint}.
+ *
+ * <p>The fingerprint is immutable, and it can be shared between threads.
+ */
+public final class OrderFingerprint {
+
+  private final long high;
+  private final long low;
+
+  private OrderFingerprint(long high, long low) {
+    this.high = high;
+    this.low = low;
+  }
+
+  /**
+   * @param high The high 64 bits of the fingerprint.
+   * @param low The low 64 bits of the fingerprint.
+   * @return the fingerprint with the given bits.
+   */
+  public static OrderFingerprint of(long high, long low) {
+    return new OrderFingerprint(high, low);
+  }
+
+  /**
+   * @return a new hasher, which computes a fingerprint from the fields written to it.
+   */
+  public static Hasher hasher() {
+    return new Hasher();
+  }
+
+  /**
+   * @return the high 64 bits of the fingerprint.
+   */
+  public long getHigh() {
+    return high;
+  }
+
+  /**
+   * @return the low 64 bits of the fingerprint.
+   */
+  public long getLow() {
+    return low;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof OrderFingerprint)) {
+      return false;
+    }
+    var other = (OrderFingerprint) o;
+    return high == other.high && low == other.low;
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) (low ^ (low >>> 32));
+  }
+
+  /**
+   * @return the fingerprint as 32 hexadecimal digits.
+   */
+  @Override
+  public String toString() {
+    var digits = new char[32];
+    for (int i = 0; i < 16; i++) {
+      digits[i] = Character.forDigit((int) (high >>> (60 - 4 * i)) & 0xf, 16);
+      digits[i + 16] = Character.forDigit((int) (low >>> (60 - 4 * i)) & 0xf, 16);
+    }
+    return new String(digits);
+  }
+
+  /**
+   * Computes a fingerprint from the fields written to it, in their order. Each field is written
+   * with its type and length, so different sequences of fields, such as "ab", "c" and "a", "bc",
+   * give different fingerprints. The elements of a collection written with {@link
+   * #putUnordered(Collection, BiConsumer)} are fingerprinted on their own and combined with a sum,
+   * so their order does not change the fingerprint, while the other fields are order sensitive.
+   *
+   * <p>The state is mixed with the 128-bit round and finalization of MurmurHash3, one 64-bit word
+   * at a time. A hasher is not thread-safe; it is meant to be used by one thread for one order.
+   */
+  public static final class Hasher {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final long NULL = 0x6e756c6cL;
+    private static final long STRING = 1;
+    private static final long LONG = 2;
+    private static final long DOUBLE = 3;
+    private static final long BOOLEAN = 4;
+    private static final long DECIMAL = 5;
+    private static final long LIST = 6;
+    private static final long MAP = 7;
+    private static final long UNORDERED = 8;
+    private static final long OTHER = 9;
+    private static final long BIG_INTEGER = 10;
+
+    private long h1;
+    private long h2;
+    private long words;
+    // reused for the elements of unordered collections, created on the first one
+    private Hasher element;
+
+    private Hasher() {}
+
+    /**
+     * Writes a string, or null.
+     *
+     * @param value The string to write.
+     * @return this hasher.
+     */
+    public Hasher putString(String value) {
+      if (value == null) {
+        mix(NULL);
+        return this;
+      }
+      int length = value.length();
+      mix(STRING);
+      mix(length);
+      int i = 0;
+      for (; i + 4 <= length; i += 4) {
+        mix((long) value.charAt(i)
+            | (long) value.charAt(i + 1) << 16
+            | (long) value.charAt(i + 2) << 32
+            | (long) value.charAt(i + 3) << 48);
+      }
+      if (i < length) {
+        long word = 0;
+        for (int shift = 0; i < length; i++, shift += 16) {
+          word |= (long) value.charAt(i) << shift;
+        }
+        mix(word);
+      }
+      return this;
+    }
+
+    /**
+     * Writes a long.
+     *
+     * @param value The value to write.
+     * @return this hasher.
+     */
+    public Hasher putLong(long value) {
+      mix(LONG);
+      mix(value);
+      return this;
+    }
+
+    /**
+     * Writes a boolean.
+     *
+     * @param value The value to write.
+     * @return this hasher.
+     */
+    public Hasher putBoolean(boolean value) {
+      mix(BOOLEAN);
+      mix(value ? 1 : 0);
+      return this;
+    }
+
+    /**
+     * Writes the size of a collection, or null. The elements of an ordered collection are written
+     * after its size.
+     *
+     * @param collection The collection whose size to write, may be null.
+     * @return this hasher.
+     */
+    public Hasher putSize(Collection<?> collection) {
+      if (collection == null) {
+        mix(NULL);
+        return this;
+      }
+      mix(LIST);
+      mix(collection.size());
+      return this;
+    }
+
+    /**
+     * Writes a value as it is deserialized from JSON: a string, a number, a boolean, a list or a
+     * map of such values, or null. Integral numbers of any type are written as longs, or with all
+     * the bytes of a BigInteger that does not fit in a long; the other numbers are written as
+     * doubles, or with the scale and all the bytes of the unscaled value of a BigDecimal. A list
+     * is written in its order, and a map in any order of its entries. Any other value is written
+     * with the name of its class and its string form.
+     *
+     * @param value The value to write, may be null.
+     * @return this hasher.
+     */
+    public Hasher putValue(Object value) {
+      if (value == null) {
+        mix(NULL);
+      } else if (value instanceof String) {
+        putString((String) value);
+      } else if (value instanceof Integer
+          || value instanceof Long
+          || value instanceof Short
+          || value instanceof Byte) {
+        putLong(((Number) value).longValue());
+      } else if (value instanceof Double || value instanceof Float) {
+        mix(DOUBLE);
+        mix(Double.doubleToLongBits(((Number) value).doubleValue()));
+      } else if (value instanceof BigInteger) {
+        var integer = (BigInteger) value;
+        if (integer.bitLength() < 64) {
+          putLong(integer.longValue());
+        } else {
+          mix(BIG_INTEGER);
+          putBytes(integer.toByteArray());
+        }
+      } else if (value instanceof BigDecimal) {
+        var decimal = (BigDecimal) value;
+        mix(DECIMAL);
+        mix(decimal.scale());
+        putBytes(decimal.unscaledValue().toByteArray());
+      } else if (value instanceof Boolean) {
+        putBoolean((Boolean) value);
+      } else if (value instanceof List) {
+        var list = (List<?>) value;
+        putSize(list);
+        for (var item : list) {
+          putValue(item);
+        }
+      } else if (value instanceof Map) {
+        mix(MAP);
+        putUnordered(((Map<?, ?>) value).entrySet(), (hasher, entry) -> {
+          hasher.putValue(entry.getKey());
+          hasher.putValue(entry.getValue());
+        });
+      } else {
+        mix(OTHER);
+        putString(value.getClass().getName());
+        putString(value.toString());
+      }
+      return this;
+    }
+
+    /**
+     * Writes the elements of a collection in any order. Each element is written to a hasher of its
+     * own by the given function, and the fingerprints of the elements are summed, so the same
+     * elements in a different order give the same result.
+     *
+     * @param collection The collection to write, may be null.
+     * @param writer Writes an element to the given hasher.
+     * @param <T> the type of the elements.
+     * @return this hasher.
+     */
+    public <T> Hasher putUnordered(
+        Collection<T> collection, BiConsumer<Hasher, ? super T> writer) {
+      if (collection == null) {
+        mix(NULL);
+        return this;
+      }
+      if (element == null) {
+        element = new Hasher();
+      }
+      long sumHigh = 0;
+      long sumLow = 0;
+      for (var item : collection) {
+        element.reset();
+        writer.accept(element, item);
+        element.finish();
+        sumHigh += element.h1;
+        sumLow += element.h2;
+      }
+      mix(UNORDERED);
+      mix(collection.size());
+      mix(sumHigh);
+      mix(sumLow);
+      return this;
+    }
+
+    /**
+     * Writes the names, value types and values of the given characteristics in any order.
+     *
+     * @param characteristics The characteristics to write, may be null.
+     * @return this hasher.
+     */
+    public Hasher putCharacteristics(Collection<Characteristic> characteristics) {
+      return putUnordered(characteristics, (hasher, characteristic) -> hasher
+          .putString(characteristic.getName())
+          .putString(characteristic.getValueType())
+          .putValue(characteristic.getValue()));
+    }
+
+    /**
+     * Writes the ids, hrefs, names, roles and referred types of the given related parties in any
+     * order.
+     *
+     * @param relatedParties The related parties to write, may be null.
+     * @return this hasher.
+     */
+    public Hasher putRelatedParties(Collection<RelatedParty> relatedParties) {
+      return putUnordered(relatedParties, (hasher, relatedParty) -> hasher
+          .putString(relatedParty.getId())
+          .putString(relatedParty.getHref())
+          .putString(relatedParty.getName())
+          .putString(relatedParty.getRole())
+          .putString(relatedParty.getAtReferredType()));
+    }
+
+    /**
+     * @return the fingerprint of the fields written so far. The hasher can be written to further,
+     *     to compute the fingerprint of a longer sequence of fields.
+     */
+    public OrderFingerprint fingerprint() {
+      long savedH1 = h1;
+      long savedH2 = h2;
+      finish();
+      var fingerprint = new OrderFingerprint(h1, h2);
+      h1 = savedH1;
+      h2 = savedH2;
+      return fingerprint;
+    }
+
+    /** Writes the length of the bytes, and the bytes eight at a time. */
+    private void putBytes(byte[] bytes) {
+      mix(bytes.length);
+      for (int i = 0; i < bytes.length; i += 8) {
+        long word = 0;
+        for (int j = i; j < Math.min(i + 8, bytes.length); j++) {
+          word = word << 8 | (bytes[j] & 0xffL);
+        }
+        mix(word);
+      }
+    }
+
+    private void reset() {
+      h1 = 0;
+      h2 = 0;
+      words = 0;
+    }
+
+    private void mix(long word) {
+      long k1 = Long.rotateLeft(word * C1, 31) * C2;
+      h1 ^= k1;
+      h1 = Long.rotateLeft(h1, 27) + h2;
+      h1 = h1 * 5 + 0x52dce729;
+      long k2 = Long.rotateLeft(word * C2, 33) * C1;
+      h2 ^= k2;
+      h2 = Long.rotateLeft(h2, 31) + h1;
+      h2 = h2 * 5 + 0x38495ab5;
+      words++;
+    }
+
+    private void finish() {
+      h1 ^= words;
+      h2 ^= words;
+      h1 += h2;
+      h2 += h1;
+      h1 = fmix(h1);
+      h2 = fmix(h2);
+      h1 += h2;
+      h2 += h1;
+    }
+
+    private static long fmix(long k) {
+      k ^= k >>> 33;
+      k *= 0xff51afd7ed558ccdL;
+      k ^= k >>> 33;
+      k *= 0xc4ceb9fe1a85ec53L;
+      k ^= k >>> 33;
+      return k;
+    }
+  }
+}
@@ -0,0 +1,579 @@
+package org.opentmf.v4.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * An immutable dependency graph of the items of an order, such as a product order or a service
+ * order. The graph is built once from the order items, and can be shared between threads.
+ *
+ * <p>Each item is a node identified by its position in the item list, and each item relationship
+ * is an edge from the item to the item it refers to. Like a lookup by id, a relationship resolves
+ * to the last item with the referred id; the order validations reject duplicate item ids before
+ * they check the relationships, see {@link #duplicateItem()}. The item ids are mapped to their
+ * positions with an open-addressing table, and the edges are stored in compressed sparse row
+ * form, as two int arrays.
+ *
+ * @param <T> The order item type.
+ */
+public final class OrderGraph<T> {
+
+  private final List<T> items;
+  private final String[] ids;
+  private final String[] idTable;
+  private final int[] indexTable;
+  private final int[] dependencyOffsets;
+  private final int[] dependencies;
+  private final int[] dependentOffsets;
+  private final int[] dependents;
+  private final int relationshipCount;
+  private final boolean independentItemExists;
+  private final boolean unreferencedItemExists;
+  private final int duplicateItem;
+  private final int danglingItem;
+  private final String danglingId;
+  private Layering layering;
+
+  private <R> OrderGraph(
+      List<T> items,
+      Function<T, String> itemId,
+      Function<T, ? extends Collection<R>> relationships,
+      Function<R, String> relatedItemId) {
+    this.items = items instanceof RandomAccess ? items : new ArrayList<>(items);
+    int size = this.items.size();
+    ids = new String[size];
+    idTable = new String[tableSize(size)];
+    indexTable = new int[idTable.length];
+    int total = 0;
+    int duplicate = -1;
+    for (int i = 0; i < size; i++) {
+      var item = this.items.get(i);
+      ids[i] = itemId.apply(item);
+      if (put(ids[i], i) && duplicate < 0) {
+        duplicate = i;
+      }
+      var relList = relationships.apply(item);
+      total += relList == null ? 0 : relList.size();
+    }
+    relationshipCount = total;
+    duplicateItem = duplicate;
+    dependencyOffsets = new int[size + 1];
+    dependencies = new int[total];
+    var referenceCounts = new int[size];
+    var selfReferenceCounts = new int[size];
+    boolean independent = false;
+    int dangling = -1;
+    String danglingRef = null;
+    int edge = 0;
+    for (int i = 0; i < size; i++) {
+      dependencyOffsets[i] = edge;
+      var relList = relationships.apply(this.items.get(i));
+      if (relList == null || relList.isEmpty()) {
+        independent = true;
+        continue;
+      }
+      for (R rel : relList) {
+        var refId = relatedItemId.apply(rel);
+        if (Objects.equals(refId, ids[i])) {
+          selfReferenceCounts[i]++;
+        }
+        int target = indexOf(refId);
+        if (target >= 0) {
+          referenceCounts[target]++;
+          dependencies[edge++] = target;
+        } else if (dangling < 0) {
+          dangling = i;
+          danglingRef = refId;
+        }
+      }
+    }
+    dependencyOffsets[size] = edge;
+    independentItemExists = independent;
+    danglingItem = dangling;
+    danglingId = danglingRef;
+    boolean unreferenced = false;
+    for (int i = 0; i < size && !unreferenced; i++) {
+      unreferenced = referenceCounts[indexOf(ids[i])] == selfReferenceCounts[i];
+    }
+    unreferencedItemExists = unreferenced;
+    dependentOffsets = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      dependentOffsets[i + 1] = dependentOffsets[i] + referenceCounts[i];
+    }
+    dependents = new int[edge];
+    for (int i = 0; i < size; i++) {
+      for (int e = dependencyOffsets[i]; e < dependencyOffsets[i + 1]; e++) {
+        int target = dependencies[e];
+        dependents[dependentOffsets[target + 1] - referenceCounts[target]--] = i;
+      }
+    }
+  }
+
+  /**
+   * Builds the dependency graph of the given order items.
+   *
+   * @param items The order items.
+   * @param itemId Extracts the id of an order item.
+   * @param relationships Extracts the relationships of an order item, which may be null.
+   * @param relatedItemId Extracts the id of the order item that a relationship refers to.
+   * @param <T> The order item type.
+   * @param <R> The order item relationship type.
+   * @return the dependency graph of the order items.
+   */
+  public static <T, R> OrderGraph<T> of(
+      List<T> items,
+      Function<T, String> itemId,
+      Function<T, ? extends Collection<R>> relationships,
+      Function<R, String> relatedItemId) {
+    return new OrderGraph<>(items, itemId, relationships, relatedItemId);
+  }
+
+  /**
+   * @return the number of items in the graph.
+   */
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * @return the number of item relationships, including the ones referring to non-existent items.
+   */
+  public int relationshipCount() {
+    return relationshipCount;
+  }
+
+  public T item(int index) {
+    return items.get(index);
+  }
+
+  public String id(int index) {
+    return ids[index];
+  }
+
+  /**
+   * Returns the position of the last item with the given id.
+   *
+   * @param id The item id.
+   * @return the position of the last item with the given id, or -1 if no such item exists.
+   */
+  public int indexOf(String id) {
+    int mask = idTable.length - 1;
+    for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+      if (indexTable[slot] == 0) {
+        return -1;
+      }
+      if (Objects.equals(idTable[slot], id)) {
+        return indexTable[slot] - 1;
+      }
+    }
+  }
+
+  /**
+   * @return true if at least one item has no relationships.
+   */
+  public boolean hasIndependentItem() {
+    return independentItemExists;
+  }
+
+  /**
+   * @return true if at least one item is not referred to by the other items.
+   */
+  public boolean hasUnreferencedItem() {
+    return unreferencedItemExists;
+  }
+
+  /**
+   * @return the position of the first item whose id is also the id of an earlier item, or -1.
+   */
+  public int duplicateItem() {
+    return duplicateItem;
+  }
+
+  /**
+   * @return the position of the first item that refers to a non-existent item, or -1.
+   */
+  public int danglingItem() {
+    return danglingItem;
+  }
+
+  /**
+   * @return the first referred id that does not belong to any item, or null.
+   */
+  public String danglingId() {
+    return danglingId;
+  }
+
+  /**
+   * Finds the strongly connected components of the graph using Tarjan's algorithm, and returns the
+   * first item that is part of a cycle. The graph is traversed with an explicit stack, in linear
+   * time with respect to the number of items and relationships.
+   *
+   * @return the position of the first item on a cycle, or -1 if the graph is acyclic.
+   */
+  public int firstCyclicItem() {
+    var tarjan = new Tarjan();
+    for (int i = 0; i < size(); i++) {
+      if (tarjan.order[i] == 0) {
+        tarjan.strongConnect(i);
+      }
+    }
+    for (int i = 0; i < size(); i++) {
+      if (tarjan.cyclic[i]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns all the items that the item with the given id depends on, directly or transitively,
+   * nearest first. The item itself is included only if it is part of a cycle.
+   *
+   * <p>The traversal visits only the reachable items, so repeated queries on a large order cost in
+   * proportion to their results, not to the size of the order.
+   *
+   * @param itemId The item id.
+   * @return the list of the transitive dependencies.
+   * @throws IllegalArgumentException If no item exists with the given id.
+   */
+  public List<T> dependenciesOf(String itemId) {
+    return reachable(requireIndexOf(itemId), dependencyOffsets, dependencies);
+  }
+
+  /**
+   * Returns all the items that depend on the item with the given id, directly or transitively,
+   * nearest first. These are the items to cancel or hold when the given item fails. The item itself
+   * is included only if it is part of a cycle.
+   *
+   * @param itemId The item id.
+   * @return the list of the transitive dependents.
+   * @throws IllegalArgumentException If no item exists with the given id.
+   */
+  public List<T> dependentsOf(String itemId) {
+    return reachable(requireIndexOf(itemId), dependentOffsets, dependents);
+  }
+
+  /**
+   * Partitions the items into independent groups, where no relationship connects the items of
+   * different groups. Each group holds its items in their order in the item list, together with
+   * all the relationships between them, so the groups can be validated and fulfilled in parallel
+   * without coordination. The groups are ordered by the position of their first item.
+   *
+   * <p>The groups are found with a union-find over the relationships, in near-linear time.
+   * Relationships referring to non-existent items do not connect any items.
+   *
+   * @return the unmodifiable list of the independent item groups.
+   */
+  public List<List<T>> components() {
+    int size = size();
+    var parent = new int[size];
+    var rank = new int[size];
+    for (int i = 0; i < size; i++) {
+      parent[i] = i;
+    }
+    for (int v = 0; v < size; v++) {
+      for (int e = dependencyOffsets[v]; e < dependencyOffsets[v + 1]; e++) {
+        union(parent, rank, v, dependencies[e]);
+      }
+    }
+    var groupOfRoot = new int[size];
+    Arrays.fill(groupOfRoot, -1);
+    var groupOf = new int[size];
+    var groupSizes = new int[size];
+    int groupCount = 0;
+    for (int i = 0; i < size; i++) {
+      int root = find(parent, i);
+      if (groupOfRoot[root] < 0) {
+        groupOfRoot[root] = groupCount++;
+      }
+      groupOf[i] = groupOfRoot[root];
+      groupSizes[groupOf[i]]++;
+    }
+    var groups = new ArrayList<List<T>>(groupCount);
+    for (int g = 0; g < groupCount; g++) {
+      groups.add(new ArrayList<>(groupSizes[g]));
+    }
+    for (int i = 0; i < size; i++) {
+      groups.get(groupOf[i]).add(items.get(i));
+    }
+    groups.replaceAll(Collections::unmodifiableList);
+    return Collections.unmodifiableList(groups);
+  }
+
+  int requireIndexOf(String itemId) {
+    int index = indexOf(itemId);
+    if (index < 0) {
+      throw new IllegalArgumentException("Item " + itemId + " not found in the order.");
+    }
+    return index;
+  }
+
+  /**
+   * @return the item positions in topological order, dependencies first. Must not be modified.
+   */
+  int[] topologicalOrder() {
+    return layering().sorted;
+  }
+
+  int dependencyOffset(int index) {
+    return dependencyOffsets[index];
+  }
+
+  int dependencyAt(int offset) {
+    return dependencies[offset];
+  }
+
+  int dependencyCount(int index) {
+    return dependencyOffsets[index + 1] - dependencyOffsets[index];
+  }
+
+  int dependentOffset(int index) {
+    return dependentOffsets[index];
+  }
+
+  int dependentAt(int offset) {
+    return dependents[offset];
+  }
+
+  /**
+   * @return true if no item depends on itself, directly or transitively.
+   */
+  public boolean isAcyclic() {
+    return layering().sortedCount == size();
+  }
+
+  /**
+   * Groups the items into fulfillment waves. The first wave holds the items without dependencies,
+   * and each following wave holds the items whose dependencies are all in the previous waves, so
+   * that the items of a wave can be fulfilled concurrently once the previous waves complete. The
+   * items of a wave keep their order in the item list.
+   *
+   * <p>The waves are computed once per graph with Kahn's algorithm, in linear time with respect to
+   * the number of items and relationships, and the same computation backs {@link #isAcyclic()}.
+   *
+   * @return the unmodifiable list of the waves.
+   * @throws IllegalStateException If the graph has a cycle.
+   */
+  public List<List<T>> waves() {
+    var l = layering();
+    if (l.sortedCount != size()) {
+      throw new IllegalStateException("Order items with cyclic dependencies cannot be planned.");
+    }
+    var waves = new ArrayList<List<T>>(l.waveOffsets.length - 1);
+    for (int w = 0; w + 1 < l.waveOffsets.length; w++) {
+      var wave = new ArrayList<T>(l.waveOffsets[w + 1] - l.waveOffsets[w]);
+      for (int k = l.waveOffsets[w]; k < l.waveOffsets[w + 1]; k++) {
+        wave.add(items.get(l.sorted[k]));
+      }
+      waves.add(Collections.unmodifiableList(wave));
+    }
+    return Collections.unmodifiableList(waves);
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  private static void union(int[] parent, int[] rank, int a, int b) {
+    int rootA = find(parent, a);
+    int rootB = find(parent, b);
+    if (rootA == rootB) {
+      return;
+    }
+    if (rank[rootA] < rank[rootB]) {
+      parent[rootA] = rootB;
+    } else {
+      parent[rootB] = rootA;
+      if (rank[rootA] == rank[rootB]) {
+        rank[rootA]++;
+      }
+    }
+  }
+
+  private List<T> reachable(int start, int[] offsets, int[] targets) {
+    var visited = new long[(size() + 63) >>> 6];
+    var queue = new int[16];
+    queue[0] = start;
+    int tail = 1;
+    var result = new ArrayList<T>();
+    for (int head = 0; head < tail; head++) {
+      int v = queue[head];
+      for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+        int w = targets[e];
+        if ((visited[w >>> 6] & (1L << w)) == 0) {
+          visited[w >>> 6] |= 1L << w;
+          result.add(items.get(w));
+          if (tail == queue.length) {
+            queue = Arrays.copyOf(queue, tail * 2);
+          }
+          queue[tail++] = w;
+        }
+      }
+    }
+    return result;
+  }
+
+  private Layering layering() {
+    var l = layering;
+    if (l == null) {
+      l = new Layering();
+      layering = l;
+    }
+    return l;
+  }
+
+  /** Maps the id to the position, and returns true if the id was mapped to another position. */
+  private boolean put(String id, int index) {
+    int mask = idTable.length - 1;
+    int slot = hash(id) & mask;
+    while (indexTable[slot] != 0 && !Objects.equals(idTable[slot], id)) {
+      slot = (slot + 1) & mask;
+    }
+    boolean duplicate = indexTable[slot] != 0;
+    idTable[slot] = id;
+    indexTable[slot] = index + 1;
+    return duplicate;
+  }
+
+  private static int hash(String id) {
+    int h = Objects.hashCode(id);
+    return h ^ (h >>> 16);
+  }
+
+  private static int tableSize(int size) {
+    return Integer.highestOneBit(Math.max(4, size) * 2 - 1) << 1;
+  }
+
+  private final class Tarjan {
+
+    private final int[] order = new int[size()];
+    private final int[] lowLink = new int[size()];
+    private final boolean[] onStack = new boolean[size()];
+    private final boolean[] cyclic = new boolean[size()];
+    private final int[] stack = new int[size()];
+    private final int[] callStack = new int[size()];
+    private final int[] nextRelation = new int[size()];
+    private int stackSize;
+    private int counter;
+
+    /**
+     * Visits all the items reachable from the root item. The recursion of the classic algorithm is
+     * replaced with an explicit call stack, where the position of the next relationship to follow
+     * is kept per item.
+     */
+    private void strongConnect(int root) {
+      visit(root);
+      callStack[0] = root;
+      int depth = 1;
+      while (depth > 0) {
+        int v = callStack[depth - 1];
+        if (nextRelation[v] < dependencyOffsets[v + 1]) {
+          int w = dependencies[nextRelation[v]++];
+          if (w == v) {
+            cyclic[v] = true;
+          } else if (order[w] == 0) {
+            visit(w);
+            callStack[depth++] = w;
+          } else if (onStack[w]) {
+            lowLink[v] = Math.min(lowLink[v], order[w]);
+          }
+          continue;
+        }
+        depth--;
+        if (depth > 0) {
+          int parent = callStack[depth - 1];
+          lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+        }
+        if (lowLink[v] == order[v]) {
+          popComponent(v);
+        }
+      }
+    }
+
+    private void visit(int v) {
+      order[v] = lowLink[v] = ++counter;
+      nextRelation[v] = dependencyOffsets[v];
+      stack[stackSize++] = v;
+      onStack[v] = true;
+    }
+
+    private void popComponent(int root) {
+      int w;
+      int componentSize = 0;
+      do {
+        w = stack[--stackSize];
+        onStack[w] = false;
+        componentSize++;
+      } while (w != root);
+      if (componentSize > 1) {
+        for (int i = stackSize; i < stackSize + componentSize; i++) {
+          cyclic[stack[i]] = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * The result of Kahn's algorithm: the wave of each item, and the items sorted by wave and then
+   * by position. Items on or behind a cycle are never released, so they are left out. Instances
+   * are immutable, therefore they can be published to other threads through a plain field.
+   */
+  private final class Layering {
+
+    private final int[] sorted;
+    private final int[] waveOffsets;
+    private final int sortedCount;
+
+    private Layering() {
+      int size = size();
+      var remaining = new int[size];
+      var wave = new int[size];
+      var queue = new int[size];
+      int tail = 0;
+      for (int i = 0; i < size; i++) {
+        remaining[i] = dependencyOffsets[i + 1] - dependencyOffsets[i];
+        if (remaining[i] == 0) {
+          queue[tail++] = i;
+        }
+      }
+      int waveCount = tail > 0 ? 1 : 0;
+      for (int head = 0; head < tail; head++) {
+        int v = queue[head];
+        for (int e = dependentOffsets[v]; e < dependentOffsets[v + 1]; e++) {
+          int u = dependents[e];
+          if (--remaining[u] == 0) {
+            wave[u] = wave[v] + 1;
+            waveCount = Math.max(waveCount, wave[u] + 1);
+            queue[tail++] = u;
+          }
+        }
+      }
+      sortedCount = tail;
+      waveOffsets = new int[waveCount + 1];
+      for (int k = 0; k < tail; k++) {
+        waveOffsets[wave[queue[k]] + 1]++;
+      }
+      for (int w = 0; w < waveCount; w++) {
+        waveOffsets[w + 1] += waveOffsets[w];
+      }
+      var next = new int[waveCount];
+      System.arraycopy(waveOffsets, 0, next, 0, waveCount);
+      sorted = new int[tail];
+      for (int i = 0; i < size; i++) {
+        if (remaining[i] == 0) {
+          sorted[next[wave[i]]++] = i;
+        }
+      }
+    }
+  }
+}
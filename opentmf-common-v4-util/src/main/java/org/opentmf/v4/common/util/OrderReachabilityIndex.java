@@ -0,0 +1,93 @@
+package org.opentmf.v4.common.util;
+
+/**
+ * The transitive closure of an order graph, answering whether an order item depends on another
+ * one, directly or transitively, in constant time.
+ *
+ * <p>The index holds a packed bitset per item, where the bits mark the transitive dependencies of
+ * the item. It is built in a single pass over the items in topological order, by merging the
+ * bitsets of the direct dependencies of each item. Building takes O(E * n / 64) time for n items
+ * and E relationships, and the index takes n * n / 8 bytes; about 1.2 MB for an order with 3000
+ * items, and 30 MB for an order with 15000 items. Prefer {@link OrderGraph#dependenciesOf(String)}
+ * for occasional queries on very large orders.
+ *
+ * <p>The index is immutable, therefore it can be shared between threads.
+ *
+ * @param <T> The order item type.
+ */
+public final class OrderReachabilityIndex<T> {
+
+  private final OrderGraph<T> graph;
+  private final int words;
+  private final long[] bits;
+
+  private OrderReachabilityIndex(OrderGraph<T> graph) {
+    this.graph = graph;
+    int size = graph.size();
+    words = (size + 63) >>> 6;
+    if ((long) size * words > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(
+          "Order with " + size + " items is too large for a reachability index.");
+    }
+    bits = new long[size * words];
+    for (int v : graph.topologicalOrder()) {
+      int row = v * words;
+      for (int e = graph.dependencyOffset(v); e < graph.dependencyOffset(v + 1); e++) {
+        int w = graph.dependencyAt(e);
+        int dependencyRow = w * words;
+        for (int k = 0; k < words; k++) {
+          bits[row + k] |= bits[dependencyRow + k];
+        }
+        bits[row + (w >>> 6)] |= 1L << w;
+      }
+    }
+  }
+
+  /**
+   * Builds the reachability index of the given order graph.
+   *
+   * @param graph The dependency graph of the order items.
+   * @param <T> The order item type.
+   * @return the reachability index of the order graph.
+   * @throws IllegalArgumentException If the graph has a cycle, or it has too many items.
+   */
+  public static <T> OrderReachabilityIndex<T> of(OrderGraph<T> graph) {
+    if (!graph.isAcyclic()) {
+      throw new IllegalArgumentException(
+          "There is a cyclic dependency on order Item " + graph.id(graph.firstCyclicItem()));
+    }
+    return new OrderReachabilityIndex<>(graph);
+  }
+
+  /**
+   * Returns true if the item with the given id depends on the other item, directly or
+   * transitively.
+   *
+   * @param itemId The id of the dependent item.
+   * @param dependencyId The id of the item that may be a dependency.
+   * @return true if the item depends on the other item.
+   * @throws IllegalArgumentException If no item exists with either id.
+   */
+  public boolean dependsOn(String itemId, String dependencyId) {
+    return dependsOn(graph.requireIndexOf(itemId), graph.requireIndexOf(dependencyId));
+  }
+
+  /**
+   * Returns true if the item at the given position depends on the item at the other position,
+   * directly or transitively.
+   *
+   * @param index The position of the dependent item.
+   * @param dependencyIndex The position of the item that may be a dependency.
+   * @return true if the item depends on the other item.
+   */
+  public boolean dependsOn(int index, int dependencyIndex) {
+    return (bits[index * words + (dependencyIndex >>> 6)] & (1L << dependencyIndex)) != 0;
+  }
+
+  /**
+   * @return the dependency graph that the index is built from.
+   */
+  public OrderGraph<T> graph() {
+    return graph;
+  }
+}
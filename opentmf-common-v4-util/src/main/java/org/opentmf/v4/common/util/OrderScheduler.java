@@ -0,0 +1,110 @@
+package org.opentmf.v4.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tracks the fulfillment progress of an order, and releases the order items whose dependencies
+ * are all completed. An item is ready when it has no dependencies or all of them are completed.
+ *
+ * <p>The scheduler keeps a counter of the uncompleted dependencies per item, so completing an
+ * item only visits its dependents. The counters are updated with atomic operations, therefore
+ * the scheduler can be used from concurrent completion callbacks without locking, and each item
+ * is released exactly once.
+ *
+ * @param <T> The order item type.
+ */
+public final class OrderScheduler<T> {
+
+  private static final int COMPLETED = -1;
+
+  private final OrderGraph<T> graph;
+  private final AtomicIntegerArray remaining;
+  private final AtomicInteger completedCount = new AtomicInteger();
+
+  /**
+   * Creates a scheduler for the given order graph, where no item is completed yet.
+   *
+   * @param graph The dependency graph of the order items.
+   * @throws IllegalArgumentException If the graph has a cycle, so some items would never be ready,
+   *     or two items have the same id, so the earlier of them could never be completed.
+   */
+  public OrderScheduler(OrderGraph<T> graph) {
+    if (!graph.isAcyclic()) {
+      throw new IllegalArgumentException(
+          "There is a cyclic dependency on order Item " + graph.id(graph.firstCyclicItem()));
+    }
+    if (graph.duplicateItem() >= 0) {
+      throw new IllegalArgumentException(
+          "Duplicate order item id " + graph.id(graph.duplicateItem()));
+    }
+    this.graph = graph;
+    remaining = new AtomicIntegerArray(graph.size());
+    for (int i = 0; i < graph.size(); i++) {
+      remaining.set(i, graph.dependencyCount(i));
+    }
+  }
+
+  /**
+   * @return the items that are ready but not completed yet, in their order in the item list.
+   */
+  public List<T> readyItems() {
+    var ready = new ArrayList<T>();
+    for (int i = 0; i < graph.size(); i++) {
+      if (remaining.get(i) == 0) {
+        ready.add(graph.item(i));
+      }
+    }
+    return ready;
+  }
+
+  /**
+   * Marks the item with the given id as completed, and returns its dependents that became ready
+   * with this completion. Completing an already completed item has no effect.
+   *
+   * @param itemId The id of the completed item.
+   * @return the items that became ready, or an empty list.
+   * @throws IllegalArgumentException If no item exists with the given id, or the item still has
+   *     uncompleted dependencies.
+   */
+  public List<T> markCompleted(String itemId) {
+    int index = graph.requireIndexOf(itemId);
+    if (!remaining.compareAndSet(index, 0, COMPLETED)) {
+      if (remaining.get(index) == COMPLETED) {
+        return Collections.emptyList();
+      }
+      throw new IllegalArgumentException("Item " + itemId + " has uncompleted dependencies.");
+    }
+    completedCount.incrementAndGet();
+    List<T> ready = null;
+    for (int e = graph.dependentOffset(index); e < graph.dependentOffset(index + 1); e++) {
+      int dependent = graph.dependentAt(e);
+      if (remaining.decrementAndGet(dependent) == 0) {
+        if (ready == null) {
+          ready = new ArrayList<>();
+        }
+        ready.add(graph.item(dependent));
+      }
+    }
+    return ready == null ? Collections.emptyList() : ready;
+  }
+
+  /**
+   * @param itemId The item id.
+   * @return true if the item with the given id is completed.
+   * @throws IllegalArgumentException If no item exists with the given id.
+   */
+  public boolean isCompleted(String itemId) {
+    return remaining.get(graph.requireIndexOf(itemId)) == COMPLETED;
+  }
+
+  /**
+   * @return true if all the items are completed.
+   */
+  public boolean isFinished() {
+    return completedCount.get() == graph.size();
+  }
+}
@@ -0,0 +1,137 @@
+package org.opentmf.v4.common.util;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of the results of an order validation, keyed by a fingerprint of the part of the
+ * order that the validation reads, so an order that is resubmitted, retried, or validated again at
+ * another layer is not analyzed again:
+ *
+ * <pre>{@code
+ * var cache = OrderValidationCache.of(
+ *     ProductOrderUtil::graphFingerprint,
+ *     order -> ProductOrderUtil.validateOrder(order, 1000),
+ *     10_000,
+ *     Duration.ofMinutes(10));
+ * cache.validate(order);
+ * }</pre>
+ *
+ * <p>Both outcomes are cached: a valid order, and the message of the IllegalArgumentException
+ * that the validation throws for an invalid one, which {@link #validate(Object)} throws again in a
+ * new IllegalArgumentException with the same message. The other exceptions are not cached. The
+ * fingerprint must cover everything that the validation reads, otherwise two orders with the same
+ * fingerprint could get each other's result.
+ *
+ * <p>The cache holds at most a given number of results, each for at most a given time, and
+ * concurrent misses of the same fingerprint validate once, as {@link BoundedCache} does. The cache
+ * is thread-safe, and it counts its hits and misses.
+ *
+ * @param <T> the type of the orders.
+ */
+public final class OrderValidationCache<T> {
+
+  /** The result of a valid order; the results of invalid orders hold their messages. */
+  private static final Result VALID = new Result(null);
+
+  private final Function<? super T, OrderFingerprint> fingerprint;
+  private final Consumer<? super T> validator;
+  private final BoundedCache<OrderFingerprint, Result> results;
+
+  private OrderValidationCache(
+      Function<? super T, OrderFingerprint> fingerprint,
+      Consumer<? super T> validator,
+      BoundedCache<OrderFingerprint, Result> results) {
+    this.fingerprint = Objects.requireNonNull(fingerprint, "fingerprint");
+    this.validator = Objects.requireNonNull(validator, "validator");
+    this.results = results;
+  }
+
+  /**
+   * @param fingerprint Computes the fingerprint of the part of an order that the validation reads.
+   * @param validator Validates an order, throwing an IllegalArgumentException if it is invalid.
+   * @param maximumSize The maximum number of results in the cache.
+   * @param timeToLive The time a result stays in the cache after the validation.
+   * @param <T> the type of the orders.
+   * @return a new cache.
+   * @throws IllegalArgumentException If the maximum size or the time to live is not positive.
+   */
+  public static <T> OrderValidationCache<T> of(
+      Function<? super T, OrderFingerprint> fingerprint,
+      Consumer<? super T> validator,
+      int maximumSize,
+      Duration timeToLive) {
+    return new OrderValidationCache<>(
+        fingerprint, validator, new BoundedCache<>(maximumSize, timeToLive));
+  }
+
+  static <T> OrderValidationCache<T> of(
+      Function<? super T, OrderFingerprint> fingerprint,
+      Consumer<? super T> validator,
+      int maximumSize,
+      Duration timeToLive,
+      LongSupplier ticker) {
+    return new OrderValidationCache<>(
+        fingerprint, validator, new BoundedCache<>(maximumSize, timeToLive, ticker));
+  }
+
+  /**
+   * Validates the order, or returns the cached result of an order with the same fingerprint.
+   *
+   * @param order The order to validate.
+   * @throws IllegalArgumentException If the order is invalid, with the message of the validation.
+   */
+  public void validate(T order) {
+    var result = results.get(fingerprint.apply(order), key -> validateNow(order));
+    if (result != VALID) {
+      throw new IllegalArgumentException(result.message);
+    }
+  }
+
+  /** Evicts all the results. */
+  public void invalidateAll() {
+    results.invalidateAll();
+  }
+
+  /**
+   * @return the number of cached results, including the expired ones not evicted yet.
+   */
+  public int size() {
+    return results.size();
+  }
+
+  /**
+   * @return the number of validations that found a cached result.
+   */
+  public long getHitCount() {
+    return results.getHitCount();
+  }
+
+  /**
+   * @return the number of validations that found no cached result.
+   */
+  public long getMissCount() {
+    return results.getMissCount();
+  }
+
+  private Result validateNow(T order) {
+    try {
+      validator.accept(order);
+      return VALID;
+    } catch (IllegalArgumentException e) {
+      return new Result(e.getMessage());
+    }
+  }
+
+  private static final class Result {
+
+    private final String message;
+
+    Result(String message) {
+      this.message = message;
+    }
+  }
+}
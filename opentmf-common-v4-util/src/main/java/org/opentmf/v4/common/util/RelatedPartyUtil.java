@@ -104,6 +104,24 @@ public class RelatedPartyUtil {
             + referredType + " and role = " + role + NOT_FOUND));
   }
 
+  /**
+   * Replaces the roles, referred types and types of the given related parties with their
+   * canonical instances in the pool, so the related parties of many cached objects share them.
+   *
+   * @param relatedParties The related parties to update in place, may be null.
+   * @param pool The pool of canonical strings.
+   */
+  public static void canonicalize(Collection<RelatedParty> relatedParties, StringPool pool) {
+    if (relatedParties == null) {
+      return;
+    }
+    for (RelatedParty relatedParty : relatedParties) {
+      relatedParty.setRole(pool.canonicalize(relatedParty.getRole()));
+      relatedParty.setAtReferredType(pool.canonicalize(relatedParty.getAtReferredType()));
+      relatedParty.setAtType(pool.canonicalize(relatedParty.getAtType()));
+    }
+  }
+
   public static RelatedParty findCustomerParty(Collection<RelatedParty> relatedParties) {
     return findRelatedPartyByReferredTypeAndRole(relatedParties, CUSTOMER_TYPE, CUSTOMER_ROLE);
   }
@@ -0,0 +1,75 @@
+package org.opentmf.v4.common.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded, thread-safe pool of canonical strings, which deduplicates the strings that repeat
+ * across many cached objects, such as characteristic names, related party roles and referred
+ * types. {@link #canonicalize(String)} returns the pooled instance of an equal string, so the
+ * copies can be replaced by it and collected.
+ *
+ * <p>Once the pool holds its maximum number of strings, it returns the strings that are not pooled
+ * as they are, so it never grows beyond its bound and a pooled string is never replaced. Unlike
+ * String#intern, the pool is collected with its owner. Comparisons of canonical strings are
+ * cheap, as String#equals and String#equalsIgnoreCase return on the identity check.
+ */
+public final class StringPool {
+
+  private final int maximumSize;
+  private final ConcurrentHashMap<String, String> strings;
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * @param maximumSize The maximum number of strings in the pool.
+   * @throws IllegalArgumentException If the maximum size is not positive.
+   */
+  public StringPool(int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+    }
+    this.maximumSize = maximumSize;
+    strings = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the canonical instance of the given string. The string is added to the pool if the
+   * pool holds no equal string and it is not full.
+   *
+   * @param value The string, may be null.
+   * @return the pooled string equal to the given one, or the given string if none is pooled.
+   */
+  public String canonicalize(String value) {
+    if (value == null) {
+      return null;
+    }
+    var canonical = strings.get(value);
+    if (canonical != null) {
+      return canonical;
+    }
+    if (size.incrementAndGet() > maximumSize) {
+      size.decrementAndGet();
+      return value;
+    }
+    canonical = strings.putIfAbsent(value, value);
+    if (canonical != null) {
+      size.decrementAndGet();
+      return canonical;
+    }
+    return value;
+  }
+
+  /**
+   * @return the number of strings in the pool.
+   */
+  public int size() {
+    return size.get();
+  }
+
+  /**
+   * @return the maximum number of strings in the pool.
+   */
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+}
@@ -0,0 +1,283 @@
+package org.opentmf.v4.common.util;
+
+import org.opentmf.v4.common.model.Characteristic;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A typed view of a characteristic, which converts its value to each type on the first access and
+ * keeps the result, so the later reads of the same type do not convert the value again. The values
+ * are converted with the same rules as the accessors of {@link CharacteristicUtil}, and a value
+ * that cannot be converted to a type is recorded as such, so it is not converted again either.
+ *
+ * <p>The view reads the value of the characteristic once, when it is created; it does not reflect
+ * later changes to the characteristic. The view can be shared between threads without locking:
+ * the converted values are immutable, so two threads that read a type at the same time may both
+ * convert the value, but they get equal results, and once a result is visible it is reused.
+ */
+public final class TypedCharacteristicView {
+
+  /** Marks a value that cannot be converted to the type of the field that holds it. */
+  private static final Object INVALID = new Object();
+
+  private final Characteristic characteristic;
+  private final Object value;
+  private final OffsetDateTimeParser parser;
+
+  // The converted values, or INVALID; null until the first access of the type.
+  private String stringValue;
+  private Object booleanValue;
+  private Object intValue;
+  private Object longValue;
+  private Object doubleValue;
+  private Object offsetDateTimeValue;
+
+  private TypedCharacteristicView(Characteristic characteristic, OffsetDateTimeParser parser) {
+    this.characteristic = characteristic;
+    this.value = characteristic.getValue();
+    this.parser = parser;
+  }
+
+  /**
+   * @param characteristic Existing characteristic.
+   * @return a view of the characteristic, whose local date-times are in the current default time
+   *     zone of the system.
+   * @throws NullPointerException If the characteristic is null.
+   */
+  public static TypedCharacteristicView of(Characteristic characteristic) {
+    return of(characteristic, ZoneId.systemDefault());
+  }
+
+  /**
+   * @param characteristic Existing characteristic.
+   * @param zone The time zone of the local date-times, and of the date-time value.
+   * @return a view of the characteristic.
+   * @throws NullPointerException If the characteristic or the zone is null.
+   */
+  public static TypedCharacteristicView of(Characteristic characteristic, ZoneId zone) {
+    Objects.requireNonNull(characteristic, "characteristic");
+    return new TypedCharacteristicView(characteristic, OffsetDateTimeParser.of(zone));
+  }
+
+  /**
+   * @return the characteristic of the view.
+   */
+  public Characteristic getCharacteristic() {
+    return characteristic;
+  }
+
+  /**
+   * @return the name of the characteristic.
+   */
+  public String getName() {
+    return characteristic.getName();
+  }
+
+  /**
+   * @return the value of the characteristic when the view was created, or null.
+   */
+  public Object getValue() {
+    return value;
+  }
+
+  /**
+   * @return the string value of the characteristic, or null if it has no value.
+   * @see CharacteristicUtil#getStringValue(Characteristic)
+   */
+  public String getStringValue() {
+    if (value == null) {
+      return null;
+    }
+    var converted = stringValue;
+    if (converted == null) {
+      converted = String.valueOf(value);
+      stringValue = converted;
+    }
+    return converted;
+  }
+
+  /**
+   * @return the boolean value of the characteristic, or null if it has no value or its value is
+   *     not a boolean.
+   * @see CharacteristicUtil#getBooleanValue(Characteristic)
+   */
+  public Boolean getBooleanValue() {
+    if (value == null) {
+      return null;
+    }
+    var converted = booleanValue;
+    if (converted == null) {
+      var result = CharacteristicUtil.toBoolean(value);
+      converted = result == null ? INVALID : result;
+      booleanValue = converted;
+    }
+    return converted == INVALID ? null : (Boolean) converted;
+  }
+
+  /**
+   * @param defaultValue The value to return if the characteristic has no value, or its value is not
+   *     a boolean.
+   * @return the boolean value of the characteristic, or the default value.
+   * @see CharacteristicUtil#getBooleanValue(Characteristic, boolean)
+   */
+  public boolean getBooleanValue(boolean defaultValue) {
+    var result = getBooleanValue();
+    return result == null ? defaultValue : result;
+  }
+
+  /**
+   * @return the integer value of the characteristic, null if it has no value, or 0 if its value is
+   *     not an int, as {@link CharacteristicUtil#getIntegerValue(Characteristic)} returns.
+   */
+  public Integer getIntegerValue() {
+    if (value == null) {
+      return null;
+    }
+    var converted = intValue();
+    // the memoized Integer itself, so that a read does not box the value again
+    return converted == INVALID ? Integer.valueOf(0) : (Integer) converted;
+  }
+
+  /**
+   * @param defaultValue The value to return if the characteristic has no value, or its value is not
+   *     an int.
+   * @return the int value of the characteristic, or the default value.
+   * @see CharacteristicUtil#getIntValue(Characteristic, int)
+   */
+  public int getIntValue(int defaultValue) {
+    if (value == null) {
+      return defaultValue;
+    }
+    var converted = intValue();
+    return converted == INVALID ? defaultValue : (Integer) converted;
+  }
+
+  /**
+   * @return the long value of the characteristic, null if it has no value, or 0 if its value is not
+   *     a long, as {@link CharacteristicUtil#getLongValue(Characteristic)} returns.
+   */
+  public Long getLongValue() {
+    if (value == null) {
+      return null;
+    }
+    var converted = longValue();
+    return converted == INVALID ? Long.valueOf(0L) : (Long) converted;
+  }
+
+  /**
+   * @param defaultValue The value to return if the characteristic has no value, or its value is not
+   *     a long.
+   * @return the long value of the characteristic, or the default value.
+   * @see CharacteristicUtil#getLongValue(Characteristic, long)
+   */
+  public long getLongValue(long defaultValue) {
+    if (value == null) {
+      return defaultValue;
+    }
+    var converted = longValue();
+    return converted == INVALID ? defaultValue : (Long) converted;
+  }
+
+  /**
+   * @param defaultValue The value to return if the characteristic has no value, or its value is not
+   *     a number.
+   * @return the double value of the characteristic, or the default value.
+   * @see CharacteristicUtil#getDoubleValue(Characteristic, double)
+   */
+  public double getDoubleValue(double defaultValue) {
+    if (value == null) {
+      return defaultValue;
+    }
+    var converted = doubleValue;
+    if (converted == null) {
+      if (value instanceof Number) {
+        converted = ((Number) value).doubleValue();
+      } else {
+        try {
+          converted = Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+          converted = INVALID;
+        }
+      }
+      doubleValue = converted;
+    }
+    return converted == INVALID ? defaultValue : (Double) converted;
+  }
+
+  /**
+   * Returns the date-time value of the characteristic. The string value is parsed on the first
+   * call only; when it cannot be parsed, the later calls throw the same error without parsing it
+   * again.
+   *
+   * @return the date-time value in the zone of the view, or null if the characteristic has no
+   *     value.
+   * @throws IllegalArgumentException If the value cannot be parsed using neither of the patterns of
+   *     {@link OffsetDateTimeParser}.
+   * @see CharacteristicUtil#getOffsetDateTimeValue(Characteristic, ZoneId)
+   */
+  public OffsetDateTime getOffsetDateTimeValue() {
+    if (value == null) {
+      return null;
+    }
+    var converted = offsetDateTime();
+    if (converted == INVALID) {
+      throw new IllegalArgumentException(
+          "Date string " + getStringValue() + " could not be parsed.");
+    }
+    return (OffsetDateTime) converted;
+  }
+
+  /**
+   * Returns the date-time value of the characteristic without throwing an exception when it is
+   * invalid.
+   *
+   * @return the date-time value in the zone of the view, or an empty Optional if the characteristic
+   *     has no value or its value cannot be parsed.
+   */
+  public Optional<OffsetDateTime> tryGetOffsetDateTimeValue() {
+    if (value == null) {
+      return Optional.empty();
+    }
+    var converted = offsetDateTime();
+    return converted == INVALID ? Optional.empty() : Optional.of((OffsetDateTime) converted);
+  }
+
+  /** Returns the memoized Integer of the non-null value, or INVALID. */
+  private Object intValue() {
+    var converted = intValue;
+    if (converted == null) {
+      try {
+        converted = CharacteristicUtil.toInt(value);
+      } catch (NumberFormatException e) {
+        converted = INVALID;
+      }
+      intValue = converted;
+    }
+    return converted;
+  }
+
+  /** Returns the memoized Long of the non-null value, or INVALID. */
+  private Object longValue() {
+    var converted = longValue;
+    if (converted == null) {
+      try {
+        converted = CharacteristicUtil.toLong(value);
+      } catch (NumberFormatException e) {
+        converted = INVALID;
+      }
+      longValue = converted;
+    }
+    return converted;
+  }
+
+  private Object offsetDateTime() {
+    var converted = offsetDateTimeValue;
+    if (converted == null) {
+      converted = parser.tryParse(getStringValue()).map(Object.class::cast).orElse(INVALID);
+      offsetDateTimeValue = converted;
+    }
+    return converted;
+  }
+}
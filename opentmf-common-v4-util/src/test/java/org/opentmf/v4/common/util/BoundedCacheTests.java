@@ -0,0 +1,216 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTests {
+
+  private final AtomicLong now = new AtomicLong();
+
+  @Test
+  void getLoadsOnMissAndCachesTheValue() {
+    var cache = new BoundedCache<String, String>(10, Duration.ofMinutes(1), now::get);
+    var loads = new AtomicInteger();
+
+    assertEquals("A", cache.get("a", k -> k.toUpperCase() + "".repeat(loads.incrementAndGet())));
+    assertEquals("A", cache.get("a", k -> "other"));
+    assertEquals(1, loads.get());
+    assertEquals("A", cache.getIfPresent("a"));
+    assertNull(cache.getIfPresent("b"));
+  }
+
+  @Test
+  void lookupsAreCountedAsHitsAndMisses() {
+    var cache = new BoundedCache<String, String>(10, Duration.ofMinutes(1), now::get);
+
+    cache.get("a", k -> "A");
+    cache.get("a", k -> "other");
+    cache.getIfPresent("a");
+    cache.getIfPresent("b");
+
+    assertEquals(2, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  void leastRecentlyUsedEntryIsEvictedWhenFull() {
+    var cache = new BoundedCache<String, Integer>(2, Duration.ofMinutes(1), now::get);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.getIfPresent("a");
+    cache.put("c", 3);
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getIfPresent("a"));
+    assertNull(cache.getIfPresent("b"));
+    assertEquals(3, cache.getIfPresent("c"));
+  }
+
+  @Test
+  void evictionRemovesTheLeastRecentlyUsedEntriesAtOnce() {
+    var cache = new BoundedCache<Integer, Integer>(32, Duration.ofMinutes(1), now::get);
+    for (int i = 0; i < 32; i++) {
+      cache.put(i, i);
+    }
+    for (int i = 0; i < 16; i++) {
+      cache.getIfPresent(i);
+    }
+    cache.put(32, 32);
+
+    assertEquals(30, cache.size());
+    for (int i = 0; i < 16; i++) {
+      assertEquals(i, cache.getIfPresent(i));
+    }
+    for (int i = 16; i < 19; i++) {
+      assertNull(cache.getIfPresent(i));
+    }
+    assertEquals(32, cache.getIfPresent(32));
+  }
+
+  @Test
+  void expiredEntryIsLoadedAgain() {
+    var cache = new BoundedCache<String, Integer>(10, Duration.ofNanos(100), now::get);
+    var loads = new AtomicInteger();
+
+    assertEquals(1, cache.get("a", k -> loads.incrementAndGet()));
+    now.addAndGet(99);
+    assertEquals(1, cache.get("a", k -> loads.incrementAndGet()));
+    now.addAndGet(1);
+    assertNull(cache.getIfPresent("a"));
+    assertEquals(2, cache.get("a", k -> loads.incrementAndGet()));
+  }
+
+  @Test
+  void nullValueAndFailedLoadAreNotCached() {
+    var cache = new BoundedCache<String, Integer>(10, Duration.ofMinutes(1), now::get);
+
+    assertNull(cache.get("a", k -> null));
+    assertEquals(0, cache.size());
+    var failure = new IllegalStateException("failed");
+    assertSame(failure, assertThrows(IllegalStateException.class, () -> cache.get("a", k -> {
+      throw failure;
+    })));
+    assertEquals(1, cache.get("a", k -> 1));
+  }
+
+  @Test
+  void invalidateEvictsEntries() {
+    var cache = new BoundedCache<String, Integer>(10, Duration.ofMinutes(1));
+    cache.put("a", 1);
+    cache.put("b", 2);
+
+    cache.invalidate("a");
+    assertNull(cache.getIfPresent("a"));
+    assertEquals(1, cache.size());
+    cache.invalidateAll();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void concurrentMissesLoadOnce() throws Exception {
+    var cache = new BoundedCache<String, Integer>(10, Duration.ofMinutes(1));
+    var loads = new AtomicInteger();
+    var loading = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      var first =
+          executor.submit(
+              () ->
+                  cache.get(
+                      "a",
+                      k -> {
+                        loading.countDown();
+                        await(release);
+                        return loads.incrementAndGet();
+                      }));
+      loading.await();
+      var waiting = new ArrayList<Future<Integer>>();
+      for (int i = 0; i < 3; i++) {
+        waiting.add(executor.submit(() -> cache.get("a", k -> loads.incrementAndGet())));
+      }
+      release.countDown();
+
+      assertEquals(1, first.get(5, TimeUnit.SECONDS));
+      for (var future : waiting) {
+        assertEquals(1, future.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(1, loads.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void checkedFailureReleasesWaitersAndIsNotCached() throws Exception {
+    var cache = new BoundedCache<String, Integer>(10, Duration.ofMinutes(1));
+    var failure = new Exception("checked");
+    var loading = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      var first =
+          executor.submit(
+              () ->
+                  cache.get(
+                      "a",
+                      k -> {
+                        loading.countDown();
+                        await(release);
+                        return BoundedCacheTests.<Integer, RuntimeException>sneakyThrow(failure);
+                      }));
+      loading.await();
+      var waiting = executor.submit(() -> cache.get("a", k -> 2));
+      while (cache.getMissCount() < 2) {
+        Thread.onSpinWait();
+      }
+      release.countDown();
+
+      assertSame(
+          failure,
+          assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS)).getCause());
+      var waiterFailure =
+          assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+      assertSame(failure, waiterFailure.getCause().getCause());
+      assertEquals(1, executor.submit(() -> cache.get("a", k -> 1)).get(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void invalidArgumentsAreRejected() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new BoundedCache<>(0, Duration.ofMinutes(1)));
+    assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(1, Duration.ZERO));
+    assertEquals(0, new BoundedCache<>(1, Duration.ofSeconds(Long.MAX_VALUE)).size());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T, E extends Throwable> T sneakyThrow(Throwable e) throws E {
+    throw (E) e;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
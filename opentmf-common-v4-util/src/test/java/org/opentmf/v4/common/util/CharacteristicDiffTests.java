@@ -0,0 +1,226 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.opentmf.v4.common.model.Characteristic;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CharacteristicDiffTests {
+
+  @Test
+  void reordersAreNotDifferences() {
+    var diff = CharacteristicDiff.of(
+        List.of(
+            Characteristic.of("a", 1), Characteristic.of("b", "x"), Characteristic.of("c", true)),
+        List.of(
+            Characteristic.of("c", true), Characteristic.of("a", 1), Characteristic.of("b", "x")));
+
+    assertTrue(diff.isEmpty());
+  }
+
+  @Test
+  void detectsAddedRemovedAndChanged() {
+    var oldA = Characteristic.of("a", 1);
+    var oldB = Characteristic.of("b", "x");
+    var newB = Characteristic.of("b", "y");
+    var newC = Characteristic.of("c", Map.of("k", "v"));
+
+    var diff = CharacteristicDiff.of(
+        List.of(oldA, oldB, Characteristic.of("d", 4)),
+        List.of(newC, newB, Characteristic.of("d", 4)));
+
+    assertEquals(List.of(newC), diff.getAdded());
+    assertEquals(List.of(oldA), diff.getRemoved());
+    assertEquals(1, diff.getChanged().size());
+    var change = diff.getChanged().get(0);
+    assertEquals("b", change.getName());
+    assertSame(oldB, change.getOldCharacteristic());
+    assertSame(newB, change.getNewCharacteristic());
+    assertFalse(diff.isEmpty());
+  }
+
+  @Test
+  void valueTypeChangeIsAChange() {
+    var oldA = Characteristic.of("a", "1");
+    oldA.setValueType("string");
+    var newA = Characteristic.of("a", "1");
+    newA.setValueType("integer");
+
+    var diff = CharacteristicDiff.of(List.of(oldA), List.of(newA));
+
+    assertEquals(1, diff.getChanged().size());
+    assertTrue(diff.getAdded().isEmpty());
+    assertTrue(diff.getRemoved().isEmpty());
+  }
+
+  @Test
+  void numbersAreComparedByValue() {
+    var diff = CharacteristicDiff.of(
+        List.of(
+            Characteristic.of("int", 10),
+            Characteristic.of("decimal", new BigDecimal("1.0")),
+            Characteristic.of("double", 2.5),
+            Characteristic.of("big", new BigInteger("100")),
+            Characteristic.of("float", 0.1f)),
+        List.of(
+            Characteristic.of("int", 10L),
+            Characteristic.of("decimal", new BigDecimal("1.00")),
+            Characteristic.of("double", new BigDecimal("2.50")),
+            Characteristic.of("big", new BigDecimal("1E+2")),
+            Characteristic.of("float", 0.1)));
+
+    assertTrue(diff.isEmpty());
+    assertEquals(
+        1,
+        CharacteristicDiff.of(
+                List.of(Characteristic.of("a", new BigDecimal("1.0"))),
+                List.of(Characteristic.of("a", new BigDecimal("1.01"))))
+            .getChanged()
+            .size());
+    assertEquals(
+        1,
+        CharacteristicDiff.of(
+                List.of(Characteristic.of("a", 10)), List.of(Characteristic.of("a", "10")))
+            .getChanged()
+            .size());
+  }
+
+  @Test
+  void largeIntegralNumbersAreComparedByValue() {
+    for (long number : new long[] {Long.MAX_VALUE, Long.MIN_VALUE, 1_000_000_000_000_000_000L}) {
+      var olds = List.of(Characteristic.of("a", number));
+      assertTrue(
+          CharacteristicDiff.of(olds, List.of(Characteristic.of("a", BigInteger.valueOf(number))))
+              .isEmpty());
+      assertTrue(
+          CharacteristicDiff.of(olds, List.of(Characteristic.of("a", BigDecimal.valueOf(number))))
+              .isEmpty());
+    }
+    assertTrue(
+        CharacteristicDiff.of(
+                List.of(Characteristic.of("a", 1_000_000_000_000_000_000L)),
+                List.of(Characteristic.of("a", 1e18)))
+            .isEmpty());
+    var beyondLong = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+    assertTrue(
+        CharacteristicDiff.of(
+                List.of(Characteristic.of("a", beyondLong)),
+                List.of(Characteristic.of("a", new BigDecimal(beyondLong))))
+            .isEmpty());
+    assertEquals(
+        1,
+        CharacteristicDiff.of(
+                List.of(Characteristic.of("a", Long.MAX_VALUE)),
+                List.of(Characteristic.of("a", beyondLong)))
+            .getChanged()
+            .size());
+  }
+
+  @Test
+  void duplicateNamesAreMatchedByValueFirst() {
+    var oldA1 = Characteristic.of("a", 1);
+    var oldA2 = Characteristic.of("a", 2);
+    var oldA3 = Characteristic.of("a", 3);
+    var newA3 = Characteristic.of("a", 3);
+    var newA4 = Characteristic.of("a", 4);
+
+    var diff = CharacteristicDiff.of(List.of(oldA1, oldA2, oldA3), List.of(newA4, newA3));
+
+    assertEquals(1, diff.getChanged().size());
+    assertSame(oldA1, diff.getChanged().get(0).getOldCharacteristic());
+    assertSame(newA4, diff.getChanged().get(0).getNewCharacteristic());
+    assertEquals(List.of(oldA2), diff.getRemoved());
+    assertTrue(diff.getAdded().isEmpty());
+  }
+
+  @Test
+  void extraDuplicatesAreAdded() {
+    var newA2 = Characteristic.of("a", 2);
+    var newA3 = Characteristic.of("a", 3);
+
+    var diff = CharacteristicDiff.of(
+        List.of(Characteristic.of("a", 1)),
+        List.of(Characteristic.of("a", 1), newA2, newA3));
+
+    assertEquals(List.of(newA2, newA3), diff.getAdded());
+    assertTrue(diff.getChanged().isEmpty());
+    assertTrue(diff.getRemoved().isEmpty());
+  }
+
+  @Test
+  void nullListsAndNamesAreHandled() {
+    var nullName = Characteristic.of(null, 1);
+
+    assertTrue(CharacteristicDiff.of(null, null).isEmpty());
+    assertEquals(List.of(nullName), CharacteristicDiff.of(null, List.of(nullName)).getAdded());
+    assertEquals(List.of(nullName), CharacteristicDiff.of(List.of(nullName), null).getRemoved());
+    assertTrue(
+        CharacteristicDiff.of(List.of(nullName), List.of(Characteristic.of(null, 1))).isEmpty());
+  }
+
+  @Test
+  void streamingDiffReportsNewNamesImmediately() {
+    var events = new ArrayList<String>();
+    var listener = new CharacteristicDiff.Listener() {
+      @Override
+      public void added(Characteristic characteristic) {
+        events.add("added " + characteristic.getName());
+      }
+
+      @Override
+      public void removed(Characteristic characteristic) {
+        events.add("removed " + characteristic.getName());
+      }
+
+      @Override
+      public void changed(Characteristic oldCharacteristic, Characteristic newCharacteristic) {
+        events.add("changed " + newCharacteristic.getName());
+      }
+    };
+    var news = List.of(Characteristic.of("c", 1), Characteristic.of("b", 2)).iterator();
+
+    CharacteristicDiff.diff(
+        List.of(Characteristic.of("a", 1), Characteristic.of("b", 1)),
+        new Iterator<Characteristic>() {
+          @Override
+          public boolean hasNext() {
+            return news.hasNext();
+          }
+
+          @Override
+          public Characteristic next() {
+            var next = news.next();
+            events.add("read " + next.getName());
+            return next;
+          }
+        },
+        listener);
+
+    assertEquals(List.of("read c", "added c", "read b", "removed a", "changed b"), events);
+  }
+
+  @Test
+  void largeListsAreCompared() {
+    var olds = new ArrayList<Characteristic>();
+    var news = new ArrayList<Characteristic>();
+    for (int i = 0; i < 100_000; i++) {
+      olds.add(Characteristic.of("c" + i, i));
+      news.add(Characteristic.of("c" + (99_999 - i), i % 10 == 0 ? -1 : 99_999 - i));
+    }
+
+    var diff = CharacteristicDiff.of(olds, news);
+
+    assertEquals(10_000, diff.getChanged().size());
+    assertTrue(diff.getAdded().isEmpty());
+    assertTrue(diff.getRemoved().isEmpty());
+  }
+}
@@ -0,0 +1,117 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.opentmf.v4.common.model.Characteristic;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class CharacteristicIndexTests {
+
+  private static final List<Characteristic> CHARACTERISTIC_LIST = List.of(
+      Characteristic.of("key1", "value1"),
+      Characteristic.of("key2", "value2"),
+      Characteristic.of("key3", true),
+      Characteristic.of("key4", 1),
+      Characteristic.of("key5", Long.MAX_VALUE),
+      Characteristic.of("dateStr", "2023-02-16"),
+      Characteristic.of("nullValue", null),
+      Characteristic.of("key1", "duplicate")
+  );
+
+  private static final CharacteristicIndex INDEX = CharacteristicIndex.of(CHARACTERISTIC_LIST);
+
+  @Test
+  void optionalAccessorsMatchCharacteristicUtil() {
+    for (var name : List.of("key1", "key2", "key3", "key4", "key5", "nullValue", "missing")) {
+      assertEquals(
+          CharacteristicUtil.getOptionalCharacteristicValue(name, CHARACTERISTIC_LIST),
+          INDEX.getOptionalCharacteristicValue(name));
+      assertEquals(
+          CharacteristicUtil.getOptionalCharacteristicStringValue(name, CHARACTERISTIC_LIST),
+          INDEX.getOptionalCharacteristicStringValue(name));
+      assertEquals(
+          CharacteristicUtil.getOptionalCharacteristicBooleanValue(name, CHARACTERISTIC_LIST),
+          INDEX.getOptionalCharacteristicBooleanValue(name));
+      assertEquals(
+          CharacteristicUtil.getOptionalCharacteristicIntegerValue(name, CHARACTERISTIC_LIST),
+          INDEX.getOptionalCharacteristicIntegerValue(name));
+      assertEquals(
+          CharacteristicUtil.getOptionalCharacteristicLongValue(name, CHARACTERISTIC_LIST),
+          INDEX.getOptionalCharacteristicLongValue(name));
+    }
+    assertEquals(
+        CharacteristicUtil.getOptionalCharacteristicOffsetDateTimeValue(
+            "dateStr", CHARACTERISTIC_LIST),
+        INDEX.getOptionalCharacteristicOffsetDateTimeValue("dateStr"));
+    assertNull(INDEX.getOptionalCharacteristicOffsetDateTimeValue("missing"));
+  }
+
+  @Test
+  void mandatoryAccessorsMatchCharacteristicUtil() {
+    assertSame(CHARACTERISTIC_LIST.get(0), INDEX.getMandatoryCharacteristic("key1"));
+    assertEquals("value1", INDEX.getMandatoryCharacteristicValue("key1"));
+    assertEquals("value2", INDEX.getMandatoryCharacteristicStringValue("key2"));
+    assertEquals(true, INDEX.getMandatoryCharacteristicBooleanValue("key3"));
+    assertEquals(1, INDEX.getMandatoryCharacteristicIntegerValue("key4"));
+    assertEquals(Long.MAX_VALUE, INDEX.getMandatoryCharacteristicLongValue("key5"));
+    assertEquals(
+        CharacteristicUtil.getMandatoryCharacteristicOffsetDateTimeValue(
+            "dateStr", CHARACTERISTIC_LIST),
+        INDEX.getMandatoryCharacteristicOffsetDateTimeValue("dateStr"));
+    assertNull(INDEX.getMandatoryCharacteristicStringValue("nullValue"));
+  }
+
+  @Test
+  void mandatoryAccessorsThrowExceptionWhenCharacteristicDoesNotExist() {
+    var e = assertThrows(
+        IllegalArgumentException.class, () -> INDEX.getMandatoryCharacteristicValue("missing"));
+    assertEquals(
+        "Mandatory characteristic missing not found in the characteristic list", e.getMessage());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> INDEX.getMandatoryCharacteristicIntegerValue("missing"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> INDEX.getMandatoryCharacteristicOffsetDateTimeValue("missing"));
+  }
+
+  @Test
+  void findCharacteristicByNameReturnsFirstMatch() {
+    assertEquals(
+        CharacteristicUtil.findCharacteristicByName("key1", CHARACTERISTIC_LIST),
+        INDEX.findCharacteristicByName("key1"));
+    assertSame(CHARACTERISTIC_LIST.get(0), INDEX.findCharacteristicByName("key1").orElseThrow());
+    assertEquals(Optional.empty(), INDEX.findCharacteristicByName("missing"));
+    assertTrue(INDEX.containsCharacteristic("nullValue"));
+    assertFalse(INDEX.containsCharacteristic("missing"));
+    assertEquals(7, INDEX.size());
+  }
+
+  @Test
+  void ofIgnoresLaterChangesAndUnnamedCharacteristics() {
+    var characteristics = new ArrayList<Characteristic>();
+    characteristics.add(Characteristic.of(null, "unnamed"));
+    characteristics.add(Characteristic.of("a", "1"));
+    var index = CharacteristicIndex.of(characteristics);
+    characteristics.add(Characteristic.of("b", "2"));
+
+    assertEquals(1, index.size());
+    assertEquals("1", index.getOptionalCharacteristicStringValue("a"));
+    assertNull(index.getOptionalCharacteristicStringValue("b"));
+  }
+
+  @Test
+  void ofReturnsEmptyIndexForNullOrEmptyCollection() {
+    assertEquals(0, CharacteristicIndex.of(null).size());
+    assertEquals(0, CharacteristicIndex.of(List.of()).size());
+    assertNull(CharacteristicIndex.of(null).getOptionalCharacteristicValue("a"));
+  }
+}
@@ -0,0 +1,159 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.opentmf.v4.common.model.Characteristic;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CharacteristicSchemaTests {
+
+  private static final CharacteristicSchema SCHEMA =
+      CharacteristicSchema.builder()
+          .mandatory("name", CharacteristicType.STRING)
+          .mandatory("bandwidth", CharacteristicType.INTEGER)
+          .optional("vlanId", CharacteristicType.LONG, 100L)
+          .optional("enabled", CharacteristicType.BOOLEAN, Boolean.TRUE)
+          .optional("ratio", CharacteristicType.DOUBLE)
+          .optional("startDate", CharacteristicType.OFFSET_DATE_TIME)
+          .optional("raw", CharacteristicType.OBJECT)
+          .zone(ZoneOffset.UTC)
+          .build();
+
+  @Test
+  void extractConvertsValuesToTheirTypes() {
+    var values =
+        SCHEMA.extract(
+            List.of(
+                Characteristic.of("name", 42),
+                Characteristic.of("bandwidth", "1000"),
+                Characteristic.of("vlanId", 7),
+                Characteristic.of("enabled", "off"),
+                Characteristic.of("ratio", "0.5"),
+                Characteristic.of("startDate", "2023-02-16T10:00:00Z"),
+                Characteristic.of("raw", List.of(1)),
+                Characteristic.of("unknown", "ignored")));
+
+    assertEquals("42", values.getString("name"));
+    assertEquals(1000, values.getInteger("bandwidth"));
+    assertEquals(7L, values.getLong("vlanId"));
+    assertFalse(values.getBoolean("enabled"));
+    assertEquals(0.5, values.getDouble("ratio"));
+    assertEquals(
+        OffsetDateTime.of(2023, 2, 16, 10, 0, 0, 0, ZoneOffset.UTC),
+        values.getOffsetDateTime("startDate"));
+    assertEquals(List.of(1), values.get("raw"));
+    assertEquals(1000, values.get(SCHEMA.indexOf("bandwidth")));
+  }
+
+  @Test
+  void extractAppliesDefaultsToAbsentOptionalCharacteristics() {
+    var values =
+        SCHEMA.extract(
+            List.of(
+                Characteristic.of("name", "n"),
+                Characteristic.of("bandwidth", 10),
+                Characteristic.of("enabled", null)));
+
+    assertEquals(100L, values.getLong("vlanId"));
+    assertTrue(values.getBoolean("enabled"));
+    assertNull(values.getDouble("ratio"));
+    assertNull(values.getOffsetDateTime("startDate"));
+  }
+
+  @Test
+  void extractUsesFirstCharacteristicWithTheName() {
+    var values =
+        SCHEMA.extract(
+            List.of(
+                Characteristic.of("name", "first"),
+                Characteristic.of("bandwidth", 1),
+                Characteristic.of("name", "second")));
+
+    assertEquals("first", values.getString("name"));
+  }
+
+  @Test
+  void extractReportsAllErrorsTogether() {
+    var characteristics =
+        List.of(
+            Characteristic.of("bandwidth", "fast"),
+            Characteristic.of("vlanId", 1.5),
+            Characteristic.of("startDate", "tomorrow"));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> SCHEMA.extract(characteristics));
+
+    assertEquals(
+        "Mandatory characteristic name not found in the characteristic list; "
+            + "Characteristic bandwidth has an invalid INTEGER value: fast; "
+            + "Characteristic vlanId has an invalid LONG value: 1.5; "
+            + "Characteristic startDate has an invalid OFFSET_DATE_TIME value: tomorrow",
+        e.getMessage());
+    assertEquals(4, SCHEMA.validate(characteristics).size());
+  }
+
+  @Test
+  void validateReturnsEmptyListForValidCollection() {
+    assertTrue(
+        SCHEMA
+            .validate(List.of(Characteristic.of("name", "n"), Characteristic.of("bandwidth", 1)))
+            .isEmpty());
+    assertEquals(2, SCHEMA.validate(null).size());
+  }
+
+  @Test
+  void integerRejectsValuesOutOfIntRange() {
+    var errors =
+        SCHEMA.validate(
+            List.of(
+                Characteristic.of("name", "n"), Characteristic.of("bandwidth", Long.MAX_VALUE)));
+
+    assertEquals(
+        List.of("Characteristic bandwidth has an invalid INTEGER value: " + Long.MAX_VALUE),
+        errors);
+  }
+
+  @Test
+  void mandatoryCharacteristicWithoutValueIsNull() {
+    var values =
+        SCHEMA.extract(List.of(Characteristic.of("name", null), Characteristic.of("bandwidth", 1)));
+
+    assertNull(values.getString("name"));
+  }
+
+  @Test
+  void gettersRejectUnknownNamesAndOtherTypes() {
+    var values =
+        SCHEMA.extract(List.of(Characteristic.of("name", "n"), Characteristic.of("bandwidth", 1)));
+
+    assertThrows(IllegalArgumentException.class, () -> values.get("missing"));
+    assertThrows(IllegalArgumentException.class, () -> values.getLong("bandwidth"));
+  }
+
+  @Test
+  void builderRejectsDuplicateNamesAndMistypedDefaults() {
+    var builder = CharacteristicSchema.builder().mandatory("a", CharacteristicType.STRING);
+
+    assertThrows(
+        IllegalArgumentException.class, () -> builder.optional("a", CharacteristicType.LONG));
+    assertThrows(
+        IllegalArgumentException.class, () -> builder.optional("b", CharacteristicType.LONG, 1));
+  }
+
+  @Test
+  void schemaDescribesItsCharacteristics() {
+    assertEquals(7, SCHEMA.size());
+    assertEquals(1, SCHEMA.indexOf("bandwidth"));
+    assertEquals(-1, SCHEMA.indexOf("missing"));
+    assertEquals("bandwidth", SCHEMA.getName(1));
+    assertEquals(CharacteristicType.INTEGER, SCHEMA.getType(1));
+    assertTrue(SCHEMA.isMandatory(1));
+    assertFalse(SCHEMA.isMandatory(2));
+  }
+}
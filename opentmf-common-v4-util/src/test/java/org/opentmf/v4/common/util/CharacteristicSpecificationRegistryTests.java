@@ -0,0 +1,107 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.opentmf.v4.common.model.Characteristic;
+import org.opentmf.v4.common.model.CharacteristicSpecificationBase;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CharacteristicSpecificationRegistryTests {
+
+  private final AtomicLong now = new AtomicLong();
+  private final List<String> loads = new ArrayList<>();
+
+  private final CharacteristicSpecificationLoader loader =
+      (id, version) -> {
+        loads.add(id + ":" + version);
+        return "missing".equals(id) ? null : List.of(specification(id + "-characteristic"));
+      };
+
+  @Test
+  void validatorIsLoadedOncePerSpecificationAndVersion() {
+    var registry = CharacteristicSpecificationRegistry.of(loader, 10, Duration.ofMinutes(1));
+
+    var validator = registry.getValidator("spec", "1.0");
+    assertSame(validator, registry.getValidator("spec", "1.0"));
+    assertNotSame(validator, registry.getValidator("spec", "2.0"));
+    registry.getValidator("spec", null);
+    registry.getValidator("spec", null);
+
+    assertEquals(List.of("spec:1.0", "spec:2.0", "spec:null"), loads);
+    assertEquals(3, registry.size());
+    assertTrue(validator.isMandatory("spec-characteristic"));
+  }
+
+  @Test
+  void validateUsesTheCompiledSpecifications() {
+    var registry = CharacteristicSpecificationRegistry.of(loader, 10, Duration.ofMinutes(1));
+
+    assertTrue(
+        registry
+            .validate("spec", "1", List.of(Characteristic.of("spec-characteristic", 1)))
+            .isEmpty());
+    assertEquals(
+        List.of(
+            "Mandatory characteristic spec-characteristic not found in the characteristic list"),
+        registry.validate("spec", "1", List.of()));
+    assertEquals(1, loads.size());
+  }
+
+  @Test
+  void specificationsAreEvictedBySizeAndTime() {
+    var registry =
+        CharacteristicSpecificationRegistry.of(loader, 2, Duration.ofNanos(100), now::get);
+    registry.getValidator("a", "1");
+    registry.getValidator("b", "1");
+    registry.getValidator("c", "1");
+    registry.getValidator("a", "1");
+    assertEquals(List.of("a:1", "b:1", "c:1", "a:1"), loads);
+
+    now.addAndGet(100);
+    registry.getValidator("c", "1");
+    assertEquals("c:1", loads.get(4));
+  }
+
+  @Test
+  void invalidateLoadsTheSpecificationAgain() {
+    var registry = CharacteristicSpecificationRegistry.of(loader, 10, Duration.ofMinutes(1));
+    registry.getValidator("a", "1");
+    registry.getValidator("b", "1");
+
+    registry.invalidate("a", "1");
+    registry.getValidator("a", "1");
+    registry.getValidator("b", "1");
+    registry.invalidateAll();
+    assertEquals(0, registry.size());
+
+    assertEquals(List.of("a:1", "b:1", "a:1"), loads);
+  }
+
+  @Test
+  void missingSpecificationIsNotCached() {
+    var registry = CharacteristicSpecificationRegistry.of(loader, 10, Duration.ofMinutes(1));
+
+    var e =
+        assertThrows(IllegalArgumentException.class, () -> registry.getValidator("missing", "1"));
+    assertEquals("Product specification missing with version 1 not found", e.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> registry.getValidator("missing", "1"));
+    assertEquals(2, loads.size());
+    assertEquals(0, registry.size());
+  }
+
+  private static CharacteristicSpecificationBase specification(String name) {
+    var specification = new CharacteristicSpecificationBase();
+    specification.setName(name);
+    specification.setMinCardinality(1);
+    specification.setMaxCardinality(1);
+    return specification;
+  }
+}
@@ -46,6 +46,15 @@ class CharacteristicSpecificationUtilTests {
     assertFalse(result);
   }
 
+  @Test
+  void test_isMandatory_withNullCardinalities_returnsFalse() {
+    var cs = new CharacteristicSpecificationBase();
+    assertFalse(CharacteristicSpecificationUtil.isMandatory(cs));
+
+    cs.setMinCardinality(1);
+    assertFalse(CharacteristicSpecificationUtil.isMandatory(cs));
+  }
+
   @Test
   void allowedValuesReturnsEmptyListWhenCharacteristicValueSpecificationIsNull() {
     var result = CharacteristicSpecificationUtil.allowedValues(null);
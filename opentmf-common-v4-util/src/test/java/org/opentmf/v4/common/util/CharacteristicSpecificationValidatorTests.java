@@ -0,0 +1,192 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.opentmf.v4.common.model.Characteristic;
+import org.opentmf.v4.common.model.CharacteristicSpecificationBase;
+import org.opentmf.v4.common.model.CharacteristicValueSpecification;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CharacteristicSpecificationValidatorTests {
+
+  private static final CharacteristicSpecificationValidator VALIDATOR =
+      CharacteristicSpecificationValidator.of(
+          List.of(
+              specification("bandwidth", "integer", 1, 1, 100, "1000"),
+              specification("color", "string", 0, 1, "red", 7),
+              specification("ratio", "number", 0, 1, 0.5, "2.50"),
+              specification("enabled", "boolean", 0, 1, true),
+              specification("vlanId", "integer", 0, 3),
+              specification("note", null, null, null),
+              specification("port", "integer", 2, 4)));
+
+  @Test
+  void validCollectionHasNoErrors() {
+    var characteristics =
+        List.of(
+            Characteristic.of("bandwidth", "100"),
+            Characteristic.of("color", "7"),
+            Characteristic.of("ratio", new BigDecimal("2.5")),
+            Characteristic.of("enabled", "yes"),
+            Characteristic.of("vlanId", 1),
+            Characteristic.of("vlanId", 2),
+            Characteristic.of("port", 1),
+            Characteristic.of("port", 2),
+            Characteristic.of("note", "anything"));
+
+    assertTrue(VALIDATOR.validate(characteristics).isEmpty());
+    assertSame(Collections.emptyList(), VALIDATOR.validate(characteristics));
+    assertDoesNotThrow(() -> VALIDATOR.requireValid(characteristics));
+  }
+
+  @Test
+  void allowedValuesAreNormalizedByValueType() {
+    assertTrue(VALIDATOR.isAllowedValue("bandwidth", 1000L));
+    assertTrue(VALIDATOR.isAllowedValue("bandwidth", "1000"));
+    assertFalse(VALIDATOR.isAllowedValue("bandwidth", "1000.0"));
+    assertFalse(VALIDATOR.isAllowedValue("bandwidth", 10));
+    assertTrue(VALIDATOR.isAllowedValue("color", 7));
+    assertFalse(VALIDATOR.isAllowedValue("color", "blue"));
+    assertTrue(VALIDATOR.isAllowedValue("ratio", "0.50"));
+    assertTrue(VALIDATOR.isAllowedValue("ratio", 2.5f));
+    assertFalse(VALIDATOR.isAllowedValue("ratio", "half"));
+    assertTrue(VALIDATOR.isAllowedValue("enabled", 1));
+    assertFalse(VALIDATOR.isAllowedValue("enabled", "no"));
+    assertFalse(VALIDATOR.isAllowedValue("enabled", "maybe"));
+    assertTrue(VALIDATOR.isAllowedValue("vlanId", "anything"));
+  }
+
+  @Test
+  void validateReportsAllErrorsInOnePass() {
+    var characteristics =
+        List.of(
+            Characteristic.of("color", "blue"),
+            Characteristic.of("color", "red"),
+            Characteristic.of("unknown", 1),
+            Characteristic.of("port", 1),
+            Characteristic.of("bandwidth", null));
+
+    assertEquals(
+        List.of(
+            "Value blue of characteristic color is not allowed",
+            "Characteristic unknown is not defined by a specification",
+            "Characteristic color occurs 2 times, more than its maximum cardinality 1",
+            "Characteristic port occurs 1 times, fewer than its minimum cardinality 2"),
+        VALIDATOR.validate(characteristics));
+  }
+
+  @Test
+  void validateReportsMissingMandatoryCharacteristic() {
+    assertEquals(
+        List.of(
+            "Mandatory characteristic bandwidth not found in the characteristic list",
+            "Mandatory characteristic port not found in the characteristic list"),
+        VALIDATOR.validate(null));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> VALIDATOR.requireValid(List.of()));
+    assertEquals(
+        "Mandatory characteristic bandwidth not found in the characteristic list; "
+            + "Mandatory characteristic port not found in the characteristic list",
+        e.getMessage());
+  }
+
+  @Test
+  void validationsAreIndependent() {
+    var invalid = new ArrayList<Characteristic>();
+    for (int i = 0; i < 5; i++) {
+      invalid.add(Characteristic.of("port", i));
+    }
+    assertEquals(2, VALIDATOR.validate(invalid).size());
+
+    var valid =
+        List.of(
+            Characteristic.of("bandwidth", 100),
+            Characteristic.of("port", 1),
+            Characteristic.of("port", 2));
+    assertTrue(VALIDATOR.validate(valid).isEmpty());
+  }
+
+  @Test
+  void validatorsOfDifferentSizesShareTheCountsOfAThread() {
+    var specifications = new ArrayList<CharacteristicSpecificationBase>();
+    var characteristics = new ArrayList<Characteristic>();
+    for (int i = 0; i < 40; i++) {
+      specifications.add(specification("c" + i, "integer", 1, 1));
+      characteristics.add(Characteristic.of("c" + i, i));
+    }
+    var large = CharacteristicSpecificationValidator.of(specifications);
+    var valid =
+        List.of(
+            Characteristic.of("bandwidth", 100),
+            Characteristic.of("port", 1),
+            Characteristic.of("port", 2));
+
+    assertTrue(VALIDATOR.validate(valid).isEmpty());
+    assertTrue(large.validate(characteristics).isEmpty());
+    assertTrue(VALIDATOR.validate(valid).isEmpty());
+    assertEquals(1, large.validate(characteristics.subList(1, 40)).size());
+    assertTrue(large.validate(characteristics).isEmpty());
+  }
+
+  @Test
+  void cardinalitiesAndMandatoryFlagsArePrecomputed() {
+    assertEquals(7, VALIDATOR.size());
+    assertTrue(VALIDATOR.containsSpecification("note"));
+    assertFalse(VALIDATOR.containsSpecification("unknown"));
+    assertTrue(VALIDATOR.isMandatory("bandwidth"));
+    assertFalse(VALIDATOR.isMandatory("port"));
+    assertEquals(0, VALIDATOR.getMinCardinality("note"));
+    assertEquals(Integer.MAX_VALUE, VALIDATOR.getMaxCardinality("note"));
+    assertEquals(3, VALIDATOR.getMaxCardinality("vlanId"));
+    assertThrows(IllegalArgumentException.class, () -> VALIDATOR.isMandatory("unknown"));
+  }
+
+  @Test
+  void invalidSpecificationsAreRejected() {
+    var unnamed = List.of(specification(null, "string", 0, 1));
+    var duplicate =
+        List.of(specification("a", "string", 0, 1), specification("a", "integer", 0, 1));
+    var mistyped = List.of(specification("a", "integer", 0, 1, "ten"));
+    var nullValue = List.of(specification("a", "string", 0, 1, (Object) null));
+
+    assertThrows(
+        IllegalArgumentException.class, () -> CharacteristicSpecificationValidator.of(unnamed));
+    assertThrows(
+        IllegalArgumentException.class, () -> CharacteristicSpecificationValidator.of(duplicate));
+    assertEquals(
+        "Allowed value ten of characteristic specification a is not of type integer",
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> CharacteristicSpecificationValidator.of(mistyped))
+            .getMessage());
+    assertThrows(
+        IllegalArgumentException.class, () -> CharacteristicSpecificationValidator.of(nullValue));
+    assertEquals(0, CharacteristicSpecificationValidator.of(null).size());
+  }
+
+  private static CharacteristicSpecificationBase specification(
+      String name, String valueType, Integer min, Integer max, Object... allowedValues) {
+    var specification = new CharacteristicSpecificationBase();
+    specification.setName(name);
+    specification.setValueType(valueType);
+    specification.setMinCardinality(min);
+    specification.setMaxCardinality(max);
+    var values = new ArrayList<CharacteristicValueSpecification>();
+    for (var allowedValue : allowedValues) {
+      var value = new CharacteristicValueSpecification();
+      value.setValue(allowedValue);
+      values.add(value);
+    }
+    specification.setCharacteristicValueSpecifications(values);
+    return specification;
+  }
+}
@@ -6,8 +6,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.opentmf.v4.common.model.Characteristic;
 import org.opentmf.v4.common.model.RelatedParty;
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.*;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.opentmf.v4.common.util.CharacteristicUtil;
@@ -315,6 +318,70 @@ class CharacteristicUtilTests {
     assertNull(getLongValue(Characteristic.of("key1", null)));
   }
 
+  @Test
+  void test_getIntValue_withNumberAndStringValues_returnsValue() {
+    assertEquals(42, getIntValue(Characteristic.of("key", 42), -1));
+    assertEquals(42, getIntValue(Characteristic.of("key", 42L), -1));
+    assertEquals(7, getIntValue(Characteristic.of("key", (short) 7), -1));
+    assertEquals(-42, getIntValue(Characteristic.of("key", "-42"), -1));
+    assertEquals(42, getIntValue(Characteristic.of("key", new StringBuilder("+42")), -1));
+  }
+
+  @Test
+  void test_getIntValue_withMissingOrInvalidValue_returnsDefault() {
+    assertEquals(-1, getIntValue(Characteristic.of("key", null), -1));
+    assertEquals(-1, getIntValue(Characteristic.of("key", Long.MAX_VALUE), -1));
+    assertEquals(-1, getIntValue(Characteristic.of("key", "2147483648"), -1));
+    assertEquals(-1, getIntValue(Characteristic.of("key", "1.5"), -1));
+    assertEquals(-1, getIntValue(Characteristic.of("key", 1.0), -1));
+    assertEquals(-1, getIntValue(Characteristic.of("key", ""), -1));
+  }
+
+  @Test
+  void test_getLongValue_withDefault_returnsValueOrDefault() {
+    assertEquals(Long.MAX_VALUE, getLongValue(Characteristic.of("key", Long.MAX_VALUE), -1L));
+    assertEquals(42L, getLongValue(Characteristic.of("key", 42), -1L));
+    assertEquals(9_000_000_000L, getLongValue(Characteristic.of("key", "9000000000"), -1L));
+    assertEquals(-1L, getLongValue(Characteristic.of("key", "x"), -1L));
+    assertEquals(-1L, getLongValue(Characteristic.of("key", null), -1L));
+  }
+
+  @Test
+  void test_getDoubleValue_withDefault_returnsValueOrDefault() {
+    assertEquals(1.5, getDoubleValue(Characteristic.of("key", 1.5), -1));
+    assertEquals(42.0, getDoubleValue(Characteristic.of("key", 42), -1));
+    assertEquals(0.25, getDoubleValue(Characteristic.of("key", "0.25"), -1));
+    assertEquals(-1.0, getDoubleValue(Characteristic.of("key", "x"), -1));
+    assertEquals(-1.0, getDoubleValue(Characteristic.of("key", null), -1));
+  }
+
+  @Test
+  void test_getBooleanValue_withDefault_returnsValueOrDefault() {
+    assertTrue(getBooleanValue(Characteristic.of("key", true), false));
+    assertTrue(getBooleanValue(Characteristic.of("key", "yes"), false));
+    assertTrue(getBooleanValue(Characteristic.of("key", 1), false));
+    assertFalse(getBooleanValue(Characteristic.of("key", 0L), true));
+    assertFalse(getBooleanValue(Characteristic.of("key", "off"), true));
+    assertTrue(getBooleanValue(Characteristic.of("key", 2), true));
+    assertTrue(getBooleanValue(Characteristic.of("key", "maybe"), true));
+    assertFalse(getBooleanValue(Characteristic.of("key", null), false));
+  }
+
+  @Test
+  void test_boxedAccessors_matchStringConversion() {
+    var values = new Object[] {
+      42, -7L, Long.MAX_VALUE, (short) 3, (byte) 1, 0, 1.0, 2.5f, "12", " 12", "+5", "-0", "1",
+      "0", "true", "Y", "off", "", "x", true, false, new StringBuilder("8"), new BigDecimal("4")
+    };
+    for (var value : values) {
+      var characteristic = Characteristic.of("key", value);
+      var string = String.valueOf(value);
+      assertEquals(NumberUtils.toInt(string), getIntegerValue(characteristic));
+      assertEquals(NumberUtils.toLong(string), getLongValue(characteristic));
+      assertEquals(BooleanUtils.toBooleanObject(string), getBooleanValue(characteristic));
+    }
+  }
+
   @Test
   void test_findCharacteristicByName_withNullCollection_returnsEmpty() {
     assertFalse(findCharacteristicByName("any", null).isPresent());
@@ -443,4 +510,69 @@ class CharacteristicUtilTests {
 
     assertTrue(result.isEmpty());
   }
+
+  @Test
+  void test_detectDuplicates_withRepeatedNames_returnsCountPerName() {
+    var result = CharacteristicUtil.detectDuplicates(List.of(
+        Characteristic.of("a", 1),
+        Characteristic.of("b", 1),
+        Characteristic.of("a", 2),
+        Characteristic.of("a", 3),
+        Characteristic.of("b", 2),
+        Characteristic.of("c", 1)));
+
+    assertEquals(Map.of("a", 3, "b", 2), result);
+  }
+
+  @Test
+  void test_canonicalize_withRepeatingNamesAndValueTypes_sharesInstances() {
+    var pool = new StringPool(10);
+    var first = Characteristic.of(new String("speed"), 100);
+    first.setValueType(new String("integer"));
+    var second = Characteristic.of(new String("speed"), 200);
+    second.setValueType(new String("integer"));
+
+    CharacteristicUtil.canonicalize(List.of(first, second), pool);
+    CharacteristicUtil.canonicalize(null, pool);
+
+    assertSame(first.getName(), second.getName());
+    assertSame(first.getValueType(), second.getValueType());
+    assertEquals(200, second.getValue());
+    assertEquals(2, pool.size());
+  }
+
+  @Test
+  void test_hasDuplicates_withDuplicateNames_returnsTrue() {
+    assertTrue(CharacteristicUtil.hasDuplicates(List.of(
+        Characteristic.of("a", 1), Characteristic.of("b", 1), Characteristic.of("a", 2))));
+    assertFalse(CharacteristicUtil.hasDuplicates(List.of(
+        Characteristic.of("a", 1), Characteristic.of("b", 1))));
+    assertFalse(CharacteristicUtil.hasDuplicates(null));
+  }
+
+  @Test
+  void test_toCompactNameMaps_withCharacteristics_returnsMapsEqualToHashMaps() {
+    var characteristics = List.of(
+        Characteristic.of("a", 1),
+        Characteristic.of("b", "two"),
+        Characteristic.of("a", 3L),
+        Characteristic.of("c", true));
+
+    assertEquals(
+        CharacteristicUtil.toNameObjectMap(characteristics),
+        CharacteristicUtil.toCompactNameObjectMap(characteristics));
+    assertEquals(
+        CharacteristicUtil.toNameStringMap(characteristics),
+        CharacteristicUtil.toCompactNameStringMap(characteristics));
+    assertEquals("3", CharacteristicUtil.toCompactNameStringMap(characteristics).get("a"));
+  }
+
+  @Test
+  void test_toCompactNameMaps_withNullValue_returnsNullAndEmptyString() {
+    var characteristics = List.of(Characteristic.of("a", null));
+
+    assertNull(CharacteristicUtil.toCompactNameObjectMap(characteristics).get("a"));
+    assertTrue(CharacteristicUtil.toCompactNameObjectMap(characteristics).containsKey("a"));
+    assertEquals("", CharacteristicUtil.toCompactNameStringMap(characteristics).get("a"));
+  }
 }
@@ -0,0 +1,100 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class CompactImmutableMapTests {
+
+  @Test
+  void mapHoldsTheLastValueOfEachKey() {
+    var map =
+        CompactImmutableMap.of(
+            List.of("a=1", "b=2", "a=3"), s -> s.substring(0, 1), s -> s.substring(2));
+
+    assertEquals(2, map.size());
+    assertEquals("3", map.get("a"));
+    assertEquals("2", map.get("b"));
+    assertNull(map.get("c"));
+    assertEquals("x", map.getOrDefault("c", "x"));
+    assertEquals("2", map.getOrDefault("b", "x"));
+    assertEquals(Map.of("a", "3", "b", "2"), map);
+    assertEquals(Map.of("a", "3", "b", "2").hashCode(), map.hashCode());
+  }
+
+  @Test
+  void mapEqualsHashMapOfTheSameEntries() {
+    var keys = new ArrayList<Integer>();
+    var expected = new HashMap<Integer, String>();
+    for (int i = 0; i < 1000; i++) {
+      // colliding hash codes are probed linearly
+      int key = (i % 3 == 0) ? i << 16 : i * 31;
+      keys.add(key);
+      expected.put(key, "v" + i);
+    }
+    var values = new HashMap<>(expected);
+
+    var map = CompactImmutableMap.of(keys, Function.identity(), values::get);
+
+    assertEquals(expected, map);
+    for (var key : keys) {
+      assertTrue(map.containsKey(key));
+    }
+    assertFalse(map.containsKey(-1));
+  }
+
+  @Test
+  void mapPermitsNullKeyAndNullValues() {
+    var map = CompactImmutableMap.of(Arrays.asList("a", null), s -> s, s -> null);
+
+    assertEquals(2, map.size());
+    assertTrue(map.containsKey(null));
+    assertTrue(map.containsKey("a"));
+    assertNull(map.get(null));
+    assertEquals("d", map.getOrDefault("b", "d"));
+    assertTrue(map.containsValue(null));
+    var expected = new HashMap<String, Object>();
+    expected.put(null, null);
+    expected.put("a", null);
+    assertEquals(expected, map);
+  }
+
+  @Test
+  void mapIsUnmodifiable() {
+    var map = CompactImmutableMap.of(List.of("a"), s -> s, s -> s);
+
+    assertThrows(UnsupportedOperationException.class, () -> map.put("b", "b"));
+    assertThrows(UnsupportedOperationException.class, () -> map.remove("a"));
+    assertThrows(UnsupportedOperationException.class, map::clear);
+    var iterator = map.entrySet().iterator();
+    var entry = iterator.next();
+    assertThrows(UnsupportedOperationException.class, () -> entry.setValue("b"));
+    assertThrows(UnsupportedOperationException.class, iterator::remove);
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  void tableIsPresizedFromTheCollection() {
+    assertEquals(4, CompactImmutableMap.of(List.of(), s -> s, s -> s).tableLength());
+    for (int size : new int[] {1, 2, 3, 10, 100, 1000}) {
+      var elements = new ArrayList<Integer>();
+      for (int i = 0; i < size; i++) {
+        elements.add(i);
+      }
+      int slots = CompactImmutableMap.of(elements, e -> e, e -> e).tableLength() / 2;
+      assertTrue(slots * 3 / 4 >= size || slots == 2, "slots " + slots + " for " + size);
+      assertTrue(slots < size * 8 / 3 + 2, "slots " + slots + " for " + size);
+    }
+  }
+}
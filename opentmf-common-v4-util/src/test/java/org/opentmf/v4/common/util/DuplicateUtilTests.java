@@ -0,0 +1,63 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class DuplicateUtilTests {
+
+  @Test
+  void hasDuplicatesStopsAtFirstDuplicate() {
+    var calls = new AtomicInteger();
+    Function<String, String> key =
+        s -> {
+          calls.incrementAndGet();
+          return s;
+        };
+
+    assertTrue(DuplicateUtil.hasDuplicates(List.of("a", "b", "a", "c", "d"), key));
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  void hasDuplicatesReturnsFalseForDistinctKeys() {
+    assertFalse(DuplicateUtil.hasDuplicates(List.of("a", "bb", "ccc"), String::length));
+    assertTrue(DuplicateUtil.hasDuplicates(List.of("a", "b"), String::length));
+    assertFalse(DuplicateUtil.hasDuplicates(List.of("a"), String::length));
+    assertFalse(DuplicateUtil.hasDuplicates(null, String::length));
+  }
+
+  @Test
+  void nullKeysAreComparedAsKeys() {
+    Function<String, String> nullKey = s -> null;
+
+    assertTrue(DuplicateUtil.hasDuplicates(List.of("a", "b"), nullKey));
+    assertEquals(2, DuplicateUtil.countDuplicates(Arrays.asList("a", "b"), nullKey).get(null));
+  }
+
+  @Test
+  void countDuplicatesCountsOnlyDuplicateKeys() {
+    var result =
+        DuplicateUtil.countDuplicates(List.of("a", "b", "cc", "dd", "ee", "fff"), String::length);
+
+    assertEquals(Map.of(1, 2, 2, 3), result);
+  }
+
+  @Test
+  void countDuplicatesReturnsMutableEmptyMapWithoutDuplicates() {
+    var result = DuplicateUtil.countDuplicates(List.of("a", "bb"), String::length);
+    assertTrue(result.isEmpty());
+    result.put(1, 1);
+
+    assertTrue(DuplicateUtil.countDuplicates(null, String::length).isEmpty());
+    assertTrue(DuplicateUtil.countDuplicates(new ArrayList<String>(), String::length).isEmpty());
+  }
+}
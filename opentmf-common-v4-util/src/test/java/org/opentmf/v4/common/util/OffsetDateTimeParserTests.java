@@ -0,0 +1,173 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class OffsetDateTimeParserTests {
+
+  private static final ZoneId ISTANBUL = ZoneId.of("Europe/Istanbul");
+  private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "2023-02-16",
+    "2023/02/16",
+    "2023-2-6",
+    "02023-002-016",
+    "2023-02-16T10:00:00",
+    "2023/02/16T10:00:00",
+    "2023-02-16T10:00:00.000123",
+    "2023/02/16T10:00:00.5",
+    "2023-02-16T10:00:00.000123+0100",
+    "2023/02/16T10:00:00.999-2359",
+    "2023-02-16T10:00:00+0300",
+    "2023/02/16T10:00:00-0000",
+    "2023-02-16T10:00:00Z",
+    "2023-02-16T10:00:00+03",
+    "2023-02-16T10:00:00-23",
+    "2099-12-31T23:59:59",
+    "1500-01-01",
+    "23-02-16",
+    "10000-01-01",
+    " 2023-02-16",
+    "2023-02-16T10:00:00UTC",
+    "2023-02-16T10:00:00GMT+3:00",
+    "2023-02-16T10:00:00.123456",
+    "2023-02-16T10:00:00.1000",
+    "2023-02-16T10:00:00.0Z",
+    "2023-02-16T10:00:00+03:00",
+    "2023-02-16T10:00:00+2400",
+    "2023-02-16T10:00:00+0060",
+    "2023/02/16T10:00:00Z",
+    "2023/02/16T10:00:00+03",
+    "2023-02-16T10:00:00+3",
+    "2023-02-30",
+    "2023-13-01",
+    "2023-02-16T24:00:00",
+    "2023-02-16T10:60:00",
+    "2023-02-16T10:00:60",
+    "2023-02/16",
+    "2023-02-16t10:00:00",
+    "2023-02-16T10:00",
+    "0-01-01",
+    "99999999999-01-01",
+    "",
+    "invalid format"
+  })
+  void parseMatchesDateUtilsInSystemDefaultZone(String text) {
+    var parser = OffsetDateTimeParser.systemDefault();
+
+    assertEquals(legacyParse(text), parser.tryParse(text).map(OffsetDateTime::toInstant));
+  }
+
+  @Test
+  void parseReturnsValueInZoneOfParser() {
+    var parser = OffsetDateTimeParser.of(ISTANBUL);
+
+    assertEquals(
+        OffsetDateTime.of(2023, 2, 16, 10, 0, 0, 0, ZoneOffset.ofHours(3)),
+        parser.parse("2023-02-16T10:00:00"));
+    assertEquals(
+        OffsetDateTime.of(2023, 2, 16, 13, 0, 0, 5_000_000, ZoneOffset.ofHours(3)),
+        parser.parse("2023/02/16T10:00:00.005+0000"));
+    assertEquals(
+        OffsetDateTime.of(2023, 2, 16, 0, 0, 0, 0, ZoneOffset.ofHours(3)),
+        parser.parse("2023-02-16"));
+    assertEquals(ISTANBUL, parser.getZone());
+  }
+
+  @Test
+  void parseRejectsLocalTimeInDaylightSavingGap() {
+    var parser = OffsetDateTimeParser.of(BERLIN);
+
+    assertEquals(Optional.empty(), parser.tryParse("2023-03-26T02:30:00"));
+    assertEquals(
+        Instant.parse("2023-03-26T01:00:00Z"),
+        parser.parse("2023-03-26T03:00:00").toInstant());
+  }
+
+  @Test
+  void parseTakesOffsetAfterOverlap() {
+    var parser = OffsetDateTimeParser.of(BERLIN);
+
+    assertEquals(
+        Instant.parse("2023-10-29T01:30:00Z"),
+        parser.parse("2023-10-29T02:30:00").toInstant());
+  }
+
+  @Test
+  void parseResolvesDateAtStartOfGapAndRejectsSkippedDay() {
+    var saoPaulo = OffsetDateTimeParser.of(ZoneId.of("America/Sao_Paulo"));
+    var apia = OffsetDateTimeParser.of(ZoneId.of("Pacific/Apia"));
+
+    assertEquals(Instant.parse("2018-11-04T03:00:00Z"), saoPaulo.parse("2018-11-04").toInstant());
+    assertEquals(Optional.empty(), apia.tryParse("2011-12-30"));
+  }
+
+  @Test
+  void parseUsesOriginalPatternsForZoneNamesAndJulianDates() {
+    var parser = OffsetDateTimeParser.of(ISTANBUL);
+
+    assertEquals(
+        Instant.parse("2023-02-16T15:00:00Z"),
+        parser.parse("2023-02-16T10:00:00EST").toInstant());
+    assertEquals(Instant.parse("1500-01-09T21:00:00Z"), parser.parse("1500-01-01").toInstant());
+  }
+
+  @Test
+  void parseThrowsExceptionWhenStringIsInvalid() {
+    var parser = OffsetDateTimeParser.of(ISTANBUL);
+
+    var e = assertThrows(IllegalArgumentException.class, () -> parser.parse("invalid format"));
+    assertEquals("Date string invalid format could not be parsed.", e.getMessage());
+    e = assertThrows(IllegalArgumentException.class, () -> parser.parse(null));
+    assertEquals("Date string null could not be parsed.", e.getMessage());
+  }
+
+  @Test
+  void tryParseReturnsEmptyWhenStringIsNullOrInvalid() {
+    var parser = OffsetDateTimeParser.of(ISTANBUL);
+
+    assertEquals(Optional.empty(), parser.tryParse(null));
+    assertEquals(Optional.empty(), parser.tryParse("2023-02-16T"));
+    assertTrue(parser.tryParse("2023-02-16").isPresent());
+  }
+
+  @Test
+  void ofThrowsExceptionWhenZoneIsNull() {
+    assertThrows(NullPointerException.class, () -> OffsetDateTimeParser.of(null));
+  }
+
+  private static Optional<Instant> legacyParse(String text) {
+    try {
+      return Optional.of(
+          DateUtils.parseDateStrictly(
+                  text,
+                  "yyyy/MM/dd'T'HH:mm:ss.SSSSSSZ",
+                  "yyyy-MM-dd'T'HH:mm:ss.SSSSSSZ",
+                  "yyyy/MM/dd'T'HH:mm:ssZ",
+                  "yyyy-MM-dd'T'HH:mm:ssZ",
+                  "yyyy/MM/dd'T'HH:mm:ss.SSSSSS",
+                  "yyyy-MM-dd'T'HH:mm:ss.SSSSSS",
+                  "yyyy/MM/dd'T'HH:mm:ss",
+                  "yyyy-MM-dd'T'HH:mm:ss",
+                  "yyyy/MM/dd",
+                  "yyyy-MM-dd",
+                  "yyyy-MM-dd'T'HH:mm:ssX")
+              .toInstant());
+    } catch (Exception e) {
+      return Optional.empty();
+    }
+  }
+}
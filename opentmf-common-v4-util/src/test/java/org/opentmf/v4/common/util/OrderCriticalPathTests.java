@@ -0,0 +1,69 @@
+package org.opentmf.v4.common.util;
+
+import static org.opentmf.v4.common.util.OrderGraphTests.graph;
+import static org.opentmf.v4.common.util.OrderGraphTests.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OrderCriticalPathTests {
+
+  @Test
+  void ofComputesScheduleAndCriticalPath() {
+    var a = item("a");
+    var b = item("b");
+    var c = item("c", "a");
+    var d = item("d", "b", "c");
+    var e = item("e", "a");
+    var durations = Map.of("a", 3L, "b", 2L, "c", 4L, "d", 1L, "e", 2L);
+    var cp = OrderCriticalPath.of(graph(a, b, c, d, e), item -> durations.get(item.id()));
+
+    assertEquals(8, cp.totalDuration());
+    assertEquals(List.of(a, c, d), cp.criticalPath());
+    assertEquals(0, cp.earliestStart("b"));
+    assertEquals(2, cp.earliestFinish("b"));
+    assertEquals(5, cp.latestStart("b"));
+    assertEquals(7, cp.latestFinish("b"));
+    assertEquals(5, cp.slack("b"));
+    assertEquals(3, cp.earliestStart("e"));
+    assertEquals(3, cp.slack("e"));
+    assertEquals(7, cp.earliestStart("d"));
+    assertEquals(0, cp.slack("d"));
+  }
+
+  @Test
+  void ofHandlesEmptyGraph() {
+    var cp = OrderCriticalPath.of(graph(), item -> 1);
+
+    assertEquals(0, cp.totalDuration());
+    assertEquals(List.of(), cp.criticalPath());
+  }
+
+  @Test
+  void ofThrowsExceptionWhenDurationIsNegative() {
+    var graph = graph(item("a"));
+
+    var e = assertThrows(IllegalArgumentException.class,
+        () -> OrderCriticalPath.of(graph, item -> -1));
+    assertEquals("Duration of order Item a must not be negative.", e.getMessage());
+  }
+
+  @Test
+  void ofThrowsExceptionWhenGraphIsCyclic() {
+    var graph = graph(item("a"), item("b", "c"), item("c", "b"));
+
+    var e = assertThrows(IllegalArgumentException.class,
+        () -> OrderCriticalPath.of(graph, item -> 1));
+    assertEquals("There is a cyclic dependency on order Item b", e.getMessage());
+  }
+
+  @Test
+  void slackThrowsExceptionWhenItemDoesNotExist() {
+    var cp = OrderCriticalPath.of(graph(item("a")), item -> 1);
+
+    assertThrows(IllegalArgumentException.class, () -> cp.slack("x"));
+  }
+}
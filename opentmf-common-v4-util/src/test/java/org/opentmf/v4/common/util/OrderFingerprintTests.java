@@ -0,0 +1,175 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.opentmf.v4.common.model.Characteristic;
+import org.opentmf.v4.common.model.RelatedParty;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OrderFingerprintTests {
+
+  @Test
+  void equalFieldsGiveEqualFingerprints() {
+    var first = OrderFingerprint.hasher().putString("order").putLong(42).putBoolean(true);
+    var second = OrderFingerprint.hasher().putString("order").putLong(42).putBoolean(true);
+
+    assertEquals(first.fingerprint(), second.fingerprint());
+    assertEquals(first.fingerprint().hashCode(), second.fingerprint().hashCode());
+  }
+
+  @Test
+  void fieldBoundariesAreSignificant() {
+    assertNotEquals(
+        OrderFingerprint.hasher().putString("ab").putString("c").fingerprint(),
+        OrderFingerprint.hasher().putString("a").putString("bc").fingerprint());
+    assertNotEquals(
+        OrderFingerprint.hasher().putString(null).fingerprint(),
+        OrderFingerprint.hasher().putString("").fingerprint());
+    assertNotEquals(
+        OrderFingerprint.hasher().putString("1").fingerprint(),
+        OrderFingerprint.hasher().putLong(1).fingerprint());
+    assertNotEquals(
+        OrderFingerprint.hasher().putString("a").putString("b").fingerprint(),
+        OrderFingerprint.hasher().putString("b").putString("a").fingerprint());
+  }
+
+  @Test
+  void characteristicsAndPartiesAreOrderInsensitive() {
+    var a = Characteristic.of("a", 1);
+    var b = Characteristic.of("b", List.of("x", "y"));
+    var customer = party("1", "customer");
+    var seller = party("2", "seller");
+
+    assertEquals(
+        OrderFingerprint.hasher()
+            .putCharacteristics(List.of(a, b))
+            .putRelatedParties(List.of(customer, seller))
+            .fingerprint(),
+        OrderFingerprint.hasher()
+            .putCharacteristics(List.of(b, a))
+            .putRelatedParties(List.of(seller, customer))
+            .fingerprint());
+    assertNotEquals(
+        OrderFingerprint.hasher().putCharacteristics(List.of(a, b)).fingerprint(),
+        OrderFingerprint.hasher()
+            .putCharacteristics(List.of(a, Characteristic.of("b", List.of("y", "x"))))
+            .fingerprint());
+    assertNotEquals(
+        OrderFingerprint.hasher().putCharacteristics(List.of(a)).fingerprint(),
+        OrderFingerprint.hasher().putCharacteristics(List.of(a, a)).fingerprint());
+    assertNotEquals(
+        OrderFingerprint.hasher().putCharacteristics(null).fingerprint(),
+        OrderFingerprint.hasher().putCharacteristics(List.of()).fingerprint());
+  }
+
+  @Test
+  void mapValuesAreOrderInsensitive() {
+    var first = new LinkedHashMap<String, Object>();
+    first.put("k1", 1);
+    first.put("k2", Map.of("nested", true));
+    var second = new LinkedHashMap<String, Object>();
+    second.put("k2", Map.of("nested", true));
+    second.put("k1", 1);
+
+    assertEquals(
+        OrderFingerprint.hasher().putValue(first).fingerprint(),
+        OrderFingerprint.hasher().putValue(second).fingerprint());
+    second.put("k1", 2);
+    assertNotEquals(
+        OrderFingerprint.hasher().putValue(first).fingerprint(),
+        OrderFingerprint.hasher().putValue(second).fingerprint());
+  }
+
+  @Test
+  void numbersAreWrittenByValue() {
+    assertEquals(
+        OrderFingerprint.hasher().putValue(1).fingerprint(),
+        OrderFingerprint.hasher().putValue(1L).fingerprint());
+    assertNotEquals(
+        OrderFingerprint.hasher().putValue(1).fingerprint(),
+        OrderFingerprint.hasher().putValue(1.0).fingerprint());
+    assertEquals(
+        OrderFingerprint.hasher().putValue(new BigDecimal("1.50")).fingerprint(),
+        OrderFingerprint.hasher().putValue(new BigDecimal("1.50")).fingerprint());
+    assertNotEquals(
+        OrderFingerprint.hasher().putValue(new BigDecimal("1.5")).fingerprint(),
+        OrderFingerprint.hasher().putValue(new BigDecimal("1.50")).fingerprint());
+  }
+
+  @Test
+  void largeNumbersAreWrittenInFull() {
+    // unscaled values with the same 32-bit hash code
+    var first = BigInteger.ONE.shiftLeft(32).add(BigInteger.ONE);
+    var second = BigInteger.valueOf(32);
+    assertEquals(first.hashCode(), second.hashCode());
+    assertNotEquals(
+        OrderFingerprint.hasher().putValue(new BigDecimal(first, 2)).fingerprint(),
+        OrderFingerprint.hasher().putValue(new BigDecimal(second, 2)).fingerprint());
+
+    var large = BigInteger.TWO.pow(100);
+    assertNotEquals(
+        OrderFingerprint.hasher().putValue(large).fingerprint(),
+        OrderFingerprint.hasher().putValue(large.add(BigInteger.ONE.shiftLeft(64))).fingerprint());
+    assertEquals(
+        OrderFingerprint.hasher().putValue(BigInteger.valueOf(42)).fingerprint(),
+        OrderFingerprint.hasher().putValue(42).fingerprint());
+  }
+
+  @Test
+  void otherValuesAreWrittenWithTheirStringForm() {
+    // "Aa" and "BB" have the same hash code
+    assertNotEquals(
+        OrderFingerprint.hasher().putValue(new StringBuilder("Aa")).fingerprint(),
+        OrderFingerprint.hasher().putValue(new StringBuilder("BB")).fingerprint());
+    assertEquals(
+        OrderFingerprint.hasher().putValue(new StringBuilder("Aa")).fingerprint(),
+        OrderFingerprint.hasher().putValue(new StringBuilder("Aa")).fingerprint());
+    assertNotEquals(
+        OrderFingerprint.hasher().putValue(new StringBuilder("Aa")).fingerprint(),
+        OrderFingerprint.hasher().putValue("Aa").fingerprint());
+  }
+
+  @Test
+  void fingerprintDoesNotEndTheHasher() {
+    var hasher = OrderFingerprint.hasher().putString("a");
+    var prefix = hasher.fingerprint();
+
+    assertEquals(prefix, hasher.fingerprint());
+    assertEquals(
+        OrderFingerprint.hasher().putString("a").putString("b").fingerprint(),
+        hasher.putString("b").fingerprint());
+  }
+
+  @Test
+  void distinctInputsGiveDistinctFingerprints() {
+    var fingerprints = new HashSet<OrderFingerprint>();
+    for (int i = 0; i < 100_000; i++) {
+      fingerprints.add(OrderFingerprint.hasher().putString("item-" + i).fingerprint());
+    }
+
+    assertEquals(100_000, fingerprints.size());
+  }
+
+  @Test
+  void toStringIsHexadecimal() {
+    assertEquals(
+        "0123456789abcdeffedcba9876543210",
+        OrderFingerprint.of(0x0123456789abcdefL, 0xfedcba9876543210L).toString());
+    assertEquals(OrderFingerprint.of(1, 2), OrderFingerprint.of(1, 2));
+    assertNotEquals(OrderFingerprint.of(1, 2), OrderFingerprint.of(2, 1));
+  }
+
+  private static RelatedParty party(String id, String role) {
+    var party = new RelatedParty();
+    party.setId(id);
+    party.setRole(role);
+    return party;
+  }
+}
@@ -0,0 +1,240 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class OrderGraphTests {
+
+  record Item(String id, List<String> refs) {}
+
+  static Item item(String id, String... refs) {
+    return new Item(id, Arrays.asList(refs));
+  }
+
+  static OrderGraph<Item> graph(Item... items) {
+    return OrderGraph.of(Arrays.asList(items), Item::id, Item::refs, ref -> ref);
+  }
+
+  @Test
+  void ofBuildsIndexedGraph() {
+    var first = item("1");
+    var graph = graph(first, item("2", "1"), item("3", "1", "2"));
+
+    assertEquals(3, graph.size());
+    assertEquals(3, graph.relationshipCount());
+    assertSame(first, graph.item(0));
+    assertEquals("3", graph.id(2));
+    assertEquals(1, graph.indexOf("2"));
+    assertEquals(-1, graph.indexOf("4"));
+    assertEquals(-1, graph.indexOf(null));
+    assertTrue(graph.hasIndependentItem());
+    assertTrue(graph.hasUnreferencedItem());
+    assertEquals(-1, graph.danglingItem());
+    assertNull(graph.danglingId());
+    assertEquals(-1, graph.firstCyclicItem());
+  }
+
+  @Test
+  void indexOfResolvesToLastItemWithTheSameId() {
+    var graph = graph(item("1"), item("2"), item("1"), item(null));
+
+    assertEquals(2, graph.indexOf("1"));
+    assertEquals(3, graph.indexOf(null));
+  }
+
+  @Test
+  void duplicateItemReturnsFirstItemWithARepeatedId() {
+    assertEquals(3, graph(item("1"), item("2"), item(null), item("2"), item("1")).duplicateItem());
+    assertEquals(-1, graph(item("1"), item("2"), item(null)).duplicateItem());
+  }
+
+  @Test
+  void ofAcceptsNullRelationshipsAndSequentialLists() {
+    var items = new LinkedList<Item>();
+    items.add(new Item("1", null));
+    items.add(item("2", "1"));
+
+    var graph = OrderGraph.of(items, Item::id, Item::refs, ref -> ref);
+
+    assertEquals(1, graph.relationshipCount());
+    assertTrue(graph.hasIndependentItem());
+    assertEquals(1, graph.indexOf("2"));
+  }
+
+  @Test
+  void hasIndependentItemReturnsFalseWhenAllItemsHaveRelationships() {
+    var graph = graph(item("1", "2"), item("2", "3"));
+
+    assertFalse(graph.hasIndependentItem());
+    assertEquals(1, graph.danglingItem());
+    assertEquals("3", graph.danglingId());
+  }
+
+  @Test
+  void hasUnreferencedItemIgnoresSelfReferences() {
+    assertTrue(graph(item("1"), item("2", "2")).hasUnreferencedItem());
+    assertFalse(graph(item("1", "2"), item("2", "1")).hasUnreferencedItem());
+  }
+
+  @Test
+  void emptyGraphHasNeitherStartNorEnd() {
+    var graph = graph();
+
+    assertEquals(0, graph.size());
+    assertFalse(graph.hasIndependentItem());
+    assertFalse(graph.hasUnreferencedItem());
+    assertEquals(-1, graph.firstCyclicItem());
+  }
+
+  @Test
+  void danglingItemReturnsFirstItemWithMissingReference() {
+    var graph = graph(item("1"), item("2", "1", "x"), item("3", "y"));
+
+    assertEquals(1, graph.danglingItem());
+    assertEquals("x", graph.danglingId());
+    assertEquals(3, graph.relationshipCount());
+  }
+
+  @Test
+  void firstCyclicItemReturnsFirstItemOnACycle() {
+    var graph = graph(item("1"), item("2", "3"), item("3", "4"), item("4", "3"), item("5", "5"));
+
+    assertEquals(2, graph.firstCyclicItem());
+  }
+
+  @Test
+  void firstCyclicItemDetectsSelfReference() {
+    assertEquals(1, graph(item("1"), item("2", "1", "2")).firstCyclicItem());
+  }
+
+  @Test
+  void firstCyclicItemHandlesLongChains() {
+    var items = new Item[300000];
+    items[0] = item("0", "" + (items.length - 1));
+    for (int i = 1; i < items.length; i++) {
+      items[i] = item("" + i, "" + (i - 1));
+    }
+
+    assertEquals(0, graph(items).firstCyclicItem());
+  }
+
+  @Test
+  void wavesGroupItemsByDependencyDepth() {
+    var a = item("a");
+    var b = item("b", "a");
+    var c = item("c");
+    var d = item("d", "b", "c", "b");
+    var e = item("e", "a");
+    var graph = graph(d, e, c, b, a);
+
+    assertTrue(graph.isAcyclic());
+    assertEquals(List.of(List.of(c, a), List.of(e, b), List.of(d)), graph.waves());
+  }
+
+  @Test
+  void wavesOfEmptyGraphIsEmpty() {
+    assertEquals(List.of(), graph().waves());
+  }
+
+  @Test
+  void wavesThrowsExceptionWhenGraphIsCyclic() {
+    var graph = graph(item("1"), item("2", "3"), item("3", "2"));
+
+    assertFalse(graph.isAcyclic());
+    assertThrows(IllegalStateException.class, graph::waves);
+  }
+
+  @Test
+  void dependenciesOfReturnsTransitiveDependenciesNearestFirst() {
+    var a = item("a");
+    var b = item("b", "a");
+    var c = item("c", "b", "a");
+    var d = item("d", "c");
+    var graph = graph(a, b, c, d);
+
+    assertEquals(List.of(c, b, a), graph.dependenciesOf("d"));
+    assertEquals(List.of(), graph.dependenciesOf("a"));
+  }
+
+  @Test
+  void dependentsOfReturnsTransitiveDependentsNearestFirst() {
+    var a = item("a");
+    var b = item("b", "a");
+    var c = item("c", "b", "a");
+    var d = item("d", "c");
+    var e = item("e");
+    var graph = graph(a, b, c, d, e);
+
+    assertEquals(List.of(b, c, d), graph.dependentsOf("a"));
+    assertEquals(List.of(), graph.dependentsOf("e"));
+  }
+
+  @Test
+  void dependentsOfIncludesTheItemItselfWhenOnACycle() {
+    var a = item("a", "c");
+    var b = item("b", "a");
+    var c = item("c", "b");
+    var graph = graph(a, b, c);
+
+    assertEquals(List.of(b, c, a), graph.dependentsOf("a"));
+  }
+
+  @Test
+  void dependentsOfHandlesLargeFanOut() {
+    var items = new Item[1000];
+    items[0] = item("root");
+    for (int i = 1; i < items.length; i++) {
+      items[i] = item("" + i, "root");
+    }
+
+    assertEquals(999, graph(items).dependentsOf("root").size());
+  }
+
+  @Test
+  void dependentsOfThrowsExceptionWhenItemDoesNotExist() {
+    var graph = graph(item("a"));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> graph.dependentsOf("x"));
+    assertEquals("Item x not found in the order.", e.getMessage());
+  }
+
+  @Test
+  void componentsGroupConnectedItems() {
+    var a = item("a");
+    var b = item("b");
+    var c = item("c", "a");
+    var d = item("d", "b", "x");
+    var e = item("e");
+    var f = item("f", "e", "c");
+    var g = item("g", "g");
+    var graph = graph(a, b, c, d, e, f, g);
+
+    assertEquals(List.of(List.of(a, c, e, f), List.of(b, d), List.of(g)), graph.components());
+  }
+
+  @Test
+  void componentsOfEmptyGraphIsEmpty() {
+    assertEquals(List.of(), graph().components());
+  }
+
+  @Test
+  void componentsMergeLongChains() {
+    var items = new Item[100000];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = i % 2 == 0
+          ? item("" + i)
+          : item("" + i, "" + (i - 1), "" + (i + 1) % items.length);
+    }
+
+    assertEquals(1, graph(items).components().size());
+  }
+}
@@ -0,0 +1,83 @@
+package org.opentmf.v4.common.util;
+
+import static org.opentmf.v4.common.util.OrderGraphTests.graph;
+import static org.opentmf.v4.common.util.OrderGraphTests.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import org.opentmf.v4.common.util.OrderGraphTests.Item;
+
+class OrderReachabilityIndexTests {
+
+  @Test
+  void dependsOnAnswersDirectAndTransitiveDependencies() {
+    var graph = graph(item("d", "c"), item("c", "b"), item("b", "a"), item("a"), item("e", "a"));
+    var index = OrderReachabilityIndex.of(graph);
+
+    assertSame(graph, index.graph());
+    assertTrue(index.dependsOn("d", "c"));
+    assertTrue(index.dependsOn("d", "a"));
+    assertTrue(index.dependsOn("e", "a"));
+    assertFalse(index.dependsOn("a", "d"));
+    assertFalse(index.dependsOn("d", "e"));
+    assertFalse(index.dependsOn("d", "d"));
+  }
+
+  @Test
+  void dependsOnMatchesTraversalOnLargeGraph() {
+    var items = new ArrayList<Item>();
+    for (int i = 0; i < 300; i++) {
+      var refs = new ArrayList<String>();
+      for (int j = i % 7; j < i; j += 13) {
+        refs.add("" + j);
+      }
+      items.add(item("" + i, refs.toArray(String[]::new)));
+    }
+    var graph = graph(items.toArray(Item[]::new));
+    var index = OrderReachabilityIndex.of(graph);
+
+    for (int i = 0; i < graph.size(); i++) {
+      var dependencies = graph.dependenciesOf(graph.id(i));
+      int count = 0;
+      for (int j = 0; j < graph.size(); j++) {
+        if (index.dependsOn(i, j)) {
+          count++;
+          assertTrue(dependencies.contains(graph.item(j)));
+        }
+      }
+      assertEquals(dependencies.size(), count);
+    }
+  }
+
+  @Test
+  void dependsOnThrowsExceptionWhenItemDoesNotExist() {
+    var index = OrderReachabilityIndex.of(graph(item("a")));
+
+    assertThrows(IllegalArgumentException.class, () -> index.dependsOn("a", "x"));
+  }
+
+  @Test
+  void ofThrowsExceptionWhenGraphIsCyclic() {
+    var graph = graph(item("a"), item("b", "c"), item("c", "b"));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> OrderReachabilityIndex.of(graph));
+    assertEquals("There is a cyclic dependency on order Item b", e.getMessage());
+  }
+
+  @Test
+  void ofThrowsExceptionWhenGraphIsTooLarge() {
+    var items = new Item[400000];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = item("" + i);
+    }
+    var graph = graph(items);
+
+    var e = assertThrows(IllegalArgumentException.class, () -> OrderReachabilityIndex.of(graph));
+    assertEquals("Order with 400000 items is too large for a reachability index.", e.getMessage());
+  }
+}
@@ -0,0 +1,128 @@
+package org.opentmf.v4.common.util;
+
+import static org.opentmf.v4.common.util.OrderGraphTests.graph;
+import static org.opentmf.v4.common.util.OrderGraphTests.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentmf.v4.common.util.OrderGraphTests.Item;
+
+class OrderSchedulerTests {
+
+  @Test
+  void markCompletedReleasesDependentsWhenAllDependenciesComplete() {
+    var a = item("a");
+    var b = item("b");
+    var c = item("c", "a", "b");
+    var d = item("d", "c");
+    var scheduler = new OrderScheduler<>(graph(a, b, c, d));
+
+    assertEquals(List.of(a, b), scheduler.readyItems());
+    assertEquals(List.of(), scheduler.markCompleted("a"));
+    assertEquals(List.of(b), scheduler.readyItems());
+    assertEquals(List.of(c), scheduler.markCompleted("b"));
+    assertEquals(List.of(d), scheduler.markCompleted("c"));
+    assertFalse(scheduler.isFinished());
+    assertEquals(List.of(), scheduler.markCompleted("d"));
+    assertTrue(scheduler.isFinished());
+    assertTrue(scheduler.isCompleted("c"));
+  }
+
+  @Test
+  void markCompletedIgnoresRepeatedCompletions() {
+    var scheduler = new OrderScheduler<>(graph(item("a"), item("b", "a", "a")));
+
+    assertEquals(1, scheduler.markCompleted("a").size());
+    assertEquals(List.of(), scheduler.markCompleted("a"));
+    assertFalse(scheduler.isCompleted("b"));
+  }
+
+  @Test
+  void markCompletedThrowsExceptionWhenItemIsNotReady() {
+    var scheduler = new OrderScheduler<>(graph(item("a"), item("b", "a")));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> scheduler.markCompleted("b"));
+    assertEquals("Item b has uncompleted dependencies.", e.getMessage());
+  }
+
+  @Test
+  void markCompletedThrowsExceptionWhenItemDoesNotExist() {
+    var scheduler = new OrderScheduler<>(graph(item("a")));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> scheduler.markCompleted("x"));
+    assertEquals("Item x not found in the order.", e.getMessage());
+  }
+
+  @Test
+  void constructorThrowsExceptionWhenGraphIsCyclic() {
+    var graph = graph(item("a"), item("b", "c"), item("c", "b"));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> new OrderScheduler<>(graph));
+    assertEquals("There is a cyclic dependency on order Item b", e.getMessage());
+  }
+
+  @Test
+  void constructorThrowsExceptionWhenItemIdsAreDuplicated() {
+    var graph = graph(item("a"), item("b", "a"), item("a"));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> new OrderScheduler<>(graph));
+    assertEquals("Duplicate order item id a", e.getMessage());
+  }
+
+  @Test
+  void markCompletedReleasesEachItemOnceUnderConcurrentCompletions() throws Exception {
+    var items = new ArrayList<Item>();
+    for (int i = 0; i < 2000; i++) {
+      var refs = new ArrayList<String>();
+      for (int j = i - i % 50 - 50; j >= 0 && j < i - i % 50; j += 7) {
+        refs.add("" + j);
+      }
+      items.add(item("" + i, refs.toArray(String[]::new)));
+    }
+    var scheduler = new OrderScheduler<>(graph(items.toArray(Item[]::new)));
+    var released = new ConcurrentLinkedQueue<Item>();
+    var pending = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (var ready : scheduler.readyItems()) {
+        complete(executor, scheduler, ready, released, pending);
+      }
+      while (pending.get() > 0) {
+        Thread.sleep(5);
+      }
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    assertTrue(scheduler.isFinished());
+    assertEquals(2000 - 50, released.size());
+    assertEquals(released.size(), released.stream().distinct().count());
+  }
+
+  private void complete(
+      ExecutorService executor,
+      OrderScheduler<Item> scheduler,
+      Item item,
+      ConcurrentLinkedQueue<Item> released,
+      AtomicInteger pending) {
+    pending.incrementAndGet();
+    executor.execute(() -> {
+      for (var ready : scheduler.markCompleted(item.id())) {
+        released.add(ready);
+        complete(executor, scheduler, ready, released, pending);
+      }
+      pending.decrementAndGet();
+    });
+  }
+}
@@ -0,0 +1,107 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class OrderValidationCacheTests {
+
+  private static final Function<String, OrderFingerprint> FINGERPRINT =
+      order -> OrderFingerprint.hasher().putString(order).fingerprint();
+
+  private final AtomicLong now = new AtomicLong();
+  private final AtomicInteger validations = new AtomicInteger();
+
+  @Test
+  void validResultIsCached() {
+    var cache = cache(10, Duration.ofMinutes(1));
+
+    assertDoesNotThrow(() -> cache.validate("valid"));
+    assertDoesNotThrow(() -> cache.validate("valid"));
+
+    assertEquals(1, validations.get());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void failureMessageIsCached() {
+    var cache = cache(10, Duration.ofMinutes(1));
+
+    var first = assertThrows(IllegalArgumentException.class, () -> cache.validate("invalid"));
+    var second = assertThrows(IllegalArgumentException.class, () -> cache.validate("invalid"));
+
+    assertEquals("Order invalid is invalid", first.getMessage());
+    assertEquals(first.getMessage(), second.getMessage());
+    assertEquals(1, validations.get());
+    assertEquals(1, cache.getHitCount());
+  }
+
+  @Test
+  void otherExceptionsAreNotCached() {
+    var cache = OrderValidationCache.<String>of(
+        FINGERPRINT,
+        order -> {
+          validations.incrementAndGet();
+          throw new IllegalStateException("unavailable");
+        },
+        10,
+        Duration.ofMinutes(1));
+
+    assertThrows(IllegalStateException.class, () -> cache.validate("order"));
+    assertThrows(IllegalStateException.class, () -> cache.validate("order"));
+
+    assertEquals(2, validations.get());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void resultsAreEvictedBySizeAndTime() {
+    var cache = cache(2, Duration.ofNanos(100));
+
+    cache.validate("a");
+    cache.validate("b");
+    cache.validate("c");
+    assertEquals(2, cache.size());
+    cache.validate("a");
+    assertEquals(4, validations.get());
+
+    now.addAndGet(100);
+    cache.validate("a");
+    assertEquals(5, validations.get());
+
+    cache.invalidateAll();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void ofRejectsInvalidLimits() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> OrderValidationCache.<String>of(FINGERPRINT, order -> {}, 0, Duration.ofMinutes(1)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> OrderValidationCache.<String>of(FINGERPRINT, order -> {}, 1, Duration.ZERO));
+  }
+
+  private OrderValidationCache<String> cache(int maximumSize, Duration timeToLive) {
+    return OrderValidationCache.of(
+        FINGERPRINT,
+        order -> {
+          validations.incrementAndGet();
+          if (order.startsWith("invalid")) {
+            throw new IllegalArgumentException("Order " + order + " is invalid");
+          }
+        },
+        maximumSize,
+        timeToLive,
+        now::get);
+  }
+}
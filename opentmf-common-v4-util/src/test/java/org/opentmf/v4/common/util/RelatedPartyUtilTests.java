@@ -162,4 +162,25 @@ class RelatedPartyUtilTests {
         IllegalArgumentException.class,
         () -> RelatedPartyUtil.findSupplierParty(list));
   }
+
+  @Test
+  void test_canonicalize_withRepeatingRolesAndTypes_sharesInstances() {
+    var pool = new StringPool(10);
+    RelatedParty party1 = new RelatedParty();
+    party1.setRole(new String("customer"));
+    party1.setAtReferredType(new String("Customer"));
+    party1.setAtType(new String("RelatedParty"));
+    RelatedParty party2 = new RelatedParty();
+    party2.setRole(new String("customer"));
+    party2.setAtReferredType(new String("Customer"));
+    party2.setAtType(new String("RelatedParty"));
+
+    RelatedPartyUtil.canonicalize(Arrays.asList(party1, party2), pool);
+    RelatedPartyUtil.canonicalize(null, pool);
+
+    assertSame(party1.getRole(), party2.getRole());
+    assertSame(party1.getAtReferredType(), party2.getAtReferredType());
+    assertSame(party1.getAtType(), party2.getAtType());
+    assertEquals(3, pool.size());
+  }
 }
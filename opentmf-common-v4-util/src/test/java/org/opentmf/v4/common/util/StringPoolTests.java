@@ -0,0 +1,93 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class StringPoolTests {
+
+  @Test
+  void canonicalizeReturnsThePooledInstance() {
+    var pool = new StringPool(10);
+    var first = new String("customer");
+    var second = new String("customer");
+
+    assertSame(first, pool.canonicalize(first));
+    assertSame(first, pool.canonicalize(second));
+    assertEquals(1, pool.size());
+  }
+
+  @Test
+  void canonicalizeReturnsNullForNull() {
+    var pool = new StringPool(1);
+
+    assertNull(pool.canonicalize(null));
+    assertEquals(0, pool.size());
+  }
+
+  @Test
+  void fullPoolReturnsTheGivenString() {
+    var pool = new StringPool(2);
+    var a = pool.canonicalize(new String("a"));
+    var b = pool.canonicalize(new String("b"));
+    var c = new String("c");
+
+    assertSame(c, pool.canonicalize(c));
+    assertNotSame(c, pool.canonicalize(new String("c")));
+    assertSame(a, pool.canonicalize(new String("a")));
+    assertSame(b, pool.canonicalize(new String("b")));
+    assertEquals(2, pool.size());
+    assertEquals(2, pool.getMaximumSize());
+  }
+
+  @Test
+  void constructorRejectsNonPositiveSize() {
+    assertThrows(IllegalArgumentException.class, () -> new StringPool(0));
+    assertThrows(IllegalArgumentException.class, () -> new StringPool(-1));
+  }
+
+  @Test
+  void concurrentCanonicalizationStaysWithinBound() throws Exception {
+    var pool = new StringPool(50);
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    var start = new CountDownLatch(1);
+    var futures = new ArrayList<Future<String[]>>();
+    try {
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          var canonical = new String[100];
+          for (int i = 0; i < canonical.length; i++) {
+            canonical[i] = pool.canonicalize(new String("value" + i));
+          }
+          return canonical;
+        }));
+      }
+      start.countDown();
+      var results = new ArrayList<String[]>();
+      for (var future : futures) {
+        results.add(future.get(10, TimeUnit.SECONDS));
+      }
+
+      assertEquals(50, pool.size());
+      for (var result : results) {
+        for (int i = 0; i < result.length; i++) {
+          assertEquals("value" + i, result[i]);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package org.opentmf.v4.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.opentmf.v4.common.model.Characteristic;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class TypedCharacteristicViewTests {
+
+  private static final ZoneId UTC = ZoneOffset.UTC;
+
+  @Test
+  void valuesMatchCharacteristicUtil() {
+    for (var value : List.of("42", 42, 42L, "true", "1", 0, "x", "4.5", 4.5, "9999999999")) {
+      var characteristic = Characteristic.of("c", value);
+      var view = TypedCharacteristicView.of(characteristic, UTC);
+
+      assertEquals(CharacteristicUtil.getStringValue(characteristic), view.getStringValue());
+      assertEquals(CharacteristicUtil.getBooleanValue(characteristic), view.getBooleanValue());
+      assertEquals(
+          CharacteristicUtil.getBooleanValue(characteristic, true), view.getBooleanValue(true));
+      assertEquals(CharacteristicUtil.getIntegerValue(characteristic), view.getIntegerValue());
+      assertEquals(CharacteristicUtil.getIntValue(characteristic, -1), view.getIntValue(-1));
+      assertEquals(CharacteristicUtil.getLongValue(characteristic), view.getLongValue());
+      assertEquals(CharacteristicUtil.getLongValue(characteristic, -1L), view.getLongValue(-1L));
+      assertEquals(
+          CharacteristicUtil.getDoubleValue(characteristic, -1.0), view.getDoubleValue(-1.0));
+    }
+  }
+
+  @Test
+  void nullValueReturnsNullsAndDefaults() {
+    var view = TypedCharacteristicView.of(Characteristic.of("c", null));
+
+    assertNull(view.getValue());
+    assertNull(view.getStringValue());
+    assertNull(view.getBooleanValue());
+    assertNull(view.getIntegerValue());
+    assertNull(view.getLongValue());
+    assertNull(view.getOffsetDateTimeValue());
+    assertFalse(view.tryGetOffsetDateTimeValue().isPresent());
+    assertTrue(view.getBooleanValue(true));
+    assertEquals(7, view.getIntValue(7));
+    assertEquals(7L, view.getLongValue(7L));
+    assertEquals(7.0, view.getDoubleValue(7.0));
+  }
+
+  @Test
+  void offsetDateTimeIsParsedOnce() {
+    var conversions = new AtomicInteger();
+    var view = TypedCharacteristicView.of(
+        Characteristic.of("date", counting("2024-01-02T03:04:05Z", conversions)), UTC);
+
+    var first = view.getOffsetDateTimeValue();
+
+    assertEquals(OffsetDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC), first);
+    assertSame(first, view.getOffsetDateTimeValue());
+    assertSame(first, view.tryGetOffsetDateTimeValue().orElseThrow());
+    assertEquals(1, conversions.get());
+  }
+
+  @Test
+  void invalidOffsetDateTimeIsRecordedOnce() {
+    var conversions = new AtomicInteger();
+    var view = TypedCharacteristicView.of(
+        Characteristic.of("date", counting("not a date", conversions)), UTC);
+
+    var e = assertThrows(IllegalArgumentException.class, view::getOffsetDateTimeValue);
+    assertThrows(IllegalArgumentException.class, view::getOffsetDateTimeValue);
+    assertFalse(view.tryGetOffsetDateTimeValue().isPresent());
+    assertEquals("Date string not a date could not be parsed.", e.getMessage());
+    assertEquals(1, conversions.get());
+  }
+
+  @Test
+  void invalidNumbersAndBooleansAreRecordedOnce() {
+    var conversions = new AtomicInteger();
+    var view = TypedCharacteristicView.of(Characteristic.of("c", counting("abc", conversions)));
+
+    for (int i = 0; i < 3; i++) {
+      assertNull(view.getBooleanValue());
+      assertEquals(0, view.getIntegerValue());
+      assertEquals(5L, view.getLongValue(5L));
+      assertEquals(5.0, view.getDoubleValue(5.0));
+    }
+    assertEquals(4, conversions.get());
+  }
+
+  @Test
+  void boxedNumbersAreMemoized() {
+    var view = TypedCharacteristicView.of(Characteristic.of("c", "1000000"));
+
+    assertEquals(1_000_000, view.getIntegerValue());
+    assertSame(view.getIntegerValue(), view.getIntegerValue());
+    assertEquals(1_000_000L, view.getLongValue());
+    assertSame(view.getLongValue(), view.getLongValue());
+  }
+
+  @Test
+  void viewIsASnapshotOfTheValue() {
+    var characteristic = Characteristic.of("c", "1");
+    var view = TypedCharacteristicView.of(characteristic);
+
+    characteristic.setValue("2");
+
+    assertSame(characteristic, view.getCharacteristic());
+    assertEquals("c", view.getName());
+    assertEquals(1, view.getIntegerValue());
+  }
+
+  @Test
+  void ofRejectsNulls() {
+    assertThrows(NullPointerException.class, () -> TypedCharacteristicView.of(null));
+    assertThrows(
+        NullPointerException.class,
+        () -> TypedCharacteristicView.of(Characteristic.of("c", 1), null));
+  }
+
+  /** A value whose string form counts the times it is converted. */
+  private static Object counting(String text, AtomicInteger conversions) {
+    return new Object() {
+      @Override
+      public String toString() {
+        conversions.incrementAndGet();
+        return text;
+      }
+    };
+  }
+}